@@ -0,0 +1,234 @@
+package com.aws.agent.knowledge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * BM25 점수를 쓰는 인메모리 역색인 검색기 (불변, 스레드 안전)
+ *
+ * 색인어별 포스팅(문서 번호, 빈도)은 원시 int 배열에 담고, 문서 길이 정규화 값은 색인 시점에 미리 계산한다.
+ * 색인은 문서 구간별로 fork-join 병렬 분석 후 합친다.
+ * 질의 시에는 질의어의 포스팅만 훑어 점수를 누적한 뒤 크기 k의 힙으로 상위 문서를 고른다.
+ */
+public final class Bm25Index implements Retriever {
+
+    public static final String NAME = "bm25";
+
+    /** 이보다 작은 문서 구간은 한 작업에서 직접 분석 */
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    private final List<KnowledgeDocument> documents;
+    private final TextAnalyzer analyzer;
+    private final Map<String, Integer> termIds;
+    private final int[][] postingDocs;
+    private final int[][] postingFreqs;
+    private final float[] idf;
+    private final float[] docNorms;
+    private final float k1;
+
+    /**
+     * @param k1 빈도 포화 계수 (보통 1.2)
+     * @param b  문서 길이 정규화 강도 (0~1, 보통 0.75)
+     */
+    public Bm25Index(List<KnowledgeDocument> documents, TextAnalyzer analyzer, double k1, double b) {
+        this(documents, analyzer, k1, b, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 문서 구간별 부분 색인을 fork-join으로 병렬 구성한 뒤 문서 순서대로 이어 붙인다
+     */
+    public Bm25Index(List<KnowledgeDocument> documents, TextAnalyzer analyzer, double k1, double b, ForkJoinPool pool) {
+        if (k1 < 0 || b < 0 || b > 1) {
+            throw new IllegalArgumentException("BM25 파라미터가 올바르지 않습니다: k1=" + k1 + ", b=" + b);
+        }
+        this.documents = List.copyOf(documents);
+        this.analyzer = analyzer;
+        this.k1 = (float) k1;
+
+        int n = this.documents.size();
+        int[] docLengths = new int[n];
+        PartialIndex index = pool.invoke(new PartialIndexTask(0, n, docLengths));
+
+        Map<String, Integer> ids = new HashMap<>(index.postings.size() * 2);
+        this.postingDocs = new int[index.postings.size()][];
+        this.postingFreqs = new int[index.postings.size()][];
+        this.idf = new float[index.postings.size()];
+        int term = 0;
+        for (Map.Entry<String, PostingBuilder> entry : index.postings.entrySet()) {
+            PostingBuilder builder = entry.getValue();
+            ids.put(entry.getKey(), term);
+            postingDocs[term] = Arrays.copyOf(builder.docs, builder.size);
+            postingFreqs[term] = Arrays.copyOf(builder.freqs, builder.size);
+            idf[term] = (float) Math.log(1 + (n - builder.size + 0.5) / (builder.size + 0.5));
+            term++;
+        }
+        this.termIds = Map.copyOf(ids);
+
+        float averageLength = n == 0 ? 1 : Math.max(1, (float) index.totalLength / n);
+        this.docNorms = new float[n];
+        for (int doc = 0; doc < n; doc++) {
+            docNorms[doc] = (float) (k1 * (1 - b + b * docLengths[doc] / averageLength));
+        }
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    public int documentCount() {
+        return documents.size();
+    }
+
+    public int termCount() {
+        return termIds.size();
+    }
+
+    @Override
+    public List<Passage> retrieve(String query, int topK) {
+        if (documents.isEmpty() || topK <= 0) {
+            return List.of();
+        }
+        float[] scores = null;
+        int[] touched = null;
+        int touchedCount = 0;
+        for (String term : new LinkedHashSet<>(analyzer.analyzeQuery(query))) {
+            Integer termId = termIds.get(term);
+            if (termId == null) {
+                continue;
+            }
+            if (scores == null) {
+                scores = new float[documents.size()];
+                touched = new int[Math.min(documents.size(), 64)];
+            }
+            int[] docs = postingDocs[termId];
+            int[] freqs = postingFreqs[termId];
+            float weight = idf[termId] * (k1 + 1);
+            for (int i = 0; i < docs.length; i++) {
+                int doc = docs[i];
+                if (scores[doc] == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, Math.min(documents.size(), touched.length * 2));
+                    }
+                    touched[touchedCount++] = doc;
+                }
+                scores[doc] += weight * freqs[i] / (freqs[i] + docNorms[doc]);
+            }
+        }
+        if (touchedCount == 0) {
+            return List.of();
+        }
+
+        TopK top = new TopK(topK);
+        for (int i = 0; i < touchedCount; i++) {
+            top.offer(touched[i], scores[touched[i]]);
+        }
+        float[] topScores = new float[top.size()];
+        int[] topDocs = top.drainDescending(topScores);
+        List<Passage> passages = new ArrayList<>(topDocs.length);
+        for (int i = 0; i < topDocs.length; i++) {
+            KnowledgeDocument document = documents.get(topDocs[i]);
+            passages.add(new Passage(document.key(), document.content(), topScores[i]));
+        }
+        return passages;
+    }
+
+    /**
+     * 문서 구간 [from, to)의 부분 역색인. 구간이 작으면 직접 분석하고, 크면 반으로 나눠 병렬 처리 후 합친다
+     */
+    @SuppressWarnings("serial")
+    private final class PartialIndexTask extends RecursiveTask<PartialIndex> {
+
+        private final int from;
+        private final int to;
+        private final int[] docLengths;
+
+        PartialIndexTask(int from, int to, int[] docLengths) {
+            this.from = from;
+            this.to = to;
+            this.docLengths = docLengths;
+        }
+
+        @Override
+        protected PartialIndex compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                return analyzeRange();
+            }
+            int mid = (from + to) >>> 1;
+            PartialIndexTask right = new PartialIndexTask(mid, to, docLengths);
+            right.fork();
+            PartialIndex left = new PartialIndexTask(from, mid, docLengths).compute();
+            return left.append(right.join());
+        }
+
+        private PartialIndex analyzeRange() {
+            PartialIndex index = new PartialIndex();
+            Map<String, Integer> frequencies = new HashMap<>();
+            for (int doc = from; doc < to; doc++) {
+                KnowledgeDocument document = documents.get(doc);
+                List<String> tokens = analyzer.analyze(document.key() + "\n" + document.content());
+                docLengths[doc] = tokens.size();
+                index.totalLength += tokens.size();
+                frequencies.clear();
+                for (String token : tokens) {
+                    frequencies.merge(token, 1, Integer::sum);
+                }
+                for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                    index.postings.computeIfAbsent(entry.getKey(), t -> new PostingBuilder()).add(doc, entry.getValue());
+                }
+            }
+            return index;
+        }
+    }
+
+    private static final class PartialIndex {
+        private final Map<String, PostingBuilder> postings = new HashMap<>();
+        private long totalLength;
+
+        /**
+         * 뒤쪽 구간의 색인을 이어 붙임 (문서 번호 오름차순 유지)
+         */
+        PartialIndex append(PartialIndex next) {
+            next.postings.forEach((term, builder) -> {
+                PostingBuilder existing = postings.putIfAbsent(term, builder);
+                if (existing != null) {
+                    existing.addAll(builder);
+                }
+            });
+            totalLength += next.totalLength;
+            return this;
+        }
+    }
+
+    private static final class PostingBuilder {
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+
+        void addAll(PostingBuilder other) {
+            if (size + other.size > docs.length) {
+                docs = Arrays.copyOf(docs, Math.max(docs.length * 2, size + other.size));
+                freqs = Arrays.copyOf(freqs, docs.length);
+            }
+            System.arraycopy(other.docs, 0, docs, size, other.size);
+            System.arraycopy(other.freqs, 0, freqs, size, other.size);
+            size += other.size;
+        }
+    }
+}
@@ -0,0 +1,592 @@
+package com.aws.agent.knowledge;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * HNSW(Hierarchical Navigable Small World) 그래프 기반 근사 최근접 벡터 검색기 (생성 후 불변, 스레드 안전)
+ *
+ * - 문서 벡터는 연속된 오프힙(direct) float 버퍼 하나에 저장되어 GC가 훑지 않는다
+ * - 0층은 노드당 최대 2M개, 상위 층은 M개 이웃을 원시 int 배열로 보관하며, 이웃 선택은 휴리스틱(다양성 우선)을 쓴다
+ * - efSearch를 키우면 재현율이 오르고 지연이 늘어난다. exactSearch는 비교용 전수 코사인 검색
+ */
+public final class HnswIndex implements Retriever {
+
+    public static final String NAME = "vector";
+
+    private static final long LEVEL_SEED = 42;
+
+    /** 이보다 작은 문서 구간은 한 작업에서 직접 임베딩 */
+    private static final int EMBED_THRESHOLD = 256;
+
+    /** 보관할 검색 작업 공간 수 (더 많이 동시에 검색하면 남는 작업 공간은 반납 시 버림) */
+    private static final int SCRATCH_POOL_SIZE = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
+    private final List<KnowledgeDocument> documents;
+    private final HashingEmbedder embedder;
+    private final int dimensions;
+    private final int m;
+    private final int maxM0;
+    private final int efSearch;
+    private final double minScore;
+
+    private final FloatBuffer vectors;
+    private final int[] level0;
+    private final int[] level0Count;
+    private final int[][] upperLinks;
+    private final int[] nodeLevel;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    private final ArrayBlockingQueue<Scratch> scratchPool = new ArrayBlockingQueue<>(SCRATCH_POOL_SIZE);
+    private final float[] buildScratchA;
+    private final float[] buildScratchB;
+
+    /**
+     * @param m              상위 층 노드당 이웃 수 (0층은 2M)
+     * @param efConstruction 색인 시 후보 목록 크기
+     * @param efSearch       검색 시 기본 후보 목록 크기
+     * @param minScore       이보다 유사도가 낮은 결과는 버림
+     */
+    public HnswIndex(List<KnowledgeDocument> documents, HashingEmbedder embedder,
+                     int m, int efConstruction, int efSearch, double minScore) {
+        this(documents, embedder, m, efConstruction, efSearch, minScore, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 문서 임베딩은 fork-join으로 병렬 계산하고, 그래프 삽입은 순서대로 진행한다
+     */
+    public HnswIndex(List<KnowledgeDocument> documents, HashingEmbedder embedder,
+                     int m, int efConstruction, int efSearch, double minScore, ForkJoinPool pool) {
+        if (m < 2 || efConstruction <= 0 || efSearch <= 0) {
+            throw new IllegalArgumentException("HNSW 파라미터가 올바르지 않습니다: M=" + m
+                    + ", efConstruction=" + efConstruction + ", efSearch=" + efSearch);
+        }
+        this.documents = List.copyOf(documents);
+        this.embedder = embedder;
+        this.dimensions = embedder.dimensions();
+        this.m = m;
+        this.maxM0 = 2 * m;
+        this.efSearch = efSearch;
+        this.minScore = minScore;
+
+        int n = this.documents.size();
+        this.vectors = ByteBuffer.allocateDirect(Math.multiplyExact(Math.multiplyExact(n, dimensions), Float.BYTES))
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+        this.level0 = new int[Math.multiplyExact(n, maxM0)];
+        this.level0Count = new int[n];
+        this.upperLinks = new int[n][];
+        this.nodeLevel = new int[n];
+        this.buildScratchA = new float[dimensions];
+        this.buildScratchB = new float[dimensions];
+
+        pool.invoke(new EmbedTask(0, n));
+        Random random = new Random(LEVEL_SEED);
+        double levelMultiplier = 1 / Math.log(m);
+        Scratch work = new Scratch(n, dimensions);
+        for (int node = 0; node < n; node++) {
+            int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+            insert(node, level, efConstruction, work);
+        }
+        releaseScratch(work);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    public int documentCount() {
+        return documents.size();
+    }
+
+    /**
+     * 오프힙에 올라간 벡터 바이트 수
+     */
+    public long vectorBytes() {
+        return (long) vectors.capacity() * Float.BYTES;
+    }
+
+    @Override
+    public List<Passage> retrieve(String query, int topK) {
+        return retrieve(query, topK, efSearch);
+    }
+
+    /**
+     * 후보 목록 크기를 지정한 근사 검색
+     */
+    public List<Passage> retrieve(String query, int topK, int ef) {
+        float[] vector = embedder.embedQuery(query);
+        if (entryPoint < 0 || topK <= 0 || isZero(vector)) {
+            return List.of();
+        }
+        Scratch work = acquireScratch();
+        try {
+            int ep = entryPoint;
+            for (int level = maxLevel; level > 0; level--) {
+                ep = greedyClosest(vector, ep, level, work);
+            }
+            NodeHeap results = searchLayer(vector, ep, Math.max(ef, topK), 0, work);
+            while (results.size() > topK) {
+                results.pop();
+            }
+            return toPassages(results);
+        } finally {
+            releaseScratch(work);
+        }
+    }
+
+    /**
+     * 전수 코사인 검색 (근사 검색 재현율 비교용)
+     */
+    public List<Passage> exactSearch(String query, int topK) {
+        float[] vector = embedder.embedQuery(query);
+        if (documents.isEmpty() || topK <= 0 || isZero(vector)) {
+            return List.of();
+        }
+        Scratch work = acquireScratch();
+        try {
+            NodeHeap results = new NodeHeap(topK + 1);
+            for (int node = 0; node < documents.size(); node++) {
+                results.push(node, similarity(vector, node, work.vector));
+                if (results.size() > topK) {
+                    results.pop();
+                }
+            }
+            return toPassages(results);
+        } finally {
+            releaseScratch(work);
+        }
+    }
+
+    private List<Passage> toPassages(NodeHeap results) {
+        int count = results.size();
+        int[] ids = new int[count];
+        float[] scores = new float[count];
+        for (int i = count - 1; i >= 0; i--) {
+            ids[i] = results.peekId();
+            scores[i] = results.peekKey();
+            results.pop();
+        }
+        List<Passage> passages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (scores[i] < minScore) {
+                break;
+            }
+            KnowledgeDocument document = documents.get(ids[i]);
+            passages.add(new Passage(document.key(), document.content(), scores[i]));
+        }
+        return passages;
+    }
+
+    private void insert(int node, int level, int efConstruction, Scratch work) {
+        nodeLevel[node] = level;
+        if (level > 0) {
+            upperLinks[node] = new int[level * (m + 1)];
+        }
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+        float[] vector = new float[dimensions];
+        vectors.get(node * dimensions, vector);
+
+        int ep = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            ep = greedyClosest(vector, ep, l, work);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            NodeHeap candidates = searchLayer(vector, ep, efConstruction, l, work);
+            int[] sorted = drainDescending(candidates);
+            int[] neighbors = selectNeighbors(node, sorted, l == 0 ? maxM0 : m);
+            for (int neighbor : neighbors) {
+                addLink(node, neighbor, l);
+                addLink(neighbor, node, l);
+            }
+            ep = sorted[0];
+        }
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = node;
+        }
+    }
+
+    /**
+     * 풀에서 작업 공간을 빌림 (비어 있으면 새로 만듦). 풀은 인덱스와 함께 버려지므로 재색인 후 이전 인덱스의 작업 공간이 남지 않는다
+     */
+    private Scratch acquireScratch() {
+        Scratch work = scratchPool.poll();
+        return work != null ? work : new Scratch(documents.size(), dimensions);
+    }
+
+    private void releaseScratch(Scratch work) {
+        scratchPool.offer(work);
+    }
+
+    /**
+     * 한 층에서 질의에 가장 가까운 노드로 탐욕 이동
+     */
+    private int greedyClosest(float[] vector, int ep, int level, Scratch work) {
+        int current = ep;
+        float best = similarity(vector, current, work.vector);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int count = linkCount(current, level);
+            for (int i = 0; i < count; i++) {
+                int neighbor = link(current, level, i);
+                float score = similarity(vector, neighbor, work.vector);
+                if (score > best) {
+                    best = score;
+                    current = neighbor;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 한 층에서 ef개 후보를 유지하며 탐색. 반환 힙의 루트는 가장 먼 결과
+     */
+    private NodeHeap searchLayer(float[] vector, int ep, int ef, int level, Scratch work) {
+        work.clear();
+        work.mark(ep);
+        float epScore = similarity(vector, ep, work.vector);
+        NodeHeap candidates = new NodeHeap(ef + 1);
+        NodeHeap results = new NodeHeap(ef + 1);
+        candidates.push(ep, -epScore);
+        results.push(ep, epScore);
+
+        while (candidates.size() > 0) {
+            int current = candidates.peekId();
+            float currentScore = -candidates.peekKey();
+            candidates.pop();
+            if (results.size() >= ef && currentScore < results.peekKey()) {
+                break;
+            }
+            int count = linkCount(current, level);
+            for (int i = 0; i < count; i++) {
+                int neighbor = link(current, level, i);
+                if (!work.mark(neighbor)) {
+                    continue;
+                }
+                float score = similarity(vector, neighbor, work.vector);
+                if (results.size() < ef || score > results.peekKey()) {
+                    candidates.push(neighbor, -score);
+                    results.push(neighbor, score);
+                    if (results.size() > ef) {
+                        results.pop();
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 유사도 내림차순 후보에서 다양성 휴리스틱으로 최대 limit개 선택
+     * (이미 고른 이웃보다 기준 노드에 더 가까운 후보만 우선 채택하고, 모자라면 나머지로 채움)
+     */
+    private int[] selectNeighbors(int base, int[] sortedCandidates, int limit) {
+        int[] selected = new int[Math.min(limit, sortedCandidates.length)];
+        int count = 0;
+        boolean[] taken = new boolean[sortedCandidates.length];
+        for (int c = 0; c < sortedCandidates.length && count < selected.length; c++) {
+            int candidate = sortedCandidates[c];
+            if (candidate == base) {
+                taken[c] = true;
+                continue;
+            }
+            float toBase = similarity(candidate, base);
+            boolean diverse = true;
+            for (int s = 0; s < count; s++) {
+                if (similarity(candidate, selected[s]) > toBase) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[count++] = candidate;
+                taken[c] = true;
+            }
+        }
+        for (int c = 0; c < sortedCandidates.length && count < selected.length; c++) {
+            if (!taken[c]) {
+                selected[count++] = sortedCandidates[c];
+            }
+        }
+        return count == selected.length ? selected : Arrays.copyOf(selected, count);
+    }
+
+    private void addLink(int from, int to, int level) {
+        int capacity = level == 0 ? maxM0 : m;
+        int count = linkCount(from, level);
+        for (int i = 0; i < count; i++) {
+            if (link(from, level, i) == to) {
+                return;
+            }
+        }
+        if (count < capacity) {
+            setLink(from, level, count, to);
+            setLinkCount(from, level, count + 1);
+            return;
+        }
+        // 이웃이 가득 차면 새 노드를 포함해 다양성을 가장 해치는 이웃 하나만 뺀다 (전체 재선택보다 훨씬 쌈)
+        int[] pool = new int[count + 1];
+        float[] scores = new float[count + 1];
+        for (int i = 0; i < count; i++) {
+            pool[i] = link(from, level, i);
+            scores[i] = similarity(from, pool[i]);
+        }
+        pool[count] = to;
+        scores[count] = similarity(from, to);
+        int victim = leastDiverse(pool, scores);
+        for (int i = 0, j = 0; i <= count; i++) {
+            if (i != victim) {
+                setLink(from, level, j++, pool[i]);
+            }
+        }
+    }
+
+    /**
+     * 기준 노드와 가장 먼 이웃부터 살펴, 자신보다 기준 노드에 가까운 다른 이웃과 더 가까운(중복되는) 첫 이웃을 고름.
+     * 그런 이웃이 없으면 가장 먼 이웃
+     */
+    private int leastDiverse(int[] pool, float[] scores) {
+        Integer[] order = new Integer[pool.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (x, y) -> Float.compare(scores[x], scores[y]));
+        for (int rank = 0; rank < order.length - 1; rank++) {
+            int candidate = order[rank];
+            for (int better = order.length - 1; better > rank; better--) {
+                if (similarity(pool[candidate], pool[order[better]]) > scores[candidate]) {
+                    return candidate;
+                }
+            }
+        }
+        return order[0];
+    }
+
+    private int linkCount(int node, int level) {
+        return level == 0 ? level0Count[node] : upperLinks[node][(level - 1) * (m + 1)];
+    }
+
+    private int link(int node, int level, int index) {
+        return level == 0 ? level0[node * maxM0 + index] : upperLinks[node][(level - 1) * (m + 1) + 1 + index];
+    }
+
+    private void setLink(int node, int level, int index, int target) {
+        if (level == 0) {
+            level0[node * maxM0 + index] = target;
+        } else {
+            upperLinks[node][(level - 1) * (m + 1) + 1 + index] = target;
+        }
+    }
+
+    private void setLinkCount(int node, int level, int count) {
+        if (level == 0) {
+            level0Count[node] = count;
+        } else {
+            upperLinks[node][(level - 1) * (m + 1)] = count;
+        }
+    }
+
+    /**
+     * 질의 벡터와 노드의 내적. 오프힙 값을 원소 단위로 읽지 않고 작업 배열로 한 번에 복사한 뒤 계산한다
+     */
+    private float similarity(float[] vector, int node, float[] scratch) {
+        vectors.get(node * dimensions, scratch);
+        return dot(vector, scratch);
+    }
+
+    /**
+     * 두 노드 사이의 내적 (색인 구성 중에만 사용)
+     */
+    private float similarity(int a, int b) {
+        vectors.get(a * dimensions, buildScratchA);
+        vectors.get(b * dimensions, buildScratchB);
+        return dot(buildScratchA, buildScratchB);
+    }
+
+    /**
+     * 누산기 4개로 나눠 덧셈 의존 사슬을 끊은 내적 (JIT가 float 합산은 벡터화하지 않음)
+     */
+    private static float dot(float[] a, float[] b) {
+        float s0 = 0;
+        float s1 = 0;
+        float s2 = 0;
+        float s3 = 0;
+        int i = 0;
+        for (int bound = a.length & ~3; i < bound; i += 4) {
+            s0 += a[i] * b[i];
+            s1 += a[i + 1] * b[i + 1];
+            s2 += a[i + 2] * b[i + 2];
+            s3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < a.length; i++) {
+            s0 += a[i] * b[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private static int[] drainDescending(NodeHeap heap) {
+        int[] ids = new int[heap.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = heap.peekId();
+            heap.pop();
+        }
+        return ids;
+    }
+
+    private static boolean isZero(float[] vector) {
+        for (float v : vector) {
+            if (v != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 문서 구간 [from, to)를 임베딩해 오프힙 버퍼의 제자리에 기록 (구간끼리 겹치지 않으므로 동기화 불필요)
+     */
+    @SuppressWarnings("serial")
+    private final class EmbedTask extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+
+        EmbedTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= EMBED_THRESHOLD) {
+                for (int node = from; node < to; node++) {
+                    KnowledgeDocument document = documents.get(node);
+                    vectors.put(node * dimensions, embedder.embedDocument(document.key() + "\n" + document.content()));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new EmbedTask(from, mid), new EmbedTask(mid, to));
+        }
+    }
+
+    /**
+     * (노드, 키) 최소 힙. 키를 부호 반전해 넣으면 최대 힙으로 쓸 수 있다
+     */
+    private static final class NodeHeap {
+        private int[] ids;
+        private float[] keys;
+        private int size;
+
+        NodeHeap(int capacity) {
+            this.ids = new int[Math.max(2, capacity)];
+            this.keys = new float[ids.length];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int peekId() {
+            return ids[0];
+        }
+
+        float peekKey() {
+            return keys[0];
+        }
+
+        void push(int id, float key) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                ids[i] = ids[parent];
+                keys[i] = keys[parent];
+                i = parent;
+            }
+            ids[i] = id;
+            keys[i] = key;
+        }
+
+        void pop() {
+            size--;
+            if (size == 0) {
+                return;
+            }
+            int id = ids[size];
+            float key = keys[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= key) {
+                    break;
+                }
+                ids[i] = ids[child];
+                keys[i] = keys[child];
+                i = child;
+            }
+            ids[i] = id;
+            keys[i] = key;
+        }
+    }
+
+    /**
+     * 검색 한 번이 독점하는 작업 공간: 방문 표시(세대 번호로 매 검색마다 배열을 지우지 않음)와 벡터 복사용 배열
+     */
+    private static final class Scratch {
+        private final int[] marks;
+        private final float[] vector;
+        private int generation;
+
+        Scratch(int size, int dimensions) {
+            this.marks = new int[size];
+            this.vector = new float[dimensions];
+        }
+
+        void clear() {
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(marks, 0);
+                generation = 1;
+            }
+        }
+
+        /** 처음 방문이면 true */
+        boolean mark(int node) {
+            if (marks[node] == generation) {
+                return false;
+            }
+            marks[node] = generation;
+            return true;
+        }
+    }
+}
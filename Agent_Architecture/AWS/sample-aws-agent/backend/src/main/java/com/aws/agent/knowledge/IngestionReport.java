@@ -0,0 +1,17 @@
+package com.aws.agent.knowledge;
+
+/**
+ * 코퍼스 적재 결과
+ *
+ * @param version         새로 게시된 색인 스냅샷 번호
+ * @param retriever       색인을 만든 검색기
+ * @param files           읽은 파일 수
+ * @param documents       색인된 전체 문서 수 (기본 지식 포함)
+ * @param readMillis      파일 읽기/분할에 걸린 시간
+ * @param indexMillis     색인 구성에 걸린 시간
+ * @param docsPerSecond   읽기부터 게시까지의 처리량
+ * @param peakHeapBytes   적재 중 힙 최대 사용량
+ */
+public record IngestionReport(long version, String retriever, int files, int documents,
+                              long readMillis, long indexMillis, double docsPerSecond, long peakHeapBytes) {
+}
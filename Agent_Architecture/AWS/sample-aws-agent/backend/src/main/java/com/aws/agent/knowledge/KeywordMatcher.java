@@ -0,0 +1,240 @@
+package com.aws.agent.knowledge;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * 여러 키워드를 한 번에 찾는 Aho-Corasick 오토마톤 (불변, 스레드 안전)
+ *
+ * 키 개수와 무관하게 질의 문자열을 한 번만 훑으며, 대소문자는 매칭 중에 문자 단위로 접어 별도 문자열을 만들지 않는다.
+ * 노드별 자식 간선은 문자 순으로 정렬된 배열 구간에 저장해 이진 탐색한다.
+ * 루트에서는 "소문자로 접으면 어떤 키의 첫 글자가 되는 문자" 비트셋으로 나머지 문자를 접기/탐색 없이 건너뛴다.
+ *
+ * @param <V> 키에 연결된 값
+ */
+public final class KeywordMatcher<V> {
+
+    private static final int ROOT = 0;
+
+    /**
+     * 키 번호 단위 방문자 (Match 객체를 만들지 않는 scanKeys용)
+     */
+    @FunctionalInterface
+    public interface KeyVisitor {
+
+        /**
+         * @param key 키 번호 (key(int)/value(int)로 조회)
+         * @param end 질의에서 키가 끝나는 위치 (exclusive)
+         */
+        void visit(int key, int end);
+    }
+
+    /**
+     * 질의에서 찾은 키 (같은 키가 여러 번 나오면 첫 위치)
+     */
+    public record Match<V>(String key, V value, int start, int end) {
+
+        public int length() {
+            return end - start;
+        }
+    }
+
+    private final String[] keys;
+    private final List<V> values;
+
+    private final int[] edgeStart;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    private final int[] fail;
+    private final int[] outputKey;
+    private final int[] outputLink;
+    private final long[] rootFilter = new long[(Character.MAX_VALUE + 1) / Long.SIZE];
+
+    /**
+     * 키 → 값 맵으로 오토마톤 생성. 키는 소문자로 정규화되며 빈 키는 무시
+     */
+    public static <V> KeywordMatcher<V> compile(Map<String, V> entries) {
+        return new KeywordMatcher<>(entries);
+    }
+
+    private KeywordMatcher(Map<String, V> entries) {
+        Map<String, V> normalized = new TreeMap<>();
+        entries.forEach((key, value) -> {
+            if (key != null && !key.isEmpty()) {
+                normalized.put(key.toLowerCase(), value);
+            }
+        });
+        this.keys = normalized.keySet().toArray(new String[0]);
+        this.values = Collections.unmodifiableList(new ArrayList<>(normalized.values()));
+
+        // 1) 트라이 구성
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<Integer> terminal = new ArrayList<>();
+        children.add(new TreeMap<>());
+        terminal.add(-1);
+        for (int k = 0; k < keys.length; k++) {
+            int node = ROOT;
+            for (int i = 0; i < keys[k].length(); i++) {
+                char c = keys[k].charAt(i);
+                Integer next = children.get(node).get(c);
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    terminal.add(-1);
+                    children.get(node).put(c, next);
+                }
+                node = next;
+            }
+            terminal.set(node, k);
+        }
+
+        // 2) 간선을 정렬된 평면 배열로 압축
+        int nodes = children.size();
+        this.edgeStart = new int[nodes + 1];
+        int edges = 0;
+        for (int n = 0; n < nodes; n++) {
+            edgeStart[n] = edges;
+            edges += children.get(n).size();
+        }
+        edgeStart[nodes] = edges;
+        this.edgeChars = new char[edges];
+        this.edgeTargets = new int[edges];
+        for (int n = 0; n < nodes; n++) {
+            int e = edgeStart[n];
+            for (Map.Entry<Character, Integer> edge : children.get(n).entrySet()) {
+                edgeChars[e] = edge.getKey();
+                edgeTargets[e] = edge.getValue();
+                e++;
+            }
+        }
+
+        // 3) BFS로 실패 링크와 출력 링크 계산
+        this.fail = new int[nodes];
+        this.outputKey = new int[nodes];
+        this.outputLink = new int[nodes];
+        Arrays.fill(outputLink, -1);
+        for (int n = 0; n < nodes; n++) {
+            outputKey[n] = terminal.get(n);
+        }
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int e = edgeStart[ROOT]; e < edgeStart[ROOT + 1]; e++) {
+            fail[edgeTargets[e]] = ROOT;
+            queue.add(edgeTargets[e]);
+        }
+        for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+            if (transition(ROOT, lowerCase((char) c)) >= 0) {
+                rootFilter[c >>> 6] |= 1L << c;
+            }
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int e = edgeStart[node]; e < edgeStart[node + 1]; e++) {
+                int child = edgeTargets[e];
+                int f = fail[node];
+                int target;
+                while ((target = transition(f, edgeChars[e])) < 0 && f != ROOT) {
+                    f = fail[f];
+                }
+                fail[child] = target >= 0 && target != child ? target : ROOT;
+                int suffix = fail[child];
+                outputLink[child] = outputKey[suffix] >= 0 ? suffix : outputLink[suffix];
+                queue.add(child);
+            }
+        }
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public String key(int index) {
+        return keys[index];
+    }
+
+    public V value(int index) {
+        return values.get(index);
+    }
+
+    /**
+     * 질의에 포함된 키를 모두 찾아 긴 키 우선, 같은 길이면 먼저 나온 위치 순으로 반환 (키별 1회)
+     */
+    public List<Match<V>> findAll(CharSequence text) {
+        if (keys.length == 0 || text == null) {
+            return List.of();
+        }
+        Map<String, Match<V>> found = new HashMap<>();
+        scan(text, match -> found.putIfAbsent(match.key(), match));
+        if (found.isEmpty()) {
+            return List.of();
+        }
+        List<Match<V>> matches = new ArrayList<>(found.values());
+        matches.sort(Comparator.<Match<V>>comparingInt(Match::length).reversed()
+                .thenComparingInt(Match::start)
+                .thenComparing(Match::key));
+        return matches;
+    }
+
+    /**
+     * 질의를 한 번 훑으며 키가 나올 때마다 위치 순으로 visitor 호출 (같은 키도 매번 호출, 결과 컬렉션을 만들지 않음)
+     */
+    public void scan(CharSequence text, Consumer<Match<V>> visitor) {
+        scanKeys(text, (k, end) -> visitor.accept(new Match<>(keys[k], values.get(k), end - keys[k].length(), end)));
+    }
+
+    /**
+     * scan()과 같되 키 번호와 끝 위치만 넘겨 일치마다 객체를 만들지 않음
+     */
+    public void scanKeys(CharSequence text, KeyVisitor visitor) {
+        if (keys.length == 0 || text == null) {
+            return;
+        }
+        int node = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            char raw = text.charAt(i);
+            if (node == ROOT && (rootFilter[raw >>> 6] & (1L << raw)) == 0) {
+                continue;
+            }
+            char c = lowerCase(raw);
+            int next;
+            while ((next = transition(node, c)) < 0 && node != ROOT) {
+                node = fail[node];
+            }
+            node = Math.max(next, ROOT);
+            for (int out = outputKey[node] >= 0 ? node : outputLink[node]; out >= 0; out = outputLink[out]) {
+                visitor.visit(outputKey[out], i + 1);
+            }
+        }
+    }
+
+    private static char lowerCase(char c) {
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(c);
+    }
+
+    private int transition(int node, char c) {
+        int lo = edgeStart[node];
+        int hi = edgeStart[node + 1] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char m = edgeChars[mid];
+            if (m < c) {
+                lo = mid + 1;
+            } else if (m > c) {
+                hi = mid - 1;
+            } else {
+                return edgeTargets[mid];
+            }
+        }
+        return -1;
+    }
+}
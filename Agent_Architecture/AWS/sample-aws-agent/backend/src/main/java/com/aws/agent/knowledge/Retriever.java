@@ -0,0 +1,31 @@
+package com.aws.agent.knowledge;
+
+import java.util.List;
+
+/**
+ * 질의에 관련된 지식을 관련도 순으로 찾는 검색기
+ *
+ * 구현체는 불변이어야 하며, 지식이 바뀌면 새 인스턴스를 만들어 교체한다.
+ */
+public interface Retriever {
+
+    /**
+     * 설정(agent.kb.retriever) 및 메타데이터에 쓰이는 이름
+     */
+    String name();
+
+    /**
+     * 관련도 내림차순으로 최대 topK건 반환
+     */
+    List<Passage> retrieve(String query, int topK);
+
+    /**
+     * 검색 결과와 인용, 검색기별 소요 시간을 함께 반환
+     */
+    default RetrievalResult search(String query, int topK) {
+        long started = System.nanoTime();
+        List<Passage> passages = retrieve(query, topK);
+        return RetrievalResult.of(passages,
+                List.of(RetrieverTiming.since(name(), started, passages.size(), RetrieverTiming.Outcome.OK)));
+    }
+}
@@ -0,0 +1,137 @@
+package com.aws.agent.knowledge;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 지식 코퍼스를 불변 색인 세그먼트 파일로 만드는 오프라인 빌더
+ *
+ * 코퍼스를 스트리밍으로 읽어 docs-per-segment건마다 세그먼트 하나를 기록하므로 메모리는 세그먼트 하나 분량만 쓴다.
+ * 출력 디렉터리에 이미 세그먼트가 있으면 그 뒤 번호로 이어서 만들고, 서버는 디렉터리의 세그먼트를 모두 합쳐 검색한다.
+ * <pre>
+ * java -cp target/aws-agent-backend-1.0.0.jar \
+ *      -Dloader.main=com.aws.agent.knowledge.SegmentBuilder \
+ *      org.springframework.boot.loader.launch.PropertiesLauncher \
+ *      data/kb-segments ../../AWS_AI_Agent_Architecture_Best_Practices.md [--docs-per-segment=100000] [--chunk-chars=1200]
+ * </pre>
+ */
+public final class SegmentBuilder {
+
+    public static final String EXTENSION = ".kbseg";
+
+    private final Path outputDirectory;
+    private final int docsPerSegment;
+    private final TextAnalyzer analyzer = TextAnalyzer.standard();
+    private final List<Path> written = new ArrayList<>();
+    private SegmentWriter writer;
+    private int nextNumber;
+    private long documents;
+
+    public SegmentBuilder(Path outputDirectory, int docsPerSegment) throws IOException {
+        if (docsPerSegment <= 0) {
+            throw new IllegalArgumentException("docs-per-segment는 0보다 커야 합니다");
+        }
+        this.outputDirectory = Files.createDirectories(outputDirectory);
+        this.docsPerSegment = docsPerSegment;
+        this.nextNumber = nextSegmentNumber(outputDirectory);
+        this.writer = new SegmentWriter(analyzer);
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Path> inputs = new ArrayList<>();
+        int docsPerSegment = 100_000;
+        int chunkChars = 1200;
+        for (String arg : args) {
+            if (arg.startsWith("--docs-per-segment=")) {
+                docsPerSegment = Integer.parseInt(arg.substring("--docs-per-segment=".length()));
+            } else if (arg.startsWith("--chunk-chars=")) {
+                chunkChars = Integer.parseInt(arg.substring("--chunk-chars=".length()));
+            } else {
+                inputs.add(Path.of(arg));
+            }
+        }
+        if (inputs.size() < 2) {
+            System.err.println("usage: SegmentBuilder <output-dir> <input>... [--docs-per-segment=N] [--chunk-chars=N]");
+            System.exit(2);
+        }
+
+        long started = System.nanoTime();
+        SegmentBuilder builder = new SegmentBuilder(inputs.get(0), docsPerSegment);
+        CorpusReader reader = new CorpusReader(new ObjectMapper(), chunkChars);
+        for (Path input : inputs.subList(1, inputs.size())) {
+            reader.read(input, builder::add);
+        }
+        List<Path> segments = builder.finish();
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("%d documents -> %d segment(s) in %s (%.1fs, %.0f docs/s)%n",
+                builder.documents, segments.size(), builder.outputDirectory, seconds, builder.documents / seconds);
+    }
+
+    /**
+     * 문서 추가. 세그먼트 하나 분량이 차면 파일로 기록
+     */
+    public void add(KnowledgeDocument document) {
+        writer.add(document);
+        documents++;
+        if (writer.size() >= docsPerSegment) {
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * 남은 문서를 기록하고 이번에 만든 세그먼트 목록을 반환
+     */
+    public List<Path> finish() throws IOException {
+        flush();
+        return List.copyOf(written);
+    }
+
+    private void flush() throws IOException {
+        if (writer.size() == 0) {
+            return;
+        }
+        Path file = outputDirectory.resolve(String.format("%06d%s", nextNumber++, EXTENSION));
+        writer.writeTo(file);
+        written.add(file);
+        writer = new SegmentWriter(analyzer);
+    }
+
+    /**
+     * 디렉터리의 세그먼트 파일을 번호 순으로 반환 (디렉터리가 없으면 빈 목록)
+     */
+    public static List<Path> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(EXTENSION)).sorted().toList();
+        }
+    }
+
+    /**
+     * 기존 세그먼트 중 가장 큰 번호 + 1. 중간 세그먼트가 지워져 번호가 비어 있어도 살아 있는 세그먼트를 덮어쓰지 않는다
+     */
+    private static int nextSegmentNumber(Path directory) throws IOException {
+        int next = 0;
+        for (Path segment : listSegments(directory)) {
+            String name = segment.getFileName().toString();
+            try {
+                next = Math.max(next, Integer.parseInt(name.substring(0, name.length() - EXTENSION.length())) + 1);
+            } catch (NumberFormatException e) {
+                // 번호 형식이 아닌 이름으로 넣은 세그먼트는 번호 계산에서 제외
+            }
+        }
+        return next;
+    }
+}
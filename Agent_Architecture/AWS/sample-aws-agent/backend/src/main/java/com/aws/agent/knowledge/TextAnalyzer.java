@@ -0,0 +1,85 @@
+package com.aws.agent.knowledge;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 한국어/영어 혼합 텍스트를 색인어로 나누는 분석기 (불변, 스레드 안전)
+ *
+ * - 한글 음절 연속 구간은 2글자 단위(bigram)로 겹쳐 자른다 ("서버리스" → 서버, 버리, 리스). 한 글자 구간은 그대로
+ * - 그 밖의 문자/숫자 연속 구간은 소문자 단어 하나로 본다 ("Lambda는" → lambda, 는)
+ * - 질의 분석 시 별칭("람다" → "lambda")이 포함되어 있으면 대상 표현의 색인어를 덧붙인다
+ */
+public final class TextAnalyzer {
+
+    private static final char HANGUL_FIRST = '가';
+    private static final char HANGUL_LAST = '힣';
+
+    private final KeywordMatcher<String> aliases;
+
+    /**
+     * @param aliases 별칭 → 대상 표현 (예: "람다" → "lambda")
+     */
+    public TextAnalyzer(Map<String, String> aliases) {
+        this.aliases = KeywordMatcher.compile(aliases);
+    }
+
+    public static TextAnalyzer standard() {
+        return new TextAnalyzer(Map.of());
+    }
+
+    /**
+     * 색인용 분석 (등장 순서대로, 중복 포함)
+     */
+    public List<String> analyze(CharSequence text) {
+        List<String> tokens = new ArrayList<>();
+        tokenize(text, tokens);
+        return tokens;
+    }
+
+    /**
+     * 질의용 분석 (별칭 확장 포함)
+     */
+    public List<String> analyzeQuery(CharSequence query) {
+        List<String> tokens = analyze(query);
+        for (KeywordMatcher.Match<String> alias : aliases.findAll(query)) {
+            tokenize(alias.value(), tokens);
+        }
+        return tokens;
+    }
+
+    private static void tokenize(CharSequence text, List<String> out) {
+        StringBuilder word = new StringBuilder();
+        int hangulStart = -1;
+        int length = text.length();
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            boolean hangul = c >= HANGUL_FIRST && c <= HANGUL_LAST;
+            if (hangul) {
+                if (hangulStart < 0) {
+                    hangulStart = i;
+                }
+            } else if (hangulStart >= 0) {
+                emitHangul(text, hangulStart, i, out);
+                hangulStart = -1;
+            }
+            if (!hangul && Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (word.length() > 0) {
+                out.add(word.toString());
+                word.setLength(0);
+            }
+        }
+    }
+
+    private static void emitHangul(CharSequence text, int start, int end, List<String> out) {
+        if (end - start == 1) {
+            out.add(String.valueOf(text.charAt(start)));
+            return;
+        }
+        for (int i = start; i + 1 < end; i++) {
+            out.add(text.subSequence(i, i + 2).toString());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.aws.agent.knowledge;
+
+/**
+ * 점수 상위 k개 문서 번호를 고르는 크기 제한 최소 힙 (박싱 없는 원시 배열)
+ *
+ * 점수가 같으면 문서 번호가 작은 쪽을 우선해 결과 순서가 항상 같다. 스레드 안전하지 않음.
+ */
+final class TopK {
+
+    private final int[] ids;
+    private final float[] scores;
+    private int size;
+
+    TopK(int capacity) {
+        this.ids = new int[Math.max(1, capacity)];
+        this.scores = new float[ids.length];
+    }
+
+    void offer(int id, float score) {
+        if (size < ids.length) {
+            ids[size] = id;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (worse(0, id, score)) {
+            ids[0] = id;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 힙을 비우며 점수 내림차순으로 문서 번호를 반환 (scoresOut이 있으면 점수도 채움)
+     */
+    int[] drainDescending(float[] scoresOut) {
+        int[] result = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = ids[0];
+            if (scoresOut != null) {
+                scoresOut[i] = scores[0];
+            }
+            size--;
+            ids[0] = ids[size];
+            scores[0] = scores[size];
+            siftDown(0);
+        }
+        return result;
+    }
+
+    /** 힙 위치 i의 원소가 (id, score)보다 순위가 낮은지 */
+    private boolean worse(int i, int id, float score) {
+        return scores[i] < score || (scores[i] == score && ids[i] > id);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!worse(i, ids[parent], scores[parent])) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left;
+            int right = left + 1;
+            if (right < size && worse(right, ids[left], scores[left])) {
+                smallest = right;
+            }
+            if (!worse(smallest, ids[i], scores[i])) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        float score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
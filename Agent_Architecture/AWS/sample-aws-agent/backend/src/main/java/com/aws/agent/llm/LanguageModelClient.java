@@ -0,0 +1,64 @@
+package com.aws.agent.llm;
+
+import java.io.IOException;
+
+/**
+ * 응답 생성 모델 (오케스트레이터가 부르는 LLM 경계)
+ *
+ * 기본 구현은 내장 템플릿이며, agent.llm.provider=http이면 모델 서버를 호출한다.
+ * 구현은 스레드 안전해야 한다.
+ */
+public interface LanguageModelClient {
+
+    /** 기본 stream이 한 번에 넘기는 최대 글자 수 */
+    int CHUNK_CHARS = 48;
+
+    /**
+     * 생성된 텍스트 조각을 받는 쪽. 연결이 끊겼으면 IOException
+     */
+    @FunctionalInterface
+    interface TokenSink {
+        void accept(String text) throws IOException;
+    }
+
+    /**
+     * 구현 이름 (로그/설정용)
+     */
+    String name();
+
+    /**
+     * 응답 전체 생성
+     */
+    String generate(Prompt prompt);
+
+    /**
+     * 생성되는 대로 조각을 sink에 넘기고 전체 응답을 반환. sink의 IOException은 그대로 전파한다
+     *
+     * 기본 구현은 generate 결과를 CHUNK_CHARS자 이하로, 가능하면 공백 뒤에서 잘라 넘긴다.
+     */
+    default String stream(Prompt prompt, TokenSink sink) throws IOException {
+        String text = generate(prompt);
+        for (int start = 0; start < text.length(); ) {
+            int end = chunkEnd(text, start);
+            sink.accept(text.substring(start, end));
+            start = end;
+        }
+        return text;
+    }
+
+    /**
+     * start부터 최대 CHUNK_CHARS자까지, 가능하면 공백 뒤에서 자른 조각의 끝 위치
+     */
+    private static int chunkEnd(String text, int start) {
+        int end = Math.min(text.length(), start + CHUNK_CHARS);
+        if (end == text.length()) {
+            return end;
+        }
+        for (int i = end; i > start + 1; i--) {
+            if (Character.isWhitespace(text.charAt(i - 1))) {
+                return i;
+            }
+        }
+        return end;
+    }
+}
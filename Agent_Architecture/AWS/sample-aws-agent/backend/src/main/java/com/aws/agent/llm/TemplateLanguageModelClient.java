@@ -0,0 +1,59 @@
+package com.aws.agent.llm;
+
+import java.util.List;
+
+/**
+ * 응답 생성 (실제 Bedrock LLM 대신 간단한 템플릿 로직)
+ * 모델 서버를 쓰지 않을 때의 기본값이자, 모델 서버 호출이 실패했을 때의 대체 응답
+ */
+public class TemplateLanguageModelClient implements LanguageModelClient {
+    
+    @Override
+    public String name() {
+        return "template";
+    }
+    
+    @Override
+    public String generate(Prompt prompt) {
+        StringBuilder response = new StringBuilder();
+        List<String> knowledgeResults = prompt.knowledge();
+        
+        // 도구 결과가 있으면 우선 사용 (도구별 응답 형식은 각 Tool 구현이 결정)
+        if (prompt.hasToolOutput()) {
+            response.append(prompt.toolOutput());
+        } else if (!knowledgeResults.isEmpty()) {
+            // 지식 기반 결과 사용
+            response.append(knowledgeResults.get(0));
+            if (knowledgeResults.size() > 1) {
+                response.append("\n\n추가 정보: ").append(knowledgeResults.get(1));
+            }
+        } else {
+            // 기본 응답
+            response.append(generateDefaultResponse(prompt.message()));
+        }
+        
+        return response.toString();
+    }
+    
+    /**
+     * 기본 응답 생성
+     */
+    private String generateDefaultResponse(String message) {
+        String lowerMessage = message.toLowerCase();
+        
+        if (lowerMessage.contains("안녕") || lowerMessage.contains("hello")) {
+            return "안녕하세요! AWS AI Agent입니다. 무엇을 도와드릴까요?";
+        }
+        
+        if (lowerMessage.contains("도움") || lowerMessage.contains("help")) {
+            return "저는 다음과 같은 기능을 제공할 수 있습니다:\n" +
+                   "- 계산기: 수학 연산 (예: '5 + 3 계산해줘')\n" +
+                   "- 날씨 조회: 현재 날씨 정보\n" +
+                   "- 시간 조회: 현재 시간\n" +
+                   "- 지식 검색: AWS, Bedrock, Lambda 등에 대한 정보";
+        }
+        
+        return "이해했습니다. '" + message + "'에 대해 답변드리겠습니다. " +
+               "더 구체적인 질문을 해주시면 더 정확한 답변을 드릴 수 있습니다.";
+    }
+}
@@ -0,0 +1,29 @@
+package com.aws.agent.routing;
+
+import java.util.List;
+
+/**
+ * 도구 하나를 고르는 규칙
+ *
+ * @param tool       선택할 도구 이름
+ * @param priority   여러 도구가 동시에 걸리면 큰 값이 이김
+ * @param confidence 트리거 하나가 걸렸을 때의 신뢰도 (0~1, 여러 개가 걸리면 1 - (1 - c)^n)
+ * @param phrases    질의에 포함되면 걸리는 문구 (대소문자 무시)
+ * @param patterns   질의 안에서 찾을 내장 패턴 이름 (현재 "arithmetic": 숫자 연산자 숫자)
+ */
+public record RouteRule(String tool, int priority, double confidence, List<String> phrases, List<String> patterns) {
+
+    public RouteRule {
+        if (tool == null || tool.isBlank()) {
+            throw new IllegalArgumentException("라우팅 규칙에 tool이 없습니다");
+        }
+        if (confidence <= 0 || confidence > 1) {
+            throw new IllegalArgumentException("라우팅 규칙 신뢰도는 0 초과 1 이하여야 합니다: " + tool);
+        }
+        phrases = phrases == null ? List.of() : List.copyOf(phrases);
+        patterns = patterns == null ? List.of() : List.copyOf(patterns);
+        if (phrases.isEmpty() && patterns.isEmpty()) {
+            throw new IllegalArgumentException("라우팅 규칙에 트리거가 없습니다: " + tool);
+        }
+    }
+}
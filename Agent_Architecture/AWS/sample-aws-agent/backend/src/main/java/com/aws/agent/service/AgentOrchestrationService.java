@@ -1,11 +1,39 @@
 package com.aws.agent.service;
 
+import com.aws.agent.cache.ResponseCache;
+import com.aws.agent.cache.ResponseCacheStats;
+import com.aws.agent.knowledge.HashingEmbedder;
+import com.aws.agent.knowledge.RetrievalResult;
+import com.aws.agent.knowledge.RetrieverTiming;
+import com.aws.agent.knowledge.TextAnalyzer;
+import com.aws.agent.llm.LanguageModelClient;
+import com.aws.agent.llm.Prompt;
 import com.aws.agent.model.AgentResponse;
-import lombok.RequiredArgsConstructor;
+import com.aws.agent.routing.IntentRoute;
+import com.aws.agent.tool.FallbackReason;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * Agent 오케스트레이션 서비스 (Orchestration 레이어)
@@ -13,12 +41,85 @@ import java.util.*;
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class AgentOrchestrationService {
     
     private final KnowledgeBaseService knowledgeBaseService;
     private final ToolService toolService;
     private final SessionService sessionService;
+    private final LanguageModelClient languageModel;
+    
+    /** 지식 검색/도구 실행 단계를 동시에 돌리는 전용 스레드 (스레드와 대기열이 차면 그 단계는 대체 결과) */
+    private final ExecutorService stageExecutor;
+    
+    /** 요청 하나가 단계 결과를 기다리는 최대 시간 (넘긴 단계는 취소하고 대체 결과 사용) */
+    private final Duration requestDeadline;
+    
+    /** SSE 스트리밍 요청을 처리하는 스레드 (스레드와 대기열이 차면 거절) */
+    private final ExecutorService streamExecutor;
+    
+    /** SSE 연결 하나의 최대 유지 시간 */
+    private final Duration streamTimeout;
+    
+    /** 완성된 응답 캐시 (agent.response-cache.enabled=false이면 null) */
+    private final ResponseCache responseCache;
+    
+    /**
+     * 응답 캐시 조회 키
+     *
+     * @param kbVersion 조회 시점의 지식 색인 버전
+     * @param key       정규화한 질문, 순수 도구는 "도구:해석한 인자"
+     * @param question  의미 일치에 쓸 원문 질문 (도구 요청은 null)
+     */
+    private record CacheLookup(long kbVersion, String key, String question) {
+    }
+    
+    public AgentOrchestrationService(KnowledgeBaseService knowledgeBaseService,
+                                     ToolService toolService,
+                                     SessionService sessionService,
+                                     LanguageModelClient languageModel,
+                                     @Value("${agent.request.deadline:3s}") Duration requestDeadline,
+                                     @Value("${agent.request.stage-threads:64}") int stageThreads,
+                                     @Value("${agent.request.stage-queue:128}") int stageQueue,
+                                     @Value("${agent.stream.threads:32}") int streamThreads,
+                                     @Value("${agent.stream.queue:64}") int streamQueue,
+                                     @Value("${agent.stream.timeout:30s}") Duration streamTimeout,
+                                     @Value("${agent.response-cache.enabled:true}") boolean responseCacheEnabled,
+                                     @Value("${agent.response-cache.max-entries:1024}") int responseCacheEntries,
+                                     @Value("${agent.response-cache.similarity:0.9}") double responseCacheSimilarity,
+                                     @Value("${agent.response-cache.dimensions:256}") int responseCacheDimensions) {
+        this.knowledgeBaseService = knowledgeBaseService;
+        this.toolService = toolService;
+        this.sessionService = sessionService;
+        this.languageModel = languageModel;
+        this.requestDeadline = requestDeadline;
+        AtomicInteger sequence = new AtomicInteger();
+        BlockingQueue<Runnable> stageBacklog = stageQueue == 0
+                ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(stageQueue);
+        this.stageExecutor = new ThreadPoolExecutor(stageThreads, stageThreads, 0, TimeUnit.MILLISECONDS,
+                stageBacklog, r -> {
+                    Thread thread = new Thread(r, "agent-stage-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.streamTimeout = streamTimeout;
+        AtomicInteger streamSequence = new AtomicInteger();
+        this.streamExecutor = new ThreadPoolExecutor(streamThreads, streamThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(streamQueue), r -> {
+                    Thread thread = new Thread(r, "agent-stream-" + streamSequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.responseCache = responseCacheEnabled
+                ? new ResponseCache(responseCacheEntries, responseCacheSimilarity,
+                        new HashingEmbedder(TextAnalyzer.standard(), responseCacheDimensions))
+                : null;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        stageExecutor.shutdownNow();
+        streamExecutor.shutdownNow();
+    }
     
     /**
      * 메인 Agent 처리 로직
@@ -26,127 +127,301 @@ public class AgentOrchestrationService {
     public AgentResponse processRequest(String message, String sessionId) {
         log.info("Agent 요청 처리 시작: message={}, sessionId={}", message, sessionId);
         
-        // 1. 세션 확인 및 생성
-        if (sessionId == null || !sessionService.sessionExists(sessionId)) {
-            sessionId = sessionService.createSession();
-            log.info("새 세션 생성: {}", sessionId);
+        long started = System.nanoTime();
+        IntentRoute route = toolService.route(message);
+        
+        // 0. 응답 캐시: 같거나 충분히 비슷한 질문의 완성된 응답이 있으면 검색/도구/생성을 모두 건너뜀
+        CacheLookup lookup = cacheLookup(message, route);
+        ResponseCache.Hit hit = lookup == null ? null
+                : responseCache.get(lookup.kbVersion(), lookup.key(), lookup.question());
+        if (hit != null) {
+            return respondFromCache(message, sessionId, hit);
         }
         
-        // 2. 지식 기반 검색 (RAG)
-        List<String> knowledgeResults = knowledgeBaseService.search(message);
-        List<String> citations = knowledgeBaseService.getCitations(message);
+        Turn turn = new Turn(message, sessionId, route);
         
-        // 3. 도구 결정 및 실행
-        ToolService.Tool selectedTool = toolService.determineTool(message);
-        Map<String, Object> toolResult = new HashMap<>();
-        String toolUsed = null;
+        // 요청 마감까지 두 단계를 기다림 (지연 ≈ 느린 단계 하나, 마감을 넘긴 단계는 취소 후 대체 결과)
+        RetrievalResult retrieval = turn.awaitRetrieval();
+        Map<String, Object> toolResult = turn.awaitTool();
         
-        if (selectedTool != ToolService.Tool.NONE) {
-            toolUsed = selectedTool.getName();
-            log.info("도구 선택: {}", toolUsed);
-            
-            switch (selectedTool) {
-                case CALCULATOR:
-                    toolResult = toolService.executeCalculator(message);
-                    break;
-                case WEATHER:
-                    toolResult = toolService.executeWeather(message);
-                    break;
-                case TIME:
-                    toolResult = toolService.executeTime(message);
-                    break;
-            }
-        }
+        // 3. 응답 생성 (기본은 템플릿 모킹, agent.llm.provider=http이면 모델 서버 호출)
+        String response = languageModel.generate(prompt(message, turn, retrieval, toolResult));
         
-        // 4. 응답 생성 (간단한 LLM 모킹)
-        String response = generateResponse(message, knowledgeResults, toolResult, selectedTool, sessionId);
+        // 4. 세션에 대화 저장
+        sessionService.addToSession(turn.sessionId, message, response);
         
-        // 5. 세션에 대화 저장
-        sessionService.addToSession(sessionId, message, response);
+        log.info("Agent 요청 처리 완료: sessionId={}", turn.sessionId);
         
-        // 6. 메타데이터 구성
+        AgentResponse agentResponse = buildResponse(turn, retrieval, toolResult, response);
+        cacheResponse(lookup, retrieval, toolResult, agentResponse, started);
+        return agentResponse;
+    }
+    
+    /**
+     * 같은 처리를 SSE 이벤트로 흘려보냄 (스트리밍 전용 스레드에서 실행, 반환한 Future를 취소하면 남은 단계까지 중단)
+     *
+     * 이벤트 순서: tool(도구를 쓴 경우) → citations → chunk(응답 조각, 여러 번) → metadata(최종 AgentResponse).
+     * sink가 한 이벤트를 다 보내야 다음 이벤트를 만들므로, 느린 클라이언트는 생산을 늦출 뿐 서버 버퍼를 키우지 않는다.
+     * 연결이 끊기면 남은 단계를 취소하며, 세션에는 응답 조각을 끝까지 보낸 경우에만 저장한다.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException 스트리밍 스레드와 대기열이 모두 찬 경우
+     */
+    public Future<?> streamRequest(String message, String sessionId, AgentEventSink sink) {
+        return streamExecutor.submit(() -> stream(message, sessionId, sink));
+    }
+    
+    public Duration streamTimeout() {
+        return streamTimeout;
+    }
+    
+    /**
+     * 응답 캐시 현황 (적중률, 아낀 처리 시간)
+     */
+    public ResponseCacheStats responseCacheStats() {
+        return responseCache != null ? responseCache.stats() : null;
+    }
+    
+    private void stream(String message, String sessionId, AgentEventSink sink) {
+        log.info("Agent 스트리밍 처리 시작: message={}, sessionId={}", message, sessionId);
+        try {
+            sink.open();
+        } catch (IOException e) {
+            log.info("스트림 연결이 끊겨 처리 시작 전 중단: sessionId={}", sessionId);
+            return;
+        }
+        Turn turn = new Turn(message, sessionId, toolService.route(message));
+        try {
+            // 먼저 끝나는 도구 결과부터 보내 첫 이벤트까지의 시간을 줄임
+            Map<String, Object> toolResult = turn.awaitTool();
+            if (turn.toolUsed != null) {
+                emit(sink, AgentEventSink.TOOL, Map.of("tool", turn.toolUsed, "result", toolResult));
+            }
+            RetrievalResult retrieval = turn.awaitRetrieval();
+            emit(sink, AgentEventSink.CITATIONS, retrieval.citations());
+            
+            String response = languageModel.stream(prompt(message, turn, retrieval, toolResult),
+                    text -> emit(sink, AgentEventSink.CHUNK, Map.of("text", text)));
+            
+            sessionService.addToSession(turn.sessionId, message, response);
+            emit(sink, AgentEventSink.METADATA, buildResponse(turn, retrieval, toolResult, response));
+            sink.complete();
+        } catch (IOException e) {
+            turn.cancel();
+            log.info("스트림 연결이 끊겨 처리 중단: sessionId={}", turn.sessionId);
+        } catch (RuntimeException e) {
+            turn.cancel();
+            log.warn("스트리밍 처리 실패: sessionId={}", turn.sessionId, e);
+            sink.fail(e);
+        }
+    }
+    
+    /**
+     * 취소(인터럽트)된 스트림은 더 보내지 않고 연결 종료와 같이 처리
+     */
+    private static void emit(AgentEventSink sink, String event, Object data) throws IOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("스트림이 취소되었습니다");
+        }
+        sink.send(event, data);
+    }
+    
+    private AgentResponse buildResponse(Turn turn, RetrievalResult retrieval, Map<String, Object> toolResult,
+                                        String response) {
+        // 메타데이터 구성
         Map<String, Object> metadata = new HashMap<>();
-        metadata.put("toolUsed", toolUsed);
-        metadata.put("knowledgeFound", !knowledgeResults.isEmpty());
+        metadata.put("toolUsed", turn.toolUsed);
+        metadata.put("knowledgeFound", !retrieval.isEmpty());
+        metadata.put("retrievers", retrieval.timings());
+        metadata.put("toolConfidence", turn.route.confidence());
+        metadata.put("toolFallback", toolResult.get("fallback"));
         metadata.put("timestamp", new Date().toString());
         
-        log.info("Agent 요청 처리 완료: sessionId={}", sessionId);
-        
         return AgentResponse.builder()
                 .response(response)
-                .sessionId(sessionId)
-                .citations(citations)
+                .sessionId(turn.sessionId)
+                .citations(retrieval.citations())
                 .metadata(metadata)
-                .toolUsed(toolUsed)
+                .toolUsed(turn.toolUsed)
                 .build();
     }
     
     /**
-     * 응답 생성 (실제 Bedrock LLM 대신 간단한 로직)
+     * 세션 확인 및 생성 (없거나 만료된 세션 ID면 새로 만듦)
+     */
+    private String resolveSession(String sessionId) {
+        if (sessionId == null || !sessionService.sessionExists(sessionId)) {
+            sessionId = sessionService.createSession();
+            log.info("새 세션 생성: {}", sessionId);
+        }
+        return sessionId;
+    }
+    
+    /**
+     * 응답 캐시 조회 키. 캐시를 껐거나, 시점에 따라 결과가 바뀌는 도구(시간/날씨)로 라우팅되면 null
+     *
+     * 도구가 없는 질문은 정규화한 질문으로, 없으면 임베딩 유사도로 찾는다. 순수 도구(계산기)는 도구가 해석한 인자로만 찾는다
+     * ("5+3"과 "5*3"은 정규화하면 같아지고 임베딩도 같으므로 의미 일치를 쓰지 않음).
      */
-    private String generateResponse(String message, List<String> knowledgeResults, 
-                                   Map<String, Object> toolResult, 
-                                   ToolService.Tool tool, 
-                                   String sessionId) {
-        StringBuilder response = new StringBuilder();
+    private CacheLookup cacheLookup(String message, IntentRoute route) {
+        if (responseCache == null) {
+            return null;
+        }
+        long kbVersion = knowledgeBaseService.currentIndex().version();
+        if (route.isNone()) {
+            return new CacheLookup(kbVersion, KnowledgeBaseService.normalize(message), message);
+        }
+        String argument = toolService.pureArgumentKey(route.tool(), message);
+        if (argument == null) {
+            responseCache.bypass();
+            return null;
+        }
+        return new CacheLookup(kbVersion, route.tool() + ":" + argument, null);
+    }
+    
+    /**
+     * 캐시된 응답으로 답하고, 턴은 평소처럼 세션에 기록
+     */
+    private AgentResponse respondFromCache(String message, String sessionId, ResponseCache.Hit hit) {
+        String resolved = resolveSession(sessionId);
+        AgentResponse cached = hit.response();
+        sessionService.addToSession(resolved, message, cached.getResponse());
+        log.info("응답 캐시 적중({}): sessionId={}", hit.semantic() ? "semantic" : "exact", resolved);
         
-        // 도구 결과가 있으면 우선 사용
-        if (tool != ToolService.Tool.NONE && !toolResult.isEmpty()) {
-            if (toolResult.containsKey("error")) {
-                response.append("죄송합니다. ").append(toolResult.get("error"));
-            } else {
-                switch (tool) {
-                    case CALCULATOR:
-                        response.append("계산 결과: ")
-                                .append(toolResult.get("expression"))
-                                .append(" = ")
-                                .append(toolResult.get("result"));
-                        break;
-                    case WEATHER:
-                        response.append("현재 ").append(toolResult.get("location"))
-                                .append("의 날씨는 ").append(toolResult.get("temperature"))
-                                .append(", ").append(toolResult.get("condition"))
-                                .append("입니다. (습도: ").append(toolResult.get("humidity")).append(")");
-                        break;
-                    case TIME:
-                        response.append("현재 시간은 ").append(toolResult.get("currentTime"))
-                                .append(" (").append(toolResult.get("timezone")).append(") 입니다.");
-                        break;
-                }
-            }
-        } else if (!knowledgeResults.isEmpty()) {
-            // 지식 기반 결과 사용
-            response.append(knowledgeResults.get(0));
-            if (knowledgeResults.size() > 1) {
-                response.append("\n\n추가 정보: ").append(knowledgeResults.get(1));
+        Map<String, Object> metadata = new HashMap<>(cached.getMetadata());
+        metadata.put("timestamp", new Date().toString());
+        metadata.put("responseCache", Map.of(
+                "match", hit.semantic() ? "semantic" : "exact",
+                "similarity", hit.similarity(),
+                "savedMillis", hit.savedNanos() / 1e6));
+        
+        return AgentResponse.builder()
+                .response(cached.getResponse())
+                .sessionId(resolved)
+                .citations(cached.getCitations())
+                .metadata(metadata)
+                .toolUsed(cached.getToolUsed())
+                .build();
+    }
+    
+    /**
+     * 검색/도구 단계가 모두 정상 완료된 응답만 보관 (마감 초과, 실패, 대체 결과가 섞인 응답은 다음 요청에서 다시 만듦).
+     * 질문을 그대로 되받아 쓰는 응답은 다른 질문에 돌려주면 어색하므로 정확 일치로만 찾게 한다
+     */
+    private void cacheResponse(CacheLookup lookup, RetrievalResult retrieval, Map<String, Object> toolResult,
+                               AgentResponse response, long startedNanos) {
+        if (lookup == null || toolResult.containsKey("error") || toolResult.get("fallback") != null) {
+            return;
+        }
+        for (RetrieverTiming timing : retrieval.timings()) {
+            if (timing.outcome() != RetrieverTiming.Outcome.OK) {
+                return;
             }
-        } else {
-            // 기본 응답
-            response.append(generateDefaultResponse(message));
         }
-        
-        return response.toString();
+        String question = lookup.question();
+        if (question != null && response.getResponse().contains(question.strip())) {
+            question = null;
+        }
+        responseCache.put(lookup.kbVersion(), lookup.key(), question, response, System.nanoTime() - startedNanos);
     }
     
     /**
-     * 기본 응답 생성
+     * 요청 하나에서 진행 중인 단계들. 생성과 동시에 지식 검색과 도구 실행을 시작하고 세션을 확인한다
      */
-    private String generateDefaultResponse(String message) {
-        String lowerMessage = message.toLowerCase();
+    private final class Turn {
+        private final long started = System.nanoTime();
+        private final long deadline = started + requestDeadline.toNanos();
+        private final Future<RetrievalResult> retrievalStage;
+        private final IntentRoute route;
+        private final String toolUsed;
+        private final Future<Map<String, Object>> toolStage;
+        private final String sessionId;
         
-        if (lowerMessage.contains("안녕") || lowerMessage.contains("hello")) {
-            return "안녕하세요! AWS AI Agent입니다. 무엇을 도와드릴까요?";
+        Turn(String message, String sessionId, IntentRoute route) {
+            // 1. 지식 기반 검색(RAG)과 도구 실행은 서로 의존하지 않으므로 전용 스레드에서 동시에 시작
+            this.retrievalStage = submit(() -> knowledgeBaseService.retrieve(message));
+            this.route = route;
+            String tool = route.isNone() ? null : route.tool();
+            this.toolUsed = tool;
+            if (tool != null) {
+                log.info("도구 선택: {}", tool);
+            }
+            this.toolStage = tool == null ? null : submit(() -> toolService.execute(tool, message));
+            
+            // 2. 세션 확인 및 생성 (두 단계가 도는 동안)
+            this.sessionId = resolveSession(sessionId);
+        }
+        
+        RetrievalResult awaitRetrieval() {
+            return await(retrievalStage, deadline, "지식 검색", reason -> withoutKnowledge(started, reason));
         }
         
-        if (lowerMessage.contains("도움") || lowerMessage.contains("help")) {
-            return "저는 다음과 같은 기능을 제공할 수 있습니다:\n" +
-                   "- 계산기: 수학 연산 (예: '5 + 3 계산해줘')\n" +
-                   "- 날씨 조회: 현재 날씨 정보\n" +
-                   "- 시간 조회: 현재 시간\n" +
-                   "- 지식 검색: AWS, Bedrock, Lambda 등에 대한 정보";
+        Map<String, Object> awaitTool() {
+            return toolStage == null ? Map.of()
+                    : await(toolStage, deadline, "도구 실행", reason -> toolService.fallback(toolUsed, reason));
         }
         
-        return "이해했습니다. '" + message + "'에 대해 답변드리겠습니다. " +
-               "더 구체적인 질문을 해주시면 더 정확한 답변을 드릴 수 있습니다.";
+        void cancel() {
+            retrievalStage.cancel(true);
+            if (toolStage != null) {
+                toolStage.cancel(true);
+            }
+        }
+    }
+    
+    /**
+     * 단계 시작. 단계 스레드와 대기열이 모두 차 있으면 기다리지 않고 거절을 담은 완료된 Future
+     */
+    private <T> Future<T> submit(Callable<T> stage) {
+        try {
+            return stageExecutor.submit(stage);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    /**
+     * 요청 마감까지 단계 결과를 기다림. 마감 초과/실패/호출 스레드 중단 시 단계를 취소(인터럽트)하고 대체 결과 사용
+     */
+    private <T> T await(Future<T> stage, long deadlineNanos, String name, Function<FallbackReason, T> fallback) {
+        try {
+            return stage.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            stage.cancel(true);
+            log.warn("요청 마감({}) 초과로 {} 단계 취소", requestDeadline, name);
+            return fallback.apply(FallbackReason.TIMEOUT);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                log.warn("단계 스레드와 대기열이 가득 차 {} 단계를 실행하지 못함", name);
+                return fallback.apply(FallbackReason.REJECTED);
+            }
+            log.warn("{} 단계 실패", name, e.getCause());
+            return fallback.apply(FallbackReason.FAILED);
+        } catch (InterruptedException e) {
+            stage.cancel(true);
+            Thread.currentThread().interrupt();
+            return fallback.apply(FallbackReason.CANCELLED);
+        }
+    }
+    
+    /**
+     * 지식 검색 단계를 쓰지 못한 경우의 빈 결과 (사유는 retrievers 메타데이터에 남김)
+     */
+    private static RetrievalResult withoutKnowledge(long startedNanos, FallbackReason reason) {
+        RetrieverTiming.Outcome outcome = switch (reason) {
+            case FAILED -> RetrieverTiming.Outcome.FAILED;
+            case REJECTED -> RetrieverTiming.Outcome.REJECTED;
+            default -> RetrieverTiming.Outcome.TIMEOUT;
+        };
+        return RetrievalResult.of(List.of(), List.of(RetrieverTiming.since("knowledge", startedNanos, 0, outcome)));
+    }
+    
+    /**
+     * 응답 생성 입력 (도구 결과는 도구가 렌더링한 문장으로, 대화 기록은 세션 컨텍스트 윈도우에서)
+     */
+    private Prompt prompt(String message, Turn turn, RetrievalResult retrieval, Map<String, Object> toolResult) {
+        String toolOutput = turn.toolUsed != null && !toolResult.isEmpty()
+                ? toolService.render(turn.toolUsed, toolResult) : null;
+        return new Prompt(message, sessionService.getSessionContext(turn.sessionId), retrieval.contents(),
+                turn.toolUsed, toolOutput);
     }
 }
@@ -1,79 +1,118 @@
 package com.aws.agent.service;
 
+import com.aws.agent.model.HistoryPage;
+import com.aws.agent.session.ConversationTurn;
+import com.aws.agent.session.HistorySnapshot;
+import com.aws.agent.session.Session;
+import com.aws.agent.session.SessionJournal;
+import com.aws.agent.session.SessionStore;
+import com.aws.agent.session.SessionStoreStats;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * 세션 관리 서비스 (Memory/Session State 역할)
  */
 @Service
+@RequiredArgsConstructor
 public class SessionService {
     
-    private final Map<String, List<Map<String, String>>> sessions;
+    private final SessionStore sessions;
+    private final SessionJournal journal;
     
-    public SessionService() {
-        this.sessions = new ConcurrentHashMap<>();
+    /**
+     * 기동 시 저널에 남은 턴으로 세션 복구
+     */
+    @PostConstruct
+    public void recover() {
+        journal.replay(sessions::restore, sessions::discard);
     }
     
     /**
      * 세션 ID 생성
      */
     public String createSession() {
-        String sessionId = UUID.randomUUID().toString();
-        sessions.put(sessionId, new ArrayList<>());
-        return sessionId;
+        return sessions.create().getId();
     }
     
     /**
      * 세션 존재 여부 확인
      */
     public boolean sessionExists(String sessionId) {
-        return sessions.containsKey(sessionId);
+        return sessions.contains(sessionId);
     }
     
     /**
      * 세션에 대화 추가
      */
     public void addToSession(String sessionId, String userMessage, String agentResponse) {
-        if (!sessions.containsKey(sessionId)) {
-            sessions.put(sessionId, new ArrayList<>());
+        ConversationTurn turn = new ConversationTurn(userMessage, agentResponse, System.currentTimeMillis());
+        if (!sessions.isLive(sessionId)) {
+            // 축출/만료된 세션 ID로 다시 시작하면 저널에 남은 이전 턴이 재기동 때 되살아나지 않도록 폐기 기록
+            journal.discard(sessionId);
         }
-        
-        Map<String, String> conversation = new HashMap<>();
-        conversation.put("user", userMessage);
-        conversation.put("agent", agentResponse);
-        conversation.put("timestamp", new Date().toString());
-        
-        sessions.get(sessionId).add(conversation);
+        journal.append(sessionId, turn);
+        sessions.append(sessionId, turn);
+    }
+    
+    /**
+     * 세션 히스토리 조회 (오래된 순, 읽기 전용)
+     */
+    public List<ConversationTurn> getSessionHistory(String sessionId) {
+        Session session = sessions.get(sessionId);
+        return session != null ? session.history() : List.of();
+    }
+    
+    /**
+     * 세션 히스토리 페이지 조회 (cursor는 턴 시퀀스, null이면 처음부터)
+     */
+    public Optional<HistoryPage> getSessionHistoryPage(String sessionId, Long cursor, int limit) {
+        return getHistorySnapshot(sessionId).map(snapshot -> {
+            long from = Math.max(cursor != null ? cursor : 0, snapshot.firstSequence());
+            List<ConversationTurn> turns = snapshot.page(from, limit);
+            long next = from + turns.size();
+            boolean hasMore = next < snapshot.endSequence();
+            return HistoryPage.builder()
+                    .sessionId(sessionId)
+                    .turns(turns)
+                    .cursor(from)
+                    .nextCursor(hasMore ? next : null)
+                    .hasMore(hasMore)
+                    .build();
+        });
     }
     
     /**
-     * 세션 히스토리 조회
+     * 세션 전체 히스토리 스냅샷 (내보내기용, 세션 접근 시각은 갱신하지 않음)
      */
-    public List<Map<String, String>> getSessionHistory(String sessionId) {
-        return sessions.getOrDefault(sessionId, new ArrayList<>());
+    public Optional<HistorySnapshot> getHistorySnapshot(String sessionId) {
+        return Optional.ofNullable(sessions.peek(sessionId)).map(Session::historySnapshot);
     }
     
     /**
-     * 세션 컨텍스트 가져오기 (최근 N개 대화)
+     * 세션 저장소 현황 (세션 수, 메모리 추정치, 축출 카운터)
+     */
+    public SessionStoreStats getStats() {
+        return sessions.stats();
+    }
+    
+    /**
+     * 세션 컨텍스트 가져오기 (컨텍스트 윈도우 전체, 턴 추가 시점에 미리 렌더링된 값)
+     */
+    public String getSessionContext(String sessionId) {
+        Session session = sessions.get(sessionId);
+        return session != null ? session.contextWindow().render() : "";
+    }
+    
+    /**
+     * 세션 컨텍스트 가져오기 (최근 N개 대화, 컨텍스트 윈도우 상한 내에서)
      */
     public String getSessionContext(String sessionId, int recentCount) {
-        List<Map<String, String>> history = getSessionHistory(sessionId);
-        if (history.isEmpty()) {
-            return "";
-        }
-        
-        StringBuilder context = new StringBuilder();
-        int start = Math.max(0, history.size() - recentCount);
-        
-        for (int i = start; i < history.size(); i++) {
-            Map<String, String> conv = history.get(i);
-            context.append("사용자: ").append(conv.get("user")).append("\n");
-            context.append("에이전트: ").append(conv.get("agent")).append("\n\n");
-        }
-        
-        return context.toString();
+        Session session = sessions.get(sessionId);
+        return session != null ? session.contextWindow().renderRecent(recentCount) : "";
     }
 }
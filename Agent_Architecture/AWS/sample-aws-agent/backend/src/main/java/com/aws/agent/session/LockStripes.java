@@ -0,0 +1,29 @@
+package com.aws.agent.session;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 키 해시로 고정 개수의 락 중 하나를 골라 주는 락 스트라이프
+ *
+ * 세션마다 락 객체를 만들지 않고도 서로 다른 세션의 쓰기는 대부분 다른 락에서 병렬로 진행된다.
+ */
+public class LockStripes {
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public LockStripes(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public ReentrantLock forKey(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return locks[h & mask];
+    }
+}
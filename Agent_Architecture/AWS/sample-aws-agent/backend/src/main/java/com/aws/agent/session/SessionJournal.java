@@ -0,0 +1,28 @@
+package com.aws.agent.session;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * 세션 턴의 영속화 계층 (재시작 후 세션 복구용)
+ */
+public interface SessionJournal extends AutoCloseable {
+
+    /**
+     * 턴 기록. 구현의 커밋 정책에 따라 디스크 동기화까지 기다릴 수 있다
+     */
+    void append(String sessionId, ConversationTurn turn);
+
+    /**
+     * 세션 폐기 기록. 이후 재생에서는 이 기록보다 앞선 그 세션의 턴이 버려진다
+     */
+    void discard(String sessionId);
+
+    /**
+     * 저장된 턴과 폐기 기록을 기록 순서대로 재생하고 재생한 턴 수를 반환
+     */
+    long replay(BiConsumer<String, ConversationTurn> turns, Consumer<String> discards);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,76 @@
+package com.aws.agent.session;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 최근 N개 턴만 유지하는 고정 크기 링 버퍼
+ *
+ * 쓰기는 한 번에 한 스레드(세션 스트라이프 락 보유)만 수행한다. 읽기는 락 없이 슬롯을 복사한 뒤,
+ * 복사하는 동안 시작된 쓰기가 복사 범위를 덮어쓰지 않았는지 시퀀스로 검증한다 (seqlock 방식).
+ */
+public class TurnRingBuffer {
+
+    private final AtomicReferenceArray<ConversationTurn> slots;
+    private final int capacity;
+
+    /** 쓰기를 시작한 턴 수 */
+    private volatile long claimed;
+
+    /** 쓰기를 마친 턴 수 (읽기 측에 공개된 마지막 시퀀스 + 1) */
+    private volatile long published;
+
+    public TurnRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("링 버퍼 크기는 0보다 커야 합니다");
+        }
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * 턴 추가 (호출 측이 쓰기 락 보유). 버퍼가 가득 찼으면 덮어쓴 가장 오래된 턴을 반환
+     */
+    public ConversationTurn add(ConversationTurn turn) {
+        long seq = published;
+        claimed = seq + 1;
+        ConversationTurn overwritten = slots.getAndSet((int) (seq % capacity), turn);
+        published = seq + 1;
+        return overwritten;
+    }
+
+    public int size() {
+        return (int) Math.min(published, capacity);
+    }
+
+    /**
+     * 지금까지 추가된 전체 턴 수 (다음 턴의 시퀀스 번호)
+     */
+    public long appended() {
+        return published;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 최근 count개 턴(오래된 순)을 락 없이 복사. 복사 도중 덮어쓰기가 끼어들었으면 null
+     */
+    public List<ConversationTurn> tryRecent(int count) {
+        long end = published;
+        int n = (int) Math.min(Math.max(count, 0), Math.min(end, capacity));
+        ConversationTurn[] out = new ConversationTurn[n];
+        long first = end - n;
+        for (int i = 0; i < n; i++) {
+            out[i] = slots.get((int) ((first + i) % capacity));
+        }
+        // 시퀀스 s의 쓰기는 s - capacity를 덮어쓴다. 지금까지 시작된 쓰기가 first 이전만 건드렸어야 유효
+        if (first < claimed - capacity) {
+            return null;
+        }
+        return Collections.unmodifiableList(Arrays.asList(out));
+    }
+}
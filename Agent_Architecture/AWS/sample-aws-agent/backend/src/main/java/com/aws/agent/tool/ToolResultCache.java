@@ -0,0 +1,103 @@
+package com.aws.agent.tool;
+
+import com.aws.agent.cache.CacheStats;
+import com.aws.agent.cache.TinyLfuCache;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 도구별 실행 결과 캐시 (스레드 안전)
+ *
+ * 정책이 PURE/TTL인 도구마다 W-TinyLFU 캐시를 따로 두고, 원문 메시지가 아니라 Tool.cacheKey()가 해석한
+ * 인자를 키로 쓴다("5+3 계산"과 "5 + 3은?"은 같은 항목). TTL 항목은 조회 시 만료를 확인해 지난 것은 없는 것으로 본다.
+ * 성공한 결과만 보관하며, 보관한 맵은 읽기 전용으로 여러 요청이 공유한다.
+ */
+public final class ToolResultCache {
+
+    private final Map<String, Slot> slots = new HashMap<>();
+
+    public ToolResultCache(List<Tool> tools, boolean enabled, int maxEntries) {
+        if (enabled && maxEntries <= 0) {
+            throw new IllegalArgumentException("agent.tools.cache.max-entries는 0보다 커야 합니다");
+        }
+        if (!enabled) {
+            return;
+        }
+        for (Tool tool : tools) {
+            CachePolicy policy = tool.cachePolicy();
+            if (policy != CachePolicy.NONE) {
+                long ttlNanos = policy == CachePolicy.TTL ? tool.cacheTtl().toNanos() : 0;
+                slots.put(tool.name(), new Slot(maxEntries, ttlNanos));
+            }
+        }
+    }
+
+    /**
+     * 캐시 키 (도구가 캐시 대상이 아니거나 인자를 해석하지 못하면 null)
+     */
+    public String keyFor(Tool tool, String message) {
+        return slots.containsKey(tool.name()) ? tool.cacheKey(message) : null;
+    }
+
+    /**
+     * 유효한 캐시 결과. 없거나 만료되었으면 null
+     */
+    public Map<String, Object> get(Tool tool, String key) {
+        Slot slot = slots.get(tool.name());
+        Entry entry = slot.cache.get(key);
+        if (entry == null || entry.expiresAt != 0 && System.nanoTime() - entry.expiresAt > 0) {
+            slot.misses.increment();
+            return null;
+        }
+        slot.hits.increment();
+        return entry.result;
+    }
+
+    /**
+     * 성공한 결과 보관 ("error" 키가 있는 실패/대체 결과는 보관하지 않음)
+     */
+    public void put(Tool tool, String key, Map<String, Object> result) {
+        if (result.containsKey("error")) {
+            return;
+        }
+        Slot slot = slots.get(tool.name());
+        long expiresAt = slot.ttlNanos == 0 ? 0 : System.nanoTime() + slot.ttlNanos;
+        slot.cache.put(key, new Entry(Collections.unmodifiableMap(new HashMap<>(result)), expiresAt));
+    }
+
+    /**
+     * 도구별 캐시 현황 (만료된 항목 조회는 miss로 집계). 캐시하지 않는 도구는 null
+     */
+    public CacheStats stats(String toolName) {
+        Slot slot = slots.get(toolName);
+        if (slot == null) {
+            return null;
+        }
+        CacheStats underlying = slot.cache.stats();
+        long hits = slot.hits.sum();
+        long misses = slot.misses.sum();
+        long requests = hits + misses;
+        return new CacheStats(underlying.size(), underlying.capacity(), hits, misses,
+                requests == 0 ? 0 : (double) hits / requests,
+                underlying.evictions(), underlying.admissionRejections(), underlying.invalidations());
+    }
+
+    private record Entry(Map<String, Object> result, long expiresAt) {
+    }
+
+    private static final class Slot {
+        private final TinyLfuCache<String, Entry> cache;
+        private final long ttlNanos;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        Slot(int maxEntries, long ttlNanos) {
+            this.cache = new TinyLfuCache<>(maxEntries);
+            this.ttlNanos = ttlNanos;
+        }
+    }
+}
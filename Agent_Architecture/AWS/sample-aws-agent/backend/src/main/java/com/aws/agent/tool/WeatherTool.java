@@ -0,0 +1,120 @@
+package com.aws.agent.tool;
+
+import com.aws.agent.knowledge.KeywordMatcher;
+import com.aws.agent.routing.RouteRule;
+import com.aws.agent.tool.weather.WeatherClient;
+import com.aws.agent.tool.weather.WeatherReport;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 날씨 조회 도구 - 현재 날씨 정보 제공
+ *
+ * agent.tools.weather.endpoint(또는 로컬 스텁)가 설정되면 WeatherClient로 HTTP API를 조회하고,
+ * 없으면 샘플 데이터를 돌려준다. 조회 지역은 메시지에 나온 첫 도시 이름이다(없으면 서울).
+ */
+@Component
+public class WeatherTool implements Tool {
+    
+    public static final String NAME = "weather";
+    
+    private static final String DEFAULT_LOCATION = "서울";
+    
+    private static final KeywordMatcher<String> LOCATIONS = KeywordMatcher.compile(Stream.of(
+                    "서울", "부산", "인천", "대구", "대전", "광주", "울산", "세종", "제주",
+                    "수원", "춘천", "강릉", "청주", "전주", "포항", "창원")
+            .collect(Collectors.toMap(Function.identity(), Function.identity())));
+    
+    private final WeatherClient client;
+    
+    public WeatherTool(WeatherClient client) {
+        this.client = client;
+    }
+    
+    @Override
+    public String name() {
+        return NAME;
+    }
+    
+    @Override
+    public String description() {
+        return "날씨 조회 - 현재 날씨 정보 제공";
+    }
+    
+    @Override
+    public RouteRule route() {
+        return new RouteRule(NAME, 20, 0.8, List.of("날씨", "기온"), List.of());
+    }
+    
+    @Override
+    public Duration cacheTtl() {
+        return Duration.ofMinutes(5);
+    }
+    
+    /**
+     * 조회 지역
+     */
+    @Override
+    public String cacheKey(String message) {
+        return location(message);
+    }
+    
+    @Override
+    public Map<String, Object> execute(String message) {
+        Map<String, Object> result = new HashMap<>();
+        if (!client.isConfigured()) {
+            result.put("location", DEFAULT_LOCATION);
+            result.put("temperature", "15°C");
+            result.put("condition", "맑음");
+            result.put("humidity", "65%");
+            result.put("note", "이것은 샘플 데이터입니다");
+            return result;
+        }
+        
+        WeatherReport report = fetch(location(message));
+        result.put("location", report.location());
+        result.put("temperature", Math.round(report.temperature()) + "°C");
+        result.put("condition", report.condition());
+        result.put("humidity", report.humidity() + "%");
+        return result;
+    }
+    
+    /**
+     * 메시지에 나온 첫 지역 (없으면 서울)
+     */
+    static String location(String message) {
+        String[] first = new String[1];
+        LOCATIONS.scan(message, match -> {
+            if (first[0] == null) {
+                first[0] = match.value();
+            }
+        });
+        return first[0] != null ? first[0] : DEFAULT_LOCATION;
+    }
+    
+    private WeatherReport fetch(String location) {
+        try {
+            return client.current(location);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("날씨 조회가 중단되었습니다: " + location, e);
+        }
+    }
+    
+    @Override
+    public String render(Map<String, Object> result) {
+        return "현재 " + result.get("location") + "의 날씨는 " + result.get("temperature")
+                + ", " + result.get("condition") + "입니다. (습도: " + result.get("humidity") + ")";
+    }
+}
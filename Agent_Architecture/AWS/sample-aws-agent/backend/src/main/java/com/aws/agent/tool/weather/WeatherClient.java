@@ -0,0 +1,191 @@
+package com.aws.agent.tool.weather;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 날씨 HTTP API 클라이언트 (스레드 안전)
+ *
+ * - 애플리케이션 전체가 HttpClient 하나를 공유해 keep-alive 연결을 풀로 재사용하고, 요청은 비동기로 보낸다
+ * - 같은 지역의 조회가 동시에 들어오면 진행 중인 요청 하나에 합류시킨다(single-flight).
+ *   몰려든 "날씨" 질문에도 상류 API는 지역당 한 번만 호출된다
+ * - 응답은 트리로 읽지 않고 Jackson 스트리밍 파서로 필요한 필드만 읽는다
+ * 요청 형식: GET {endpoint}?location={지역}, 응답: {"location","temperature","condition","humidity"}
+ */
+public final class WeatherClient implements AutoCloseable {
+
+    private final URI endpoint;
+    private final Duration timeout;
+    private final JsonFactory jsonFactory;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+    private final WeatherStubServer stub;
+    private final Map<String, CompletableFuture<WeatherReport>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param endpoint 날씨 API 주소 (null이면 HTTP를 쓰지 않음 — 도구가 샘플 데이터 사용)
+     * @param stub     함께 띄운 로컬 스텁 서버 (close 시 같이 종료, 없으면 null)
+     */
+    public WeatherClient(URI endpoint, Duration timeout, JsonFactory jsonFactory, WeatherStubServer stub) {
+        this.endpoint = endpoint;
+        this.timeout = timeout;
+        this.jsonFactory = jsonFactory;
+        this.stub = stub;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(4, r -> {
+            Thread thread = new Thread(r, "weather-http-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * HTTP API가 설정되었는지
+     */
+    public boolean isConfigured() {
+        return endpoint != null;
+    }
+
+    /**
+     * 현재 날씨 조회 (완료될 때까지 대기, 인터럽트되면 대기만 중단하고 공유 요청은 계속 진행)
+     */
+    public WeatherReport current(String location) throws IOException, InterruptedException {
+        try {
+            return fetch(location).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IOException("날씨 조회 실패: " + location, e.getCause());
+        }
+    }
+
+    /**
+     * 현재 날씨 조회. 같은 지역의 요청이 진행 중이면 그 결과를 함께 기다린다
+     */
+    public CompletableFuture<WeatherReport> fetch(String location) {
+        if (endpoint == null) {
+            throw new IllegalStateException("agent.tools.weather.endpoint가 설정되지 않았습니다");
+        }
+        CompletableFuture<WeatherReport> pending = inFlight.get(location);
+        if (pending != null) {
+            return pending;
+        }
+        // 요청을 먼저 만들어, 주소가 잘못되어 여기서 예외가 나면 아무 것도 등록하지 않는다
+        HttpRequest request = HttpRequest.newBuilder(uriFor(location))
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        CompletableFuture<WeatherReport> created = new CompletableFuture<>();
+        pending = inFlight.putIfAbsent(location, created);
+        if (pending != null) {
+            return pending;
+        }
+        try {
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                    .thenApply(response -> parse(location, response))
+                    .whenComplete((report, error) -> {
+                        inFlight.remove(location, created);
+                        if (error != null) {
+                            created.completeExceptionally(error instanceof CompletionException
+                                    && error.getCause() != null ? error.getCause() : error);
+                        } else {
+                            created.complete(report);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            // 보내지도 못한 요청이 등록된 채 남으면 이 지역의 이후 조회가 끝나지 않는 future에 합류한다
+            inFlight.remove(location, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        if (stub != null) {
+            stub.close();
+        }
+    }
+
+    private URI uriFor(String location) {
+        String base = endpoint.toString();
+        return URI.create(base + (base.contains("?") ? "&" : "?")
+                + "location=" + URLEncoder.encode(location, StandardCharsets.UTF_8));
+    }
+
+    private WeatherReport parse(String location, HttpResponse<InputStream> response) {
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IOException("날씨 API 응답 오류: HTTP " + response.statusCode());
+            }
+            return read(location, body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 최상위 객체의 필드만 차례로 읽고, 모르는 필드(중첩 객체 포함)는 건너뛴다
+     */
+    private WeatherReport read(String location, InputStream body) throws IOException {
+        String name = location;
+        double temperature = Double.NaN;
+        String condition = null;
+        int humidity = -1;
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("날씨 API 응답이 JSON 객체가 아닙니다");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("location".equals(field)) {
+                    name = parser.getValueAsString(location);
+                } else if ("temperature".equals(field)) {
+                    temperature = parser.getValueAsDouble(Double.NaN);
+                } else if ("condition".equals(field)) {
+                    condition = parser.getValueAsString();
+                } else if ("humidity".equals(field)) {
+                    humidity = parser.getValueAsInt(-1);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        if (Double.isNaN(temperature) || condition == null) {
+            throw new IOException("날씨 API 응답에 temperature/condition이 없습니다");
+        }
+        return new WeatherReport(name, temperature, condition, humidity);
+    }
+}
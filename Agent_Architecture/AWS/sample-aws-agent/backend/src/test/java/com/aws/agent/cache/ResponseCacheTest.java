@@ -0,0 +1,118 @@
+package com.aws.agent.cache;
+
+import com.aws.agent.knowledge.HashingEmbedder;
+import com.aws.agent.knowledge.TextAnalyzer;
+import com.aws.agent.model.AgentResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 응답 캐시의 정확/의미 일치와 지식 색인 버전 변경 시 무효화
+ */
+class ResponseCacheTest {
+
+    private static final HashingEmbedder EMBEDDER = new HashingEmbedder(TextAnalyzer.standard(), 256);
+
+    @Test
+    void exactHitReturnsStoredResponse() {
+        ResponseCache cache = new ResponseCache(64, 0.9, EMBEDDER);
+        cache.put(1, "lambda가 뭐야", "Lambda가 뭐야?", response("lambda"), 5_000_000);
+
+        ResponseCache.Hit hit = cache.get(1, "lambda가 뭐야", "Lambda가 뭐야");
+
+        assertNotNull(hit);
+        assertFalse(hit.semantic());
+        assertEquals("lambda", hit.response().getResponse());
+        assertTrue(hit.savedNanos() > 0);
+        ResponseCacheStats stats = cache.stats();
+        assertEquals(1, stats.exactHits());
+        assertEquals(0, stats.misses());
+    }
+
+    @Test
+    void similarQuestionHitsSemanticallyAndDifferentTopicMisses() {
+        ResponseCache cache = new ResponseCache(64, 0.9, EMBEDDER);
+        cache.put(1, "bedrock에 대해 알려줘", "Bedrock에 대해 알려줘", response("bedrock"), 1_000_000);
+
+        ResponseCache.Hit hit = cache.get(1, "bedrock 에 대해서 알려줘", "Bedrock 에 대해서 알려줘");
+        assertNotNull(hit);
+        assertTrue(hit.semantic());
+        assertTrue(hit.similarity() >= 0.9);
+        assertEquals("bedrock", hit.response().getResponse());
+
+        assertNull(cache.get(1, "s3가 뭐야", "S3가 뭐야?"));
+        ResponseCacheStats stats = cache.stats();
+        assertEquals(1, stats.semanticHits());
+        assertEquals(1, stats.misses());
+    }
+
+    @Test
+    void entryStoredWithoutQuestionOnlyMatchesExactly() {
+        ResponseCache cache = new ResponseCache(64, 0.5, EMBEDDER);
+        cache.put(1, "calculator:5 + 3", null, response("8"), 1_000_000);
+
+        assertNull(cache.get(1, "calculator:5 * 3", "5 * 3"));
+        assertNotNull(cache.get(1, "calculator:5 + 3", null));
+    }
+
+    @Test
+    void newerKnowledgeVersionInvalidatesEverything() {
+        ResponseCache cache = new ResponseCache(64, 0.9, EMBEDDER);
+        cache.put(1, "lambda가 뭐야", "Lambda가 뭐야?", response("v1"), 1_000_000);
+
+        assertNull(cache.get(2, "lambda가 뭐야", "Lambda가 뭐야?"));
+        ResponseCacheStats stats = cache.stats();
+        assertEquals(0, stats.size());
+        assertEquals(2L, stats.kbVersion());
+        assertEquals(1, stats.invalidations());
+
+        // 재색인 전에 시작한 요청의 결과는 보관하지 않음
+        cache.put(1, "lambda가 뭐야", "Lambda가 뭐야?", response("stale"), 1_000_000);
+        assertNull(cache.get(2, "lambda가 뭐야", "Lambda가 뭐야?"));
+
+        cache.put(2, "lambda가 뭐야", "Lambda가 뭐야?", response("v2"), 1_000_000);
+        assertEquals("v2", cache.get(2, "lambda가 뭐야", null).response().getResponse());
+    }
+
+    @Test
+    void semanticLookupSkipsKeysTheCacheNoLongerHolds() {
+        ResponseCache cache = new ResponseCache(4, 0.8, EMBEDDER);
+        // 질의와 똑같은 질문(유사도 1)은 한 번만 쓰여 곧 밀려나고, 조금 덜 비슷한 질문은 자주 쓰여 남는다
+        cache.put(1, "nearest", "Lambda 요금 알려줘", response("nearest"), 1_000_000);
+        cache.put(1, "live", "Lambda 제한 알려줘", response("live"), 1_000_000);
+        for (int i = 0; i < 10; i++) {
+            cache.get(1, "live", null);
+        }
+        for (int f = 0; f < 8; f++) {
+            String key = "filler-" + f;
+            cache.put(1, key, null, response(key), 1_000_000);
+            for (int i = 0; i < 3; i++) {
+                cache.get(1, key, null);
+            }
+        }
+        assertNull(cache.get(1, "nearest", null), "가장 가까운 질문이 축출되지 않아 시나리오가 성립하지 않음");
+
+        ResponseCache.Hit hit = cache.get(1, "lambda 요금 알려줘", "Lambda 요금 알려줘");
+
+        assertNotNull(hit);
+        assertTrue(hit.semantic());
+        assertEquals("live", hit.response().getResponse());
+    }
+
+    private static AgentResponse response(String text) {
+        return AgentResponse.builder()
+                .response(text)
+                .sessionId("s")
+                .citations(List.of())
+                .metadata(Map.of())
+                .build();
+    }
+}
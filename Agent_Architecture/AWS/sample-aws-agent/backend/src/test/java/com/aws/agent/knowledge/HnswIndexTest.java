@@ -0,0 +1,106 @@
+package com.aws.agent.knowledge;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * HNSW 근사 검색의 재현율(recall@k)과 지연을 전수 검색(exactSearch)과 비교
+ *
+ * 합성 말뭉치(고정 시드)에 기본 설정값(M=16, efConstruction=100, efSearch=64)으로 색인을 만들고,
+ * 같은 질의에 대해 전수 검색 상위 k개 중 근사 검색이 찾은 비율과 질의당 지연 중앙값을 잰다.
+ */
+class HnswIndexTest {
+
+    private static final int DOCUMENTS = 5000;
+    private static final int QUERIES = 200;
+    private static final int TOP_K = 10;
+    private static final int WORDS = 2000;
+
+    private static HnswIndex index;
+    private static List<String> queries;
+
+    @BeforeAll
+    static void buildIndex() {
+        Random random = new Random(7);
+        List<KnowledgeDocument> documents = new ArrayList<>(DOCUMENTS);
+        for (int i = 0; i < DOCUMENTS; i++) {
+            documents.add(new KnowledgeDocument("doc-" + i, words(random, 12)));
+        }
+        queries = new ArrayList<>(QUERIES);
+        for (int i = 0; i < QUERIES; i++) {
+            queries.add(words(random, 4));
+        }
+        index = new HnswIndex(documents, new HashingEmbedder(TextAnalyzer.standard(), 256), 16, 100, 64, 0);
+    }
+
+    @Test
+    void recallAtKAgainstExactSearch() {
+        double recall = 0;
+        for (String query : queries) {
+            Set<String> exact = keys(index.exactSearch(query, TOP_K));
+            Set<String> approximate = keys(index.retrieve(query, TOP_K));
+            assertEquals(TOP_K, exact.size());
+            approximate.retainAll(exact);
+            recall += (double) approximate.size() / exact.size();
+        }
+        recall /= queries.size();
+        System.out.printf("HNSW recall@%d = %.3f (문서 %d건, 질의 %d건)%n", TOP_K, recall, DOCUMENTS, QUERIES);
+        assertTrue(recall >= 0.9, "recall@" + TOP_K + "이 너무 낮음: " + recall);
+    }
+
+    @Test
+    void approximateSearchIsFasterThanExactSearch() {
+        // JIT 워밍업
+        for (int round = 0; round < 3; round++) {
+            medianNanos(index::retrieve);
+            medianNanos(index::exactSearch);
+        }
+        long approximate = medianNanos(index::retrieve);
+        long exact = medianNanos(index::exactSearch);
+        System.out.printf("질의당 지연 중앙값: HNSW %.1fus, 전수 %.1fus (%.1f배)%n",
+                approximate / 1e3, exact / 1e3, (double) exact / approximate);
+        assertTrue(approximate < exact, "HNSW가 전수 검색보다 느림: " + approximate + "ns >= " + exact + "ns");
+    }
+
+    private static long medianNanos(BiFunction<String, Integer, List<Passage>> search) {
+        long[] elapsed = new long[queries.size()];
+        for (int i = 0; i < elapsed.length; i++) {
+            long started = System.nanoTime();
+            search.apply(queries.get(i), TOP_K);
+            elapsed[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(elapsed);
+        return elapsed[elapsed.length / 2];
+    }
+
+    private static Set<String> keys(List<Passage> passages) {
+        Set<String> keys = new HashSet<>();
+        for (Passage passage : passages) {
+            keys.add(passage.key());
+        }
+        return keys;
+    }
+
+    /**
+     * 어휘 앞쪽 단어가 더 자주 나오도록(대략 Zipf) 뽑은 단어열
+     */
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            int word = (int) Math.pow(WORDS, random.nextDouble());
+            text.append("term").append(word).append(' ');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,103 @@
+package com.aws.agent.knowledge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 대기열이 제한된 풀에서의 hybrid 검색 (거절/마감 초과 검색기 제외, 나머지 결과로 융합)
+ */
+class HybridRetrieverTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    /** 스레드 하나, 대기열 없음. 작업이 끝나도 release 전까지 스레드를 붙잡아 두므로 두 번째 제출은 거절된다 */
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new SynchronousQueue<>()) {
+        @Override
+        protected void afterExecute(Runnable task, Throwable failure) {
+            awaitRelease();
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void rejectedRetrieverIsSkippedAndRemainingResultsAreFused() {
+        HybridRetriever hybrid = new HybridRetriever(List.of(fixed("first", "a"), fixed("second", "b")),
+                executor, Duration.ofSeconds(1), 60);
+
+        RetrievalResult result = hybrid.search("q", 3);
+
+        assertEquals(List.of(RetrieverTiming.Outcome.OK, RetrieverTiming.Outcome.REJECTED), outcomes(result));
+        assertEquals(List.of("a"), result.passages().stream().map(Passage::key).toList());
+    }
+
+    @Test
+    void rejectedRetrieverDoesNotWaitForSlowOne() {
+        HybridRetriever hybrid = new HybridRetriever(List.of(blocked("slow"), fixed("second", "b")),
+                executor, Duration.ofMillis(100), 60);
+
+        long started = System.nanoTime();
+        RetrievalResult result = hybrid.search("q", 3);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertEquals(List.of(RetrieverTiming.Outcome.TIMEOUT, RetrieverTiming.Outcome.REJECTED), outcomes(result));
+        assertEquals(List.of(), result.passages());
+        assertTrue(elapsedMillis < 1000, "마감을 넘겨 기다림: " + elapsedMillis + "ms");
+    }
+
+    private static List<RetrieverTiming.Outcome> outcomes(RetrievalResult result) {
+        return result.timings().stream().map(RetrieverTiming::outcome).toList();
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Retriever blocked(String name) {
+        return new Retriever() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public List<Passage> retrieve(String query, int topK) {
+                awaitRelease();
+                return List.of();
+            }
+        };
+    }
+
+    private static Retriever fixed(String name, String key) {
+        return new Retriever() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public List<Passage> retrieve(String query, int topK) {
+                return List.of(new Passage(key, key, 1));
+            }
+        };
+    }
+}
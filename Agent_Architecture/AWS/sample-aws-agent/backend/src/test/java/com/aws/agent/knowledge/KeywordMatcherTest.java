@@ -0,0 +1,124 @@
+package com.aws.agent.knowledge;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 키워드 매처의 결과 순서 (긴 키 우선, 같은 길이면 먼저 나온 위치, 그다음 키)와 겹치는 키 처리
+ */
+class KeywordMatcherTest {
+
+    @Test
+    void overlappingKeysAreOrderedByLengthThenPosition() {
+        KeywordMatcher<String> matcher = KeywordMatcher.compile(identity(
+                "azure", "azure openai", "azure ai search", "openai", "ai", "search"));
+
+        assertEquals(List.of("azure ai search", "search", "azure", "ai"),
+                keys(matcher.findAll("Azure AI Search 설정 방법")));
+        assertEquals(List.of("azure openai", "openai", "azure", "ai"),
+                keys(matcher.findAll("azure openai 요금")));
+    }
+
+    @Test
+    void sameLengthKeysAreOrderedByFirstPositionThenKey() {
+        KeywordMatcher<String> matcher = KeywordMatcher.compile(identity("s3", "ec2", "rds", "vpc"));
+
+        List<KeywordMatcher.Match<String>> matches = matcher.findAll("VPC 안의 EC2에서 RDS와 S3, 다시 EC2");
+
+        assertEquals(List.of("vpc", "ec2", "rds", "s3"), keys(matches));
+        assertEquals(7, matches.get(1).start(), "같은 키는 첫 위치만");
+
+        KeywordMatcher<String> tie = KeywordMatcher.compile(identity("ab", "bc"));
+        assertEquals(List.of("ab", "bc"), keys(tie.findAll("abc")));
+    }
+
+    @Test
+    void nestedKeysSharingASuffixAreAllFound() {
+        KeywordMatcher<String> matcher = KeywordMatcher.compile(identity("vertex ai", "vertex ai search", "ai search"));
+
+        // "vertex ai"와 "ai search"는 길이가 같으므로 먼저 나온 쪽이 앞
+        assertEquals(List.of("vertex ai search", "vertex ai", "ai search"),
+                keys(matcher.findAll("Vertex AI Search로 검색")));
+    }
+
+    @Test
+    void scanReportsEveryOccurrenceInEndPositionOrder() {
+        KeywordMatcher<String> matcher = KeywordMatcher.compile(identity("he", "she", "his", "hers"));
+        List<String> seen = new ArrayList<>();
+
+        matcher.scan("ushers and SHE", match -> seen.add(match.key() + "@" + match.start()));
+
+        assertEquals(List.of("she@1", "he@2", "hers@2", "she@11", "he@12"), seen);
+    }
+
+    @Test
+    void resultDoesNotDependOnInsertionOrderOrCase() {
+        List<String> keys = List.of("Lambda", "lambda 함수", "API Gateway", "gateway", "람다");
+        Map<String, String> forward = new LinkedHashMap<>();
+        keys.forEach(key -> forward.put(key, key.toLowerCase(Locale.ROOT)));
+        Map<String, String> reverse = new LinkedHashMap<>();
+        for (int i = keys.size() - 1; i >= 0; i--) {
+            reverse.put(keys.get(i), keys.get(i).toLowerCase(Locale.ROOT));
+        }
+        String query = "LAMBDA 함수와 api gateway, 람다 연동";
+
+        List<KeywordMatcher.Match<String>> expected = KeywordMatcher.compile(forward).findAll(query);
+
+        assertEquals(expected, KeywordMatcher.compile(reverse).findAll(query));
+        assertEquals(List.of("api gateway", "lambda 함수", "gateway", "lambda", "람다"), keys(expected));
+    }
+
+    @Test
+    void manyKeysMatchSameAsContainsWithDeterministicOrder() {
+        Random random = new Random(5);
+        Map<String, String> entries = new HashMap<>();
+        while (entries.size() < 20_000) {
+            String key = word(random, 2 + random.nextInt(5));
+            entries.put(key, key);
+        }
+        KeywordMatcher<String> matcher = KeywordMatcher.compile(entries);
+        for (int q = 0; q < 200; q++) {
+            String query = word(random, 40);
+            List<String> expected = new ArrayList<>();
+            for (String key : entries.keySet()) {
+                if (query.contains(key)) {
+                    expected.add(key);
+                }
+            }
+            expected.sort(Comparator.comparingInt(String::length).reversed()
+                    .thenComparingInt(query::indexOf)
+                    .thenComparing(Comparator.naturalOrder()));
+            assertEquals(expected, keys(matcher.findAll(query)), query);
+        }
+    }
+
+    private static Map<String, String> identity(String... keys) {
+        Map<String, String> entries = new HashMap<>();
+        for (String key : keys) {
+            entries.put(key, key);
+        }
+        return entries;
+    }
+
+    private static List<String> keys(List<KeywordMatcher.Match<String>> matches) {
+        return matches.stream().map(KeywordMatcher.Match::key).toList();
+    }
+
+    private static String word(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(6));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,96 @@
+package com.aws.agent.knowledge;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 세그먼트 검색의 BM25 점수가 단일 역색인(Bm25Index)과 같고, 질의당 할당이 문서 수가 아니라 포스팅 수에 비례하는지
+ */
+class SegmentedIndexTest {
+
+    private static final int DOCUMENTS = 20_000;
+    private static final int SEGMENTS = 4;
+    private static final int WORDS = 5000;
+    private static final int TOP_K = 10;
+
+    private static List<KnowledgeDocument> documents;
+    private static SegmentedIndex segmented;
+    private static Bm25Index bm25;
+
+    @BeforeAll
+    static void buildIndexes() throws IOException {
+        Random random = new Random(11);
+        documents = new ArrayList<>(DOCUMENTS);
+        for (int i = 0; i < DOCUMENTS; i++) {
+            documents.add(new KnowledgeDocument("doc-" + i, words(random, 12)));
+        }
+        int perSegment = DOCUMENTS / SEGMENTS;
+        List<IndexSegment> segments = new ArrayList<>(SEGMENTS);
+        for (int s = 0; s < SEGMENTS; s++) {
+            SegmentWriter writer = new SegmentWriter(TextAnalyzer.standard());
+            documents.subList(s * perSegment, (s + 1) * perSegment).forEach(writer::add);
+            segments.add(new IndexSegment("s" + s, writer.toBuffer()));
+        }
+        segmented = new SegmentedIndex(segments, TextAnalyzer.standard(), 1.2, 0.75);
+        bm25 = new Bm25Index(documents, TextAnalyzer.standard(), 1.2, 0.75);
+    }
+
+    @Test
+    void scoresMatchSingleInvertedIndex() {
+        Random random = new Random(3);
+        for (int q = 0; q < 200; q++) {
+            String query = words(random, 3);
+            List<Passage> expected = bm25.retrieve(query, TOP_K);
+            List<Passage> actual = segmented.retrieve(query, TOP_K);
+            assertEquals(expected.size(), actual.size(), query);
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).score(), actual.get(i).score(), 1e-3, query);
+            }
+        }
+        assertEquals(List.of(), segmented.retrieve("없는단어", TOP_K));
+    }
+
+    @Test
+    void selectiveQueryAllocatesFarLessThanDenseScoreArray() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        String query = "term" + (WORDS - 1) + " term" + (WORDS - 2);
+        assertTrue(!segmented.retrieve(query, TOP_K).isEmpty(), "희귀 단어가 말뭉치에 없음");
+
+        long perQuery = 0;
+        for (int round = 0; round < 5; round++) {
+            long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            for (int i = 0; i < 1000; i++) {
+                segmented.retrieve(query, TOP_K);
+            }
+            perQuery = (threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before) / 1000;
+        }
+        System.out.printf("희귀어 질의당 할당 %d바이트 (문서 %d건의 점수 배열은 %d바이트)%n",
+                perQuery, DOCUMENTS, 4L * DOCUMENTS);
+        assertTrue(perQuery < DOCUMENTS, "질의당 할당이 문서 수에 비례함: " + perQuery + " bytes");
+    }
+
+    /**
+     * 어휘 앞쪽 단어가 더 자주 나오도록(대략 Zipf) 뽑은 단어열
+     */
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            int word = (int) Math.pow(WORDS, random.nextDouble());
+            text.append("term").append(word).append(' ');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,121 @@
+package com.aws.agent.routing;
+
+import com.aws.agent.tool.CalculatorTool;
+import com.aws.agent.tool.TimeTool;
+import com.aws.agent.tool.WeatherTool;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 컴파일된 의도 라우터와 이전 contains()/matches() 분기 비교
+ *
+ * - 동등성: 트리거 조각을 무작위로 이어 붙인 메시지에서 도구 기본 규칙 라우터가 이전 분기와 같은 도구를 고르는지
+ * - 속도: 일반 문장 사이에 가끔 트리거가 섞인 채팅 메시지로 메시지당 처리 시간을 잰다.
+ *   이전 분기는 매 요청 toLowerCase()를 하고, 계산 문구가 없으면 정규식을 컴파일해 앞뒤 ".*"로 되추적한다
+ */
+class IntentRouterBenchmarkTest {
+
+    private static final int MESSAGES = 20_000;
+    private static final int ROUNDS = 30;
+
+    private static final String[] FRAGMENTS = {
+            "서울", "날씨", "기온", "시간", "몇 시", "계산", "더하기", "빼기", "곱하기", "나누기",
+            "Lambda", "S3", "요금", "알려줘", "어때", "?", " ", " ", "12", "3", "+", "-", "*", "/", "x", "."
+    };
+
+    private static final String[] WORDS = {
+            "Amazon", "S3", "버킷", "정책과", "IAM", "역할의", "차이를", "자세히", "설명해줘", "Lambda",
+            "함수", "요금은", "어떻게", "돼?", "Bedrock", "모델", "목록", "알려줘", "서울", "리전에서",
+            "EC2", "인스턴스", "비용", "줄이는", "방법", "있어?", "배포", "파이프라인", "구성", "예시"
+    };
+
+    private static final String[] TRIGGERS = {"날씨", "기온", "지금 몇 시", "시간", "계산", "12 * 7", "3+4", "더하기", "나누기"};
+
+    private static IntentRouter router;
+    private static List<String> fuzzed;
+    private static List<String> chats;
+
+    @BeforeAll
+    static void setUp() {
+        router = IntentRouter.compile(List.of(
+                new CalculatorTool(16).route(), new WeatherTool(null).route(), new TimeTool().route()));
+        Random random = new Random(11);
+        fuzzed = new ArrayList<>(MESSAGES);
+        chats = new ArrayList<>(MESSAGES);
+        for (int i = 0; i < MESSAGES; i++) {
+            StringBuilder message = new StringBuilder();
+            int length = 1 + random.nextInt(12);
+            for (int f = 0; f < length; f++) {
+                message.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            }
+            fuzzed.add(message.toString());
+
+            StringBuilder chat = new StringBuilder();
+            int words = 3 + random.nextInt(10);
+            for (int w = 0; w < words; w++) {
+                String[] source = random.nextInt(20) == 0 ? TRIGGERS : WORDS;
+                chat.append(source[random.nextInt(source.length)]).append(' ');
+            }
+            chats.add(chat.toString());
+        }
+    }
+
+    @Test
+    void routesLikeTheOldContainsChain() {
+        for (String message : fuzzed) {
+            assertEquals(legacyRoute(message), router.route(message).tool(), message);
+        }
+        for (String message : chats) {
+            assertEquals(legacyRoute(message), router.route(message).tool(), message);
+        }
+    }
+
+    @Test
+    void compiledRouterIsFasterThanTheOldChain() {
+        long compiled = 0;
+        long legacy = 0;
+        int sink = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long started = System.nanoTime();
+            for (String message : chats) {
+                sink += router.route(message).tool().length();
+            }
+            compiled = System.nanoTime() - started;
+
+            started = System.nanoTime();
+            for (String message : chats) {
+                sink += legacyRoute(message).length();
+            }
+            legacy = System.nanoTime() - started;
+        }
+        System.out.printf("메시지당 라우팅: 라우터 %.0fns, 이전 분기 %.0fns (%.1f배, %d)%n",
+                (double) compiled / MESSAGES, (double) legacy / MESSAGES, (double) legacy / compiled, sink);
+        assertTrue(compiled < legacy, "라우터가 이전 분기보다 느림: " + compiled + "ns >= " + legacy + "ns");
+    }
+
+    /**
+     * 라우터 도입 이전 ToolService.determineTool
+     */
+    private static String legacyRoute(String message) {
+        String lowerMessage = message.toLowerCase();
+        if (lowerMessage.contains("계산") || lowerMessage.contains("더하기")
+                || lowerMessage.contains("빼기") || lowerMessage.contains("곱하기")
+                || lowerMessage.contains("나누기") || lowerMessage.matches(".*\\d+\\s*[+\\-*/]\\s*\\d+.*")) {
+            return CalculatorTool.NAME;
+        }
+        if (lowerMessage.contains("날씨") || lowerMessage.contains("기온")) {
+            return WeatherTool.NAME;
+        }
+        if (lowerMessage.contains("시간") || lowerMessage.contains("몇 시")) {
+            return TimeTool.NAME;
+        }
+        return IntentRoute.NONE;
+    }
+}
@@ -0,0 +1,78 @@
+package com.aws.agent.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 의도 라우터의 규칙 선택 (우선순위, 신뢰도 동률 처리, 트리거)
+ */
+class IntentRouterTest {
+
+    @Test
+    void higherPriorityWinsEvenWithLowerConfidence() {
+        IntentRouter router = IntentRouter.compile(List.of(
+                new RouteRule("weather", 20, 0.9, List.of("날씨"), List.of()),
+                new RouteRule("time", 10, 0.9, List.of("시간"), List.of()),
+                new RouteRule("calculator", 30, 0.3, List.of("계산"), List.of("arithmetic"))));
+
+        IntentRoute route = router.route("날씨 보고 시간 계산해줘");
+
+        assertEquals("calculator", route.tool());
+        assertEquals(0.3, route.confidence(), 1e-9);
+        assertEquals(List.of("계산"), route.triggers());
+        assertEquals("weather", router.route("오늘 날씨랑 시간").tool());
+    }
+
+    @Test
+    void samePriorityPrefersHigherCombinedConfidence() {
+        IntentRouter router = IntentRouter.compile(List.of(
+                new RouteRule("a", 10, 0.6, List.of("alpha"), List.of()),
+                new RouteRule("b", 10, 0.5, List.of("beta", "gamma"), List.of())));
+
+        // 한 번 걸린 a(0.6)보다 두 번 걸린 b(1 - 0.5^2 = 0.75)가 이긴다
+        IntentRoute route = router.route("ALPHA beta gamma");
+        assertEquals("b", route.tool());
+        assertEquals(0.75, route.confidence(), 1e-9);
+        assertEquals(List.of("beta", "gamma"), route.triggers());
+
+        assertEquals("a", router.route("alpha beta").tool());
+    }
+
+    @Test
+    void exactTieKeepsRuleOrder() {
+        IntentRouter router = IntentRouter.compile(List.of(
+                new RouteRule("first", 10, 0.5, List.of("x"), List.of()),
+                new RouteRule("second", 10, 0.5, List.of("y"), List.of())));
+
+        assertEquals("first", router.route("y x").tool());
+        assertEquals("first", router.route("x y").tool());
+    }
+
+    @Test
+    void arithmeticPatternAndSharedPhrasesCountAsHits() {
+        IntentRouter router = IntentRouter.compile(List.of(
+                new RouteRule("calculator", 30, 0.8, List.of("계산"), List.of("arithmetic")),
+                new RouteRule("echo", 30, 0.8, List.of("계산"), List.of())));
+
+        IntentRoute route = router.route("12 * 3 계산");
+        assertEquals("calculator", route.tool());
+        assertEquals(1 - 0.2 * 0.2, route.confidence(), 1e-9);
+        assertEquals(List.of("계산", "arithmetic"), route.triggers());
+
+        assertTrue(router.route("12 곱 3").isNone());
+        assertTrue(router.route(null).isNone());
+    }
+
+    @Test
+    void invalidRulesAreRejectedAtCompileTime() {
+        assertThrows(IllegalArgumentException.class, () -> IntentRouter.compile(List.of(
+                new RouteRule("calculator", 1, 0.5, List.of(), List.of("regex:\\d+")))));
+        assertThrows(IllegalArgumentException.class, () -> new RouteRule("time", 1, 0, List.of("시간"), List.of()));
+        assertThrows(IllegalArgumentException.class, () -> new RouteRule("time", 1, 0.5, List.of(), List.of()));
+    }
+}
@@ -0,0 +1,92 @@
+package com.aws.agent.service;
+
+import com.aws.agent.tool.CalculatorTool;
+import com.aws.agent.tool.TimeTool;
+import com.aws.agent.tool.Tool;
+import com.aws.agent.tool.ToolExecutionConfig;
+import com.aws.agent.tool.ToolExecutor;
+import com.aws.agent.tool.ToolRegistry;
+import com.aws.agent.tool.ToolResultCache;
+import com.aws.agent.tool.WeatherTool;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 라우팅 규칙 파일 재적용 (잘못된 파일이면 기존 규칙 유지)
+ */
+class ToolServiceRoutingReloadTest {
+
+    @TempDir
+    Path directory;
+
+    private Path rulesFile;
+    private ToolExecutor executor;
+    private ToolService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        rulesFile = directory.resolve("routing.json");
+        Files.writeString(rulesFile, """
+                [{"tool": "time", "priority": 10, "confidence": 0.8, "phrases": ["몇 시"]}]
+                """);
+        List<Tool> tools = List.of(new CalculatorTool(16), new WeatherTool(null), new TimeTool());
+        executor = new ToolExecutor(tools, new ToolExecutionConfig(1, 0, 10, 5, 0.5, 0.5,
+                Duration.ofSeconds(1), Duration.ofSeconds(1), 1, List.of(), Duration.ZERO, 0));
+        service = new ToolService(new ToolRegistry(tools), executor, new ToolResultCache(tools, false, 16),
+                new ObjectMapper(), rulesFile.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void reloadAppliesEditedRules() throws IOException {
+        assertEquals("none", service.route("서울 날씨").tool());
+
+        Files.writeString(rulesFile, """
+                [{"tool": "weather", "priority": 20, "confidence": 0.9, "phrases": ["날씨"]},
+                 {"tool": "time", "priority": 10, "confidence": 0.8, "phrases": ["몇 시"]}]
+                """);
+
+        assertEquals(2, service.reloadRoutes().size());
+        assertEquals("weather", service.route("서울 날씨").tool());
+    }
+
+    @Test
+    void badRulesFileKeepsCurrentRouter() throws IOException {
+        Files.writeString(rulesFile, "[{\"tool\": \"weather\", \"priority\": 20,");
+        assertThrows(JsonProcessingException.class, service::reloadRoutes);
+        assertEquals("time", service.route("지금 몇 시야").tool());
+
+        Files.writeString(rulesFile, "[{\"tool\": \"stock\", \"priority\": 1, \"confidence\": 0.5, \"phrases\": [\"주가\"]}]");
+        assertThrows(IllegalArgumentException.class, service::reloadRoutes);
+
+        Files.writeString(rulesFile, "[{\"tool\": \"weather\", \"priority\": 1, \"confidence\": 0.5}]");
+        assertThrows(JsonProcessingException.class, service::reloadRoutes);
+
+        Files.writeString(rulesFile, "[{\"tool\": \"calculator\", \"priority\": 1, \"confidence\": 0.5, \"patterns\": [\"\\\\d+\"]}]");
+        assertThrows(IllegalArgumentException.class, service::reloadRoutes);
+
+        Files.delete(rulesFile);
+        assertThrows(NoSuchFileException.class, service::reloadRoutes);
+
+        assertEquals("time", service.route("지금 몇 시야").tool());
+        assertEquals("none", service.route("서울 날씨").tool());
+    }
+}
@@ -0,0 +1,98 @@
+package com.aws.agent.session;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 턴 하나의 힙 점유량 측정 (스레드별 할당 바이트 카운터 사용)
+ *
+ * - 링 버퍼에 턴을 넣는 비용은 레코드 하나뿐이고, 가득 찬 버퍼에 덮어써도 추가 할당이 없어야 한다
+ * - 세션 무게 계산에 쓰는 estimatedBytes()는 레코드와 두 메시지 문자열(UTF-16 기준)을 모두 센다
+ * - 이전 표현(HashMap 3항목 + Date 문자열)과 턴을 담는 구조의 바이트를 비교한다
+ */
+class ConversationTurnFootprintTest {
+
+    private static final int TURNS = 100_000;
+    private static final int WARMUP_ROUNDS = 5;
+
+    private static com.sun.management.ThreadMXBean threads;
+
+    @BeforeAll
+    static void allocationCounter() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "스레드별 할당 카운터를 지원하지 않는 JVM");
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    void estimatedBytesCountsRecordAndBothMessages() {
+        ConversationTurn turn = new ConversationTurn("안녕", "hello", 0L);
+        assertEquals(32 + (40 + 2 * 2) + (40 + 2 * 5), turn.estimatedBytes());
+        assertEquals(32 + 40, new ConversationTurn("", null, 0L).estimatedBytes());
+    }
+
+    @Test
+    void addingToFullRingBufferAllocatesOnlyTheRecord() {
+        TurnRingBuffer buffer = new TurnRingBuffer(64);
+        String user = "Lambda 요금 알려줘";
+        String agent = "요청 수와 실행 시간에 따라 과금됩니다.";
+        long perTurn = 0;
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            long before = allocated();
+            for (int i = 0; i < TURNS; i++) {
+                buffer.add(new ConversationTurn(user, agent, i));
+            }
+            perTurn = (allocated() - before) / TURNS;
+        }
+        System.out.printf("링 버퍼 턴 추가: 턴당 %d바이트 할당%n", perTurn);
+        assertTrue(perTurn <= 32, "턴당 할당이 레코드 크기를 넘음: " + perTurn + " bytes");
+    }
+
+    @Test
+    void recordCostsAFractionOfTheMapRepresentation() {
+        // 메시지 문자열은 두 표현이 똑같이 참조하므로 공유하고, 턴을 담는 구조의 비용만 비교
+        String user = "서울 날씨 어때? 우산 챙겨야 할까";
+        String agent = "서울은 맑고 기온은 21도입니다. 우산은 필요 없어요.";
+        long turnBytes = 0;
+        long mapBytes = 0;
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            List<Object> sink = new ArrayList<>(TURNS);
+            long before = allocated();
+            for (int i = 0; i < TURNS; i++) {
+                sink.add(new ConversationTurn(user, agent, i));
+            }
+            turnBytes = (allocated() - before) / TURNS;
+            sink.clear();
+
+            before = allocated();
+            for (int i = 0; i < TURNS; i++) {
+                Map<String, String> conversation = new HashMap<>();
+                conversation.put("user", user);
+                conversation.put("agent", agent);
+                conversation.put("timestamp", new Date().toString());
+                sink.add(conversation);
+            }
+            mapBytes = (allocated() - before) / TURNS;
+        }
+        System.out.printf("턴 구조 바이트: 레코드 %d, 이전 Map 표현 %d%n", turnBytes, mapBytes);
+        assertTrue(turnBytes <= 32, "턴당 할당이 레코드 크기를 넘음: " + turnBytes + " bytes");
+        assertTrue(mapBytes >= 5 * turnBytes, "레코드 표현의 절감 폭이 너무 작음: " + turnBytes + " vs " + mapBytes);
+    }
+
+    private static long allocated() {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
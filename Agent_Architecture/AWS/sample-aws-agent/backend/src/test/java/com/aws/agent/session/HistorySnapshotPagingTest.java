@@ -0,0 +1,114 @@
+package com.aws.agent.session;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 히스토리 스냅샷의 커서 페이징 (cold 블록/스테이징/hot 경계, 스냅샷 고정, 오래된 블록이 버려진 뒤의 시퀀스)
+ *
+ * 턴의 질문을 "q{시퀀스}"로 두어 페이지에 담긴 턴이 커서가 가리키는 턴인지 바로 확인한다.
+ */
+class HistorySnapshotPagingTest {
+
+    private static final int MAX_TURNS = 100;
+    private static final int HOT_TURNS = 8;
+    private static final int COLD_BLOCK_TURNS = 16;
+
+    private SessionStore store;
+    private String sessionId;
+
+    @BeforeEach
+    void setUp() {
+        store = new SessionStore(new SessionStoreConfig(
+                10, 256L * 1024 * 1024, MAX_TURNS, HOT_TURNS, COLD_BLOCK_TURNS, 10, 4000,
+                Duration.ofMinutes(30), Duration.ofMinutes(1)));
+        sessionId = store.create().getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void cursorWalkReturnsEveryTurnOnceAcrossTiers() {
+        append(0, 60);
+        HistorySnapshot snapshot = snapshot();
+        assertTrue(store.peek(sessionId).tierUsage().coldBlocks() > 0, "cold 블록이 생기도록 턴을 더 넣어야 함");
+
+        for (int limit : new int[]{1, 7, COLD_BLOCK_TURNS, 50, 1000}) {
+            List<String> walked = new ArrayList<>();
+            long cursor = snapshot.firstSequence();
+            while (cursor < snapshot.endSequence()) {
+                List<ConversationTurn> page = snapshot.page(cursor, limit);
+                assertTrue(!page.isEmpty() && page.size() <= limit, "limit=" + limit + ", cursor=" + cursor);
+                assertEquals("q" + cursor, page.get(0).user());
+                page.forEach(turn -> walked.add(turn.user()));
+                cursor += page.size();
+            }
+            assertEquals(questions(0, 60), walked, "limit=" + limit);
+        }
+        assertEquals(questions(0, 60), users(snapshot.toList()));
+        List<ConversationTurn> iterated = new ArrayList<>();
+        snapshot.forEach(iterated::add);
+        assertEquals(questions(0, 60), users(iterated));
+    }
+
+    @Test
+    void snapshotIsNotAffectedByLaterTurns() {
+        append(0, 30);
+        HistorySnapshot snapshot = snapshot();
+
+        append(30, 40);
+
+        assertEquals(30, snapshot.endSequence());
+        assertEquals(questions(20, 30), users(snapshot.page(20, 100)));
+        assertEquals(List.of(), snapshot.page(30, 10), "스냅샷 끝 이후 커서는 빈 페이지");
+        assertEquals(questions(20, 40), users(snapshot().page(20, 100)), "새 스냅샷에는 이후 턴도 보임");
+    }
+
+    @Test
+    void sequencesStayStableAfterOldTurnsAreDropped() {
+        append(0, 250);
+        HistorySnapshot snapshot = snapshot();
+
+        assertTrue(snapshot.firstSequence() > 0, "보관 한도를 넘긴 오래된 턴이 버려져야 함");
+        assertTrue(snapshot.size() >= MAX_TURNS && snapshot.size() < MAX_TURNS + COLD_BLOCK_TURNS,
+                "cold 블록 단위로 버리므로 보관 한도와 한 블록 사이: " + snapshot.size());
+        assertEquals(250, snapshot.endSequence());
+        long first = snapshot.firstSequence();
+        assertEquals(questions(first, first + 5), users(snapshot.page(0, 5)), "버려진 구간의 커서는 가장 오래된 턴부터");
+        assertEquals(questions(200, 210), users(snapshot.page(200, 10)));
+        assertEquals(questions(245, 250), users(snapshot.page(245, 10)));
+    }
+
+    private void append(int from, int to) {
+        for (int seq = from; seq < to; seq++) {
+            store.append(sessionId, new ConversationTurn("q" + seq, "a" + seq, seq));
+        }
+    }
+
+    private HistorySnapshot snapshot() {
+        return store.peek(sessionId).historySnapshot();
+    }
+
+    private static List<String> questions(long from, long to) {
+        List<String> questions = new ArrayList<>();
+        for (long seq = from; seq < to; seq++) {
+            questions.add("q" + seq);
+        }
+        return questions;
+    }
+
+    private static List<String> users(List<ConversationTurn> turns) {
+        return turns.stream().map(ConversationTurn::user).toList();
+    }
+}
@@ -0,0 +1,178 @@
+package com.aws.agent.session;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 세션 저널 복구 테스트 (찢어진 꼬리, CRC 불일치, 압축 후 재생)
+ */
+class MappedSessionJournalTest {
+
+    private static final int SEGMENT_BYTES = 1024;
+    private static final Duration RETENTION = Duration.ofMinutes(30);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void tornTailIsIgnoredOnReplay() throws IOException {
+        try (MappedSessionJournal journal = open()) {
+            for (int i = 0; i < 3; i++) {
+                journal.append("s1", turn("q" + i, System.currentTimeMillis()));
+            }
+        }
+        Path segment = onlySegment();
+        long thirdRecord = recordOffset(segment, 2);
+        // 세 번째 레코드를 쓰던 중 멈춘 것처럼 헤더와 payload 일부만 남김
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(thirdRecord + 12);
+        }
+
+        assertEquals(List.of("s1:q0", "s1:q1"), replay());
+    }
+
+    @Test
+    void replayStopsAtRecordWithChecksumMismatch() throws IOException {
+        try (MappedSessionJournal journal = open()) {
+            for (int i = 0; i < 3; i++) {
+                journal.append("s1", turn("q" + i, System.currentTimeMillis()));
+            }
+        }
+        Path segment = onlySegment();
+        long secondRecord = recordOffset(segment, 1);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            long position = secondRecord + 8 + 12;
+            channel.read(one, position);
+            one.put(0, (byte) (one.get(0) ^ 0x5A)).rewind();
+            channel.write(one, position);
+        }
+
+        assertEquals(List.of("s1:q0"), replay());
+    }
+
+    @Test
+    void replayAfterCompactionKeepsOnlyLiveRecordsInOrder() throws IOException {
+        long now = System.currentTimeMillis();
+        long expired = now - Duration.ofHours(2).toMillis();
+        List<String> expected = new ArrayList<>();
+        try (MappedSessionJournal journal = open()) {
+            // 보존 기간이 지난 턴만 담긴 세그먼트들
+            for (int i = 0; i < 150; i++) {
+                journal.append("old", turn("x" + i, expired));
+            }
+            for (int i = 0; i < 40; i++) {
+                journal.append("old", turn("x" + i, expired));
+                journal.append("reset", turn("r" + i, now));
+                if (i % 8 == 0) {
+                    journal.append("live", turn("l" + i, now));
+                    expected.add("live:l" + i);
+                }
+            }
+            // 같은 ID로 다시 시작한 세션: 폐기 기록 앞의 턴은 되살아나면 안 됨
+            journal.discard("reset");
+            journal.append("reset", turn("new", now));
+        }
+        expected.add("reset:new");
+        List<Path> before = segments();
+        assertTrue(before.size() > 3, "롤오버가 일어나도록 세그먼트를 작게 잡아야 함");
+        long bytesBefore = totalSize(before);
+
+        // 이전 기동에서 쓴 세그먼트를 새 인스턴스가 압축
+        try (MappedSessionJournal journal = open()) {
+            journal.compact();
+        }
+
+        List<Path> after = segments();
+        assertTrue(after.size() < before.size(), "죽은 레코드만 남은 세그먼트는 삭제");
+        assertTrue(totalSize(after) < bytesBefore, "압축 후 저널 크기가 줄어야 함");
+        assertEquals(expected, replay());
+    }
+
+    private MappedSessionJournal open() throws IOException {
+        return new MappedSessionJournal(directory, SEGMENT_BYTES, Duration.ofMillis(5), true,
+                Duration.ofHours(1), RETENTION);
+    }
+
+    /**
+     * 새 인스턴스로 재생한 결과 ("세션:질문", 폐기 기록은 그 세션의 앞선 턴을 지움)
+     */
+    private List<String> replay() throws IOException {
+        List<String> turns = new ArrayList<>();
+        try (MappedSessionJournal journal = open()) {
+            journal.replay((sessionId, turn) -> turns.add(sessionId + ":" + turn.user()),
+                    sessionId -> turns.removeIf(entry -> entry.startsWith(sessionId + ":")));
+        }
+        return turns;
+    }
+
+    private Path onlySegment() throws IOException {
+        List<Path> segments = segments();
+        assertEquals(1, segments.size());
+        return segments.get(0);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".seg"))
+                    .filter(path -> path.toFile().length() > 0 && !isEmptySegment(path))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * 재생/압축용으로 열 때마다 새로 만들어지는 빈 활성 세그먼트는 제외
+     */
+    private static boolean isEmptySegment(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            channel.read(header, 0);
+            return header.getInt(0) == 0;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long totalSize(List<Path> paths) throws IOException {
+        long total = 0;
+        for (Path path : paths) {
+            total += Files.size(path);
+        }
+        return total;
+    }
+
+    /**
+     * index번째 레코드의 파일 내 위치 ([int 길이][int CRC][payload])
+     */
+    private static long recordOffset(Path segment, int index) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long offset = 0;
+            ByteBuffer length = ByteBuffer.allocate(4);
+            for (int i = 0; i < index; i++) {
+                length.clear();
+                channel.read(length, offset);
+                offset += 8 + length.getInt(0);
+            }
+            return offset;
+        }
+    }
+
+    private static ConversationTurn turn(String user, long timestamp) {
+        return new ConversationTurn(user, "ok", timestamp);
+    }
+}
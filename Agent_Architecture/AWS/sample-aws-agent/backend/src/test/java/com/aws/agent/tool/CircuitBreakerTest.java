@@ -0,0 +1,133 @@
+package com.aws.agent.tool;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * 서킷 브레이커 상태 전이 (차단, 시험 호출, 복구)와 이전 상태에서 발급한 허가의 결과 무시
+ */
+class CircuitBreakerTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofMillis(50);
+    private static final long FAST = 0;
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    void tripsWhenFailureRateReachesThreshold() {
+        CircuitBreaker breaker = breaker(2);
+        record(breaker, false);
+        record(breaker, true);
+        record(breaker, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.snapshot().state(), "최소 기록 수 전에는 차단하지 않음");
+
+        record(breaker, true);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.snapshot().state());
+        assertEquals(CircuitBreaker.DENIED, breaker.tryAcquire());
+    }
+
+    @Test
+    void tripsWhenSlowCallRateReachesThreshold() {
+        CircuitBreaker breaker = breaker(2);
+        for (int i = 0; i < 4; i++) {
+            breaker.onResult(breaker.tryAcquire(), false, i % 2 == 0 ? SLOW : FAST);
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.snapshot().state());
+    }
+
+    @Test
+    void halfOpenAllowsLimitedTrialCallsAndRecoversAfterAllSucceed() throws InterruptedException {
+        CircuitBreaker breaker = tripped(2);
+        Thread.sleep(OPEN_DURATION.toMillis() * 2);
+
+        long first = breaker.tryAcquire();
+        long second = breaker.tryAcquire();
+        assertNotEquals(CircuitBreaker.DENIED, first);
+        assertNotEquals(CircuitBreaker.DENIED, second);
+        assertEquals(CircuitBreaker.DENIED, breaker.tryAcquire(), "시험 호출 수를 넘는 호출은 막음");
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.snapshot().state());
+
+        breaker.onResult(first, false, FAST);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.snapshot().state());
+        breaker.onResult(second, false, FAST);
+
+        CircuitBreaker.Snapshot snapshot = breaker.snapshot();
+        assertEquals(CircuitBreaker.State.CLOSED, snapshot.state());
+        assertEquals(0, snapshot.recordedCalls(), "복구하면 이전 창은 비움");
+    }
+
+    @Test
+    void failedTrialCallReopens() throws InterruptedException {
+        CircuitBreaker breaker = tripped(2);
+        Thread.sleep(OPEN_DURATION.toMillis() * 2);
+
+        breaker.onResult(breaker.tryAcquire(), true, FAST);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.snapshot().state());
+        assertEquals(CircuitBreaker.DENIED, breaker.tryAcquire());
+    }
+
+    @Test
+    void releasedTrialPermitCanBeAcquiredAgain() throws InterruptedException {
+        CircuitBreaker breaker = tripped(1);
+        Thread.sleep(OPEN_DURATION.toMillis() * 2);
+
+        long permit = breaker.tryAcquire();
+        assertEquals(CircuitBreaker.DENIED, breaker.tryAcquire());
+        breaker.release(permit);
+
+        breaker.onResult(breaker.tryAcquire(), false, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.snapshot().state());
+    }
+
+    @Test
+    void resultsOfPermitsIssuedBeforeStateChangeAreIgnored() throws InterruptedException {
+        CircuitBreaker breaker = breaker(2);
+        long closedSuccess = breaker.tryAcquire();
+        long closedFailure = breaker.tryAcquire();
+        for (int i = 0; i < 4; i++) {
+            record(breaker, true);
+        }
+        Thread.sleep(OPEN_DURATION.toMillis() * 2);
+        long trial = breaker.tryAcquire();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.snapshot().state());
+
+        // 차단 전에 허용된 호출이 늦게 끝남: 시험 호출 집계에 섞이면 안 됨
+        breaker.onResult(closedSuccess, false, FAST);
+        breaker.onResult(trial, false, FAST);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.snapshot().state(), "이전 성공이 시험 호출로 세어짐");
+
+        breaker.onResult(closedFailure, true, FAST);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.snapshot().state(), "이전 실패로 다시 차단됨");
+        long lastTrial = breaker.tryAcquire();
+        breaker.release(closedFailure);
+        assertEquals(CircuitBreaker.DENIED, breaker.tryAcquire(), "이전 허가 반납으로 시험 호출 수가 늘어남");
+
+        breaker.onResult(lastTrial, false, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.snapshot().state());
+    }
+
+    private static CircuitBreaker breaker(int halfOpenCalls) {
+        return new CircuitBreaker(new ToolExecutionConfig(1, 0, 10, 4, 0.5, 0.5,
+                Duration.ofMillis(500), OPEN_DURATION, halfOpenCalls, List.of(), Duration.ZERO, 0));
+    }
+
+    private static CircuitBreaker tripped(int halfOpenCalls) {
+        CircuitBreaker breaker = breaker(halfOpenCalls);
+        for (int i = 0; i < 4; i++) {
+            record(breaker, true);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.snapshot().state());
+        return breaker;
+    }
+
+    private static void record(CircuitBreaker breaker, boolean failed) {
+        breaker.onResult(breaker.tryAcquire(), failed, FAST);
+    }
+}
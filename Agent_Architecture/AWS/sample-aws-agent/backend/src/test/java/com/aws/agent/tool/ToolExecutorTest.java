@@ -0,0 +1,109 @@
+package com.aws.agent.tool;
+
+import com.aws.agent.tool.weather.WeatherClient;
+import com.aws.agent.tool.weather.WeatherStubServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 장애/지연을 주입한 로컬 날씨 스텁 서버를 상대로 한 도구 실행 격리 테스트 (차단, 시험 호출, 복구)
+ */
+class ToolExecutorTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofMillis(200);
+    private static final int MINIMUM_CALLS = 4;
+
+    private WeatherStubServer stub;
+    private WeatherClient client;
+    private ToolExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.close();
+        }
+        if (client != null) {
+            client.close();
+        }
+        if (stub != null) {
+            stub.close();
+        }
+    }
+
+    @Test
+    void failingUpstreamTripsBreakerAndRecoversAfterTrialCalls() throws Exception {
+        WeatherTool tool = weatherTool(WeatherStubServer.start(0, Duration.ZERO, 1));
+        for (int i = 0; i < MINIMUM_CALLS; i++) {
+            assertEquals(FallbackReason.FAILED.name(), tool(tool).get("fallback"));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, stats().breaker().state());
+
+        // 차단 중에는 스텁을 호출하지 않고 바로 대체 결과
+        assertEquals(FallbackReason.CIRCUIT_OPEN.name(), tool(tool).get("fallback"));
+        assertEquals(1, stats().shortCircuits());
+        assertEquals(MINIMUM_CALLS, stats().failures());
+
+        // 같은 포트에서 정상 응답하는 스텁으로 교체하고, 차단 시간이 지나면 시험 호출 두 번으로 복구
+        int port = stub.endpoint().getPort();
+        stub.close();
+        stub = WeatherStubServer.start(port, Duration.ZERO, 0);
+        Thread.sleep(OPEN_DURATION.toMillis() * 2);
+
+        assertFalse(tool(tool).containsKey("error"));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, stats().breaker().state());
+        assertFalse(tool(tool).containsKey("error"));
+        assertEquals(CircuitBreaker.State.CLOSED, stats().breaker().state());
+    }
+
+    @Test
+    void failedTrialCallReopensBreaker() throws Exception {
+        WeatherTool tool = weatherTool(WeatherStubServer.start(0, Duration.ZERO, 1));
+        for (int i = 0; i < MINIMUM_CALLS; i++) {
+            tool(tool);
+        }
+        Thread.sleep(OPEN_DURATION.toMillis() * 2);
+
+        assertEquals(FallbackReason.FAILED.name(), tool(tool).get("fallback"));
+
+        assertEquals(CircuitBreaker.State.OPEN, stats().breaker().state());
+        assertEquals(FallbackReason.CIRCUIT_OPEN.name(), tool(tool).get("fallback"));
+    }
+
+    @Test
+    void slowUpstreamTripsBreakerOnLatency() throws Exception {
+        WeatherTool tool = weatherTool(WeatherStubServer.start(0, Duration.ofMillis(150), 0));
+        for (int i = 0; i < MINIMUM_CALLS; i++) {
+            assertFalse(tool(tool).containsKey("error"), "느려도 제한 시간 안이면 결과는 정상");
+        }
+
+        ToolStats stats = stats();
+        assertEquals(CircuitBreaker.State.OPEN, stats.breaker().state());
+        assertEquals(1.0, stats.breaker().slowCallRate());
+        assertEquals(FallbackReason.CIRCUIT_OPEN.name(), tool(tool).get("fallback"));
+    }
+
+    private WeatherTool weatherTool(WeatherStubServer server) {
+        stub = server;
+        client = new WeatherClient(stub.endpoint(), Duration.ofSeconds(1), new ObjectMapper().getFactory(), null);
+        WeatherTool tool = new WeatherTool(client);
+        executor = new ToolExecutor(List.of(tool), new ToolExecutionConfig(2, 0, 10, MINIMUM_CALLS, 0.5, 0.5,
+                Duration.ofMillis(100), OPEN_DURATION, 2, List.of(), Duration.ZERO, 0));
+        return tool;
+    }
+
+    private Map<String, Object> tool(WeatherTool tool) {
+        return executor.execute(tool, "서울 날씨 알려줘");
+    }
+
+    private ToolStats stats() {
+        return executor.stats().get(0);
+    }
+}
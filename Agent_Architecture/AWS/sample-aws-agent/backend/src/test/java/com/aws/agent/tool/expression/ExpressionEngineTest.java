@@ -0,0 +1,60 @@
+package com.aws.agent.tool.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 한국어 메시지에서 계산식 후보를 찾고, 공백만 다른 같은 식은 캐시된 AST를 재사용하는지
+ */
+class ExpressionEngineTest {
+
+    @Test
+    void candidatesAreSplitAtKoreanTextAndUnknownWords() {
+        assertEquals(List.of("5 + 3"), ExpressionEngine.candidates("5 + 3 계산해줘"));
+        assertEquals(List.of("2024", "12 * 3"), ExpressionEngine.candidates("2024년에 12 × 3은 얼마야?"));
+        assertEquals(List.of("sqrt(16) / 2"), ExpressionEngine.candidates("SQRT(16) ÷ 2 알려줘"));
+        assertEquals(List.of("2+2"), ExpressionEngine.candidates("what is 2+2"));
+        assertEquals(List.of(), ExpressionEngine.candidates("안녕하세요"));
+        assertEquals(List.of(), ExpressionEngine.candidates(null));
+    }
+
+    @Test
+    void firstCandidateWithAnOperationIsCompiled() {
+        ExpressionEngine engine = new ExpressionEngine(16);
+
+        CompiledExpression expression = engine.compile("2024년에 12 × 3은 얼마야?");
+
+        assertEquals("12 * 3", expression.source());
+        assertEquals(36, expression.evaluate());
+        assertEquals(-4, engine.compile("마이너스 2의 제곱: -2^2").evaluate());
+    }
+
+    @Test
+    void messageWithoutExpressionOrWithOnlyInvalidOnesFails() {
+        ExpressionEngine engine = new ExpressionEngine(16);
+
+        assertThrows(ExpressionException.class, () -> engine.compile("올해는 2024년"));
+        assertThrows(ExpressionException.class, () -> engine.compile("3 더하기 4"));
+        ExpressionException error = assertThrows(ExpressionException.class, () -> engine.compile("계산: (2 + 3"));
+        assertEquals("닫는 괄호가 없습니다", error.getMessage());
+    }
+
+    @Test
+    void sameExpressionWithDifferentSpacingReusesCachedAst() {
+        ExpressionEngine engine = new ExpressionEngine(16);
+
+        CompiledExpression first = engine.compile("(3+4)*2 계산해줘");
+        CompiledExpression second = engine.compile("계산: ( 3 + 4 ) * 2");
+
+        assertSame(first, second);
+        assertEquals("(3 + 4) * 2", second.source());
+        assertEquals(1, engine.cacheStats().hits());
+        assertEquals(1, engine.cacheStats().misses());
+        assertEquals(1, engine.cacheStats().size());
+    }
+}
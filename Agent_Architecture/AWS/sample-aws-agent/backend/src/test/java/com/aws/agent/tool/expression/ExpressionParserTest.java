@@ -0,0 +1,95 @@
+package com.aws.agent.tool.expression;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 계산식 파서의 우선순위/결합 방향/단항 부호와 입력 제한
+ */
+class ExpressionParserTest {
+
+    @Test
+    void multiplicativeOperatorsBindTighterThanAdditive() {
+        assertEquals(14, evaluate("2 + 3 * 4"));
+        assertEquals(20, evaluate("(2 + 3) * 4"));
+        assertEquals(7, evaluate("10 - 6 / 2"));
+        assertEquals(3, evaluate("5 + 10 % 4 - 4"));
+        assertEquals(0, evaluate("8 - 4 - 4"), "같은 우선순위는 왼쪽 결합");
+        assertEquals(1, evaluate("16 / 4 / 4"));
+    }
+
+    @Test
+    void powerBindsTighterThanMultiplicationAndIsRightAssociative() {
+        assertEquals(18, evaluate("2 * 3 ^ 2"));
+        assertEquals(512, evaluate("2 ^ 3 ^ 2"));
+        assertEquals(64, evaluate("(2 ^ 3) ^ 2"));
+        assertEquals(0.25, evaluate("2 ^ -2"));
+    }
+
+    @Test
+    void unaryMinusAppliesAfterPower() {
+        assertEquals(-4, evaluate("-2 ^ 2"));
+        assertEquals(4, evaluate("(-2) ^ 2"));
+        assertEquals(2, evaluate("- -2"));
+        assertEquals(-6, evaluate("3 * -2"));
+        assertEquals(1, evaluate("+3 - +2"));
+        assertEquals(-1, evaluate("-(3 - 2)"));
+    }
+
+    @Test
+    void functionsAndConstants() {
+        assertEquals(5, evaluate("sqrt(16) + abs(-1)"));
+        assertEquals(Math.PI * 2, evaluate("2 * pi"), 1e-12);
+        assertEquals(Math.E, evaluate("e"), 1e-12);
+        assertThrows(ExpressionException.class, () -> parse("sqrt 16"));
+    }
+
+    @Test
+    void divisionAndRemainderByZeroFailOnEvaluation() {
+        CompiledExpression division = new CompiledExpression("1 / 0", parse("1 / 0"));
+        CompiledExpression remainder = new CompiledExpression("5 % (2 - 2)", parse("5 % (2 - 2)"));
+
+        assertThrows(ArithmeticException.class, division::evaluate);
+        assertThrows(ArithmeticException.class, remainder::evaluate);
+    }
+
+    @Test
+    void nestingDeeperThanLimitIsRejected() {
+        assertEquals(1, evaluate("(".repeat(20) + "1" + ")".repeat(20)));
+        assertThrows(ExpressionException.class, () -> parse("(".repeat(40) + "1" + ")".repeat(40)));
+        assertThrows(ExpressionException.class, () -> parse("-".repeat(100) + "1"));
+    }
+
+    @Test
+    void tokenCountAboveLimitIsRejected() {
+        int operands = (ExpressionParser.MAX_TOKENS + 1) / 2;
+        assertEquals(operands, evaluate("1" + " + 1".repeat(operands - 1)));
+        assertThrows(ExpressionException.class, () -> ExpressionParser.tokenize("1" + " + 1".repeat(operands)));
+    }
+
+    @Test
+    void malformedInputIsRejected() {
+        assertThrows(ExpressionException.class, () -> parse("2 +"));
+        assertThrows(ExpressionException.class, () -> parse("(2 + 3"));
+        assertThrows(ExpressionException.class, () -> parse("2 3"));
+        assertThrows(ExpressionException.class, () -> parse("1..2 + 1"));
+        assertThrows(ExpressionException.class, () -> parse("max(1) + 1"));
+        assertThrows(ExpressionException.class, () -> ExpressionParser.tokenize("2 # 3"));
+    }
+
+    @Test
+    void normalizedSourceIgnoresWhitespaceAndKeepsUnarySigns() {
+        assertEquals("(3 + 4) * -2", ExpressionParser.normalize(ExpressionParser.tokenize("( 3+4 )*-2")));
+        assertEquals("max(1, 2) + 3", ExpressionParser.normalize(ExpressionParser.tokenize("MAX(1,2)+3")));
+    }
+
+    private static Expression parse(String text) {
+        return ExpressionParser.parse(ExpressionParser.tokenize(text));
+    }
+
+    private static double evaluate(String text) {
+        return parse(text).evaluate();
+    }
+}
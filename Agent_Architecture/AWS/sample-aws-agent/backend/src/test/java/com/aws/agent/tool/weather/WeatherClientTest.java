@@ -0,0 +1,95 @@
+package com.aws.agent.tool.weather;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * 로컬 스텁 서버를 상대로 한 날씨 클라이언트 테스트 (single-flight, 요청을 만들지 못한 경우)
+ */
+class WeatherClientTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private WeatherStubServer stub;
+    private WeatherClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = WeatherStubServer.start(0, Duration.ofMillis(300), 0);
+        client = new WeatherClient(stub.endpoint(), Duration.ofSeconds(5), MAPPER.getFactory(), null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        stub.close();
+    }
+
+    @Test
+    void concurrentLookupsForOneLocationShareOneUpstreamCall() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(48);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<WeatherReport>> results = new ArrayList<>();
+            for (int i = 0; i < 48; i++) {
+                String location = i % 3 == 0 ? "부산" : "서울";
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return client.current(location);
+                }));
+            }
+            start.countDown();
+            for (Future<WeatherReport> result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        JsonNode stats = upstreamStats();
+        assertEquals(1, stats.path("서울").asLong());
+        assertEquals(1, stats.path("부산").asLong());
+
+        // 진행 중인 요청이 끝난 뒤의 조회는 새로 호출한다
+        client.current("서울");
+        assertEquals(2, upstreamStats().path("서울").asLong());
+    }
+
+    @Test
+    void requestThatCannotBeBuiltDoesNotBlockLaterLookups() {
+        try (WeatherClient broken = new WeatherClient(URI.create("localhost:1/weather"),
+                Duration.ofSeconds(1), MAPPER.getFactory(), null)) {
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                assertThrows(IllegalArgumentException.class, () -> broken.current("서울"));
+                assertThrows(IllegalArgumentException.class, () -> broken.current("서울"));
+            });
+        }
+    }
+
+    private JsonNode upstreamStats() throws Exception {
+        URI uri = stub.endpoint().resolve("/stats");
+        HttpResponse<String> response = HttpClient.newHttpClient()
+                .send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString());
+        return MAPPER.readTree(response.body());
+    }
+}
@@ -0,0 +1,17 @@
+package com.azure.agent.cache;
+
+/**
+ * 캐시 현황
+ *
+ * @param size                 현재 항목 수
+ * @param capacity             최대 항목 수
+ * @param hits                 적중 수
+ * @param misses               실패 수
+ * @param hitRate              적중률 (0~1)
+ * @param evictions            용량 초과로 밀려난 항목 수
+ * @param admissionRejections  빈도가 낮아 본 영역에 들어가지 못하고 버려진 신규 항목 수
+ * @param invalidations        전체 무효화 횟수
+ */
+public record CacheStats(long size, long capacity, long hits, long misses, double hitRate,
+                         long evictions, long admissionRejections, long invalidations) {
+}
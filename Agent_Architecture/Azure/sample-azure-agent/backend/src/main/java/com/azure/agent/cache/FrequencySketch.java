@@ -0,0 +1,72 @@
+package com.azure.agent.cache;
+
+/**
+ * 최근 접근 빈도를 추정하는 4비트 Count-Min Sketch (동기화는 호출 측 책임)
+ *
+ * long 하나에 4비트 카운터 16개를 담고, 키마다 서로 다른 해시로 4개 카운터를 올린 뒤 최솟값을 빈도로 본다.
+ * 증가 횟수가 표본 크기(용량의 10배)에 이르면 모든 카운터를 절반으로 줄여 오래된 인기도를 잊는다.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int capacity) {
+        int size = Integer.highestOneBit(Math.max(8, capacity - 1)) << 1;
+        this.table = new long[size];
+        this.sampleSize = Math.max(10, 10 * capacity);
+    }
+
+    int frequency(Object key) {
+        int hash = key.hashCode();
+        int min = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long slot = slot(hash, i);
+            min = Math.min(min, (int) ((table[index(slot)] >>> shift(slot)) & 0xF));
+        }
+        return min;
+    }
+
+    void increment(Object key) {
+        int hash = key.hashCode();
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long slot = slot(hash, i);
+            int index = index(slot);
+            int shift = shift(slot);
+            if (((table[index] >>> shift) & 0xF) < MAX_COUNT) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private static long slot(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[(row + 1) & 3];
+        return h ^ (h >>> 32);
+    }
+
+    private int index(long slot) {
+        return (int) slot & (table.length - 1);
+    }
+
+    private static int shift(long slot) {
+        return (int) ((slot >>> 40) & 15) << 2;
+    }
+}
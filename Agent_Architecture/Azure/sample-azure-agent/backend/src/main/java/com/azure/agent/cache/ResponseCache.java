@@ -0,0 +1,211 @@
+package com.azure.agent.cache;
+
+import com.azure.agent.knowledge.HashingEmbedder;
+import com.azure.agent.model.AgentResponse;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 완성된 응답 캐시 (스레드 안전)
+ *
+ * - 정확 일치: 호출 측이 정규화한 키로 W-TinyLFU 캐시를 먼저 본다
+ * - 의미 일치: 정확 일치가 없고 호출 측이 허용한 경우, 최근 보관한 질문들의 해싱 임베딩과 코사인 유사도를 비교해
+ *   similarity 이상이면서 아직 캐시에 남아 있는 가장 가까운 질문의 응답을 쓴다.
+ *   벡터는 용량만큼의 링에 두고 전수 비교한다(1024 × 256차원 ≈ 수십 µs). 캐시가 축출/거절한 키의 칸은 건너뛴다
+ * - 항목은 지식 색인 버전과 함께 보관되며, 더 새 버전의 조회가 들어오면 전체를 비운다
+ * 적중 시 원래 응답을 만드는 데 걸렸던 시간에서 조회 시간을 뺀 값을 절약한 지연으로 집계한다.
+ */
+public final class ResponseCache {
+
+    private final TinyLfuCache<String, Entry> entries;
+    private final HashingEmbedder embedder;
+    private final double similarity;
+
+    private final ReentrantReadWriteLock ringLock = new ReentrantReadWriteLock();
+    private final float[][] vectors;
+    private final String[] keys;
+    private int next;
+
+    private volatile long version = Long.MIN_VALUE;
+
+    private final LongAdder exactHits = new LongAdder();
+    private final LongAdder semanticHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder savedNanos = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * 캐시가 돌려준 응답
+     *
+     * @param response   보관된 응답 (세션 ID/시각은 호출 측이 새로 채움)
+     * @param semantic   의미 일치로 찾았는지
+     * @param similarity 질문 간 코사인 유사도 (정확 일치는 1)
+     * @param savedNanos 원래 처리 시간 - 조회 시간
+     */
+    public record Hit(AgentResponse response, boolean semantic, double similarity, long savedNanos) {
+    }
+
+    private record Entry(AgentResponse response, long version, long computeNanos) {
+    }
+
+    public ResponseCache(int maxEntries, double similarity, HashingEmbedder embedder) {
+        if (maxEntries <= 0 || similarity <= 0 || similarity > 1) {
+            throw new IllegalArgumentException("응답 캐시 용량은 0보다 크고 유사도 임계값은 (0, 1] 범위여야 합니다");
+        }
+        this.entries = new TinyLfuCache<>(maxEntries);
+        this.embedder = embedder;
+        this.similarity = similarity;
+        this.vectors = new float[maxEntries][];
+        this.keys = new String[maxEntries];
+    }
+
+    /**
+     * 캐시된 응답. 없으면 null
+     *
+     * @param kbVersion 현재 지식 색인 버전
+     * @param key       정규화한 조회 키
+     * @param question  의미 일치에 쓸 원문 질문 (null이면 정확 일치만)
+     */
+    public Hit get(long kbVersion, String key, String question) {
+        long started = System.nanoTime();
+        if (!onVersion(kbVersion)) {
+            misses.increment();
+            return null;
+        }
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version() == kbVersion) {
+            exactHits.increment();
+            return hit(entry, false, 1, started);
+        }
+        if (question != null) {
+            float[] query = embedder.embedQuery(question);
+            ringLock.readLock().lock();
+            String nearest = null;
+            double best = similarity;
+            try {
+                for (int i = 0; i < vectors.length && vectors[i] != null; i++) {
+                    double score = dot(query, vectors[i]);
+                    if (score >= best && isLive(keys[i], kbVersion)) {
+                        best = score;
+                        nearest = keys[i];
+                    }
+                }
+            } finally {
+                ringLock.readLock().unlock();
+            }
+            Entry similar = nearest != null ? entries.get(nearest) : null;
+            if (similar != null && similar.version() == kbVersion) {
+                semanticHits.increment();
+                return hit(similar, true, best, started);
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * 응답 보관
+     *
+     * @param question     의미 일치 대상으로 등록할 원문 질문 (null이면 정확 일치로만 찾음)
+     * @param computeNanos 응답을 만드는 데 걸린 시간
+     */
+    public void put(long kbVersion, String key, String question, AgentResponse response, long computeNanos) {
+        if (!onVersion(kbVersion)) {
+            return;
+        }
+        boolean added = entries.peek(key) == null;
+        entries.put(key, new Entry(response, kbVersion, computeNanos));
+        if (question == null || !added) {
+            return;
+        }
+        float[] vector = embedder.embedQuery(question);
+        ringLock.writeLock().lock();
+        try {
+            if (version == kbVersion) {
+                vectors[next] = vector;
+                keys[next] = key;
+                next = (next + 1) % vectors.length;
+            }
+        } finally {
+            ringLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 캐시 대상이 아닌 요청 집계 (시간에 따라 바뀌는 도구 등)
+     */
+    public void bypass() {
+        bypassed.increment();
+    }
+
+    public ResponseCacheStats stats() {
+        long exact = exactHits.sum();
+        long semantic = semanticHits.sum();
+        long missCount = misses.sum();
+        long lookups = exact + semantic + missCount;
+        long saved = savedNanos.sum();
+        return new ResponseCacheStats(
+                entries.size(),
+                version == Long.MIN_VALUE ? null : version,
+                exact,
+                semantic,
+                missCount,
+                bypassed.sum(),
+                lookups == 0 ? 0 : (double) (exact + semantic) / lookups,
+                saved / 1e6,
+                exact + semantic == 0 ? 0 : saved / 1e6 / (exact + semantic),
+                invalidations.sum());
+    }
+
+    private boolean isLive(String key, long kbVersion) {
+        Entry entry = entries.peek(key);
+        return entry != null && entry.version() == kbVersion;
+    }
+
+    private Hit hit(Entry entry, boolean semantic, double score, long started) {
+        long saved = Math.max(0, entry.computeNanos() - (System.nanoTime() - started));
+        savedNanos.add(saved);
+        return new Hit(entry.response(), semantic, score, saved);
+    }
+
+    /**
+     * 조회 버전이 캐시 버전보다 새로우면 전체를 비우고 따라간다. 더 오래된 버전(재색인 전에 시작한 요청)이면 false
+     */
+    private boolean onVersion(long kbVersion) {
+        long current = version;
+        if (kbVersion == current) {
+            return true;
+        }
+        if (kbVersion < current) {
+            return false;
+        }
+        ringLock.writeLock().lock();
+        try {
+            if (kbVersion > version) {
+                boolean populated = version != Long.MIN_VALUE;
+                entries.invalidateAll();
+                Arrays.fill(vectors, null);
+                Arrays.fill(keys, null);
+                next = 0;
+                version = kbVersion;
+                if (populated) {
+                    invalidations.increment();
+                }
+            }
+            return kbVersion == version;
+        } finally {
+            ringLock.writeLock().unlock();
+        }
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+}
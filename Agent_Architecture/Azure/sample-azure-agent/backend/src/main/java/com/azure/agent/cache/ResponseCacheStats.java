@@ -0,0 +1,20 @@
+package com.azure.agent.cache;
+
+/**
+ * 응답 캐시 현황
+ *
+ * @param size               보관 중인 응답 수
+ * @param kbVersion          항목들이 기준으로 삼는 지식 색인 버전 (아직 조회가 없으면 null)
+ * @param exactHits          정규화한 질문이 같아 적중한 수
+ * @param semanticHits       임베딩 유사도로 적중한 수
+ * @param misses             조회했지만 없던 수
+ * @param bypassed           캐시 대상이 아니어서 조회하지 않은 요청 수 (시간/날씨 도구, 대체 결과 등)
+ * @param hitRate            적중률 (조회 대비, 0~1)
+ * @param savedMillis        적중으로 아낀 처리 시간 합계
+ * @param averageSavedMillis 적중 한 번에 아낀 평균 처리 시간
+ * @param invalidations      지식 색인 버전이 바뀌어 전체를 비운 횟수
+ */
+public record ResponseCacheStats(long size, Long kbVersion, long exactHits, long semanticHits, long misses,
+                                 long bypassed, double hitRate, double savedMillis, double averageSavedMillis,
+                                 long invalidations) {
+}
@@ -0,0 +1,159 @@
+package com.azure.agent.knowledge;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 여러 검색기에 동시에 묻고 순위를 Reciprocal Rank Fusion으로 합치는 검색기 (불변, 스레드 안전)
+ *
+ * 지식별 점수는 Σ 1 / (rrfK + 검색기별 순위)이므로 점수 척도가 다른 검색기(BM25, 코사인 유사도 등)도 보정 없이 합칠 수 있다.
+ * 요청별 마감 안에 끝나지 않은 검색기는 취소하고 나머지 결과만 합치므로, 느린 검색기 하나가 전체 지연을 결정하지 않는다.
+ * 취소는 인터럽트로만 전달되므로 이미 실행 중인 검색은 끝날 때까지 작업 스레드를 점유한다.
+ * 스레드 풀 대기열이 가득 차 거절된 검색기도 기다리지 않고 결과에서 제외한다.
+ */
+public final class HybridRetriever implements Retriever {
+
+    public static final String NAME = "hybrid";
+
+    /** 합치기 전 검색기별로 가져오는 후보 수 (topK의 배수) */
+    private static final int CANDIDATE_FACTOR = 4;
+
+    private final List<Retriever> retrievers;
+    private final ExecutorService executor;
+    private final long deadlineNanos;
+    private final int rrfK;
+
+    /** 검색기 하나의 결과와 완료 시각 */
+    private record Ranked(List<Passage> passages, long finishedNanos) {
+    }
+
+    /** 합산 중인 지식 하나 */
+    private static final class Fused {
+        private final Passage passage;
+        private final int firstSeen;
+        private double score;
+
+        Fused(Passage passage, int firstSeen) {
+            this.passage = passage;
+            this.firstSeen = firstSeen;
+        }
+    }
+
+    /**
+     * @param retrievers 함께 물을 검색기 (동점이면 앞선 검색기에서 먼저 나온 지식이 우선)
+     * @param executor   검색기를 실행할 스레드 풀 (대기열이 제한된 풀이면 거절된 검색기는 제외)
+     * @param deadline   요청별 마감
+     * @param rrfK       순위 완화 상수 (클수록 하위 순위의 기여가 커짐)
+     */
+    public HybridRetriever(List<Retriever> retrievers, ExecutorService executor, Duration deadline, int rrfK) {
+        if (retrievers.isEmpty() || deadline.isNegative() || deadline.isZero() || rrfK <= 0) {
+            throw new IllegalArgumentException("hybrid 검색기 설정이 올바르지 않습니다");
+        }
+        this.retrievers = List.copyOf(retrievers);
+        this.executor = executor;
+        this.deadlineNanos = deadline.toNanos();
+        this.rrfK = rrfK;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<Passage> retrieve(String query, int topK) {
+        return search(query, topK).passages();
+    }
+
+    @Override
+    public RetrievalResult search(String query, int topK) {
+        long started = System.nanoTime();
+        long deadline = started + deadlineNanos;
+        int depth = topK * CANDIDATE_FACTOR;
+        // invokeAll은 하나라도 거절되면 전부 취소하므로 검색기마다 따로 제출 (거절되면 null)
+        List<Future<Ranked>> futures = new ArrayList<>(retrievers.size());
+        for (Retriever retriever : retrievers) {
+            futures.add(submit(() -> new Ranked(retriever.retrieve(query, depth), System.nanoTime())));
+        }
+
+        Map<String, Fused> fused = new LinkedHashMap<>();
+        List<RetrieverTiming> timings = new ArrayList<>(retrievers.size());
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                String name = retrievers.get(i).name();
+                Future<Ranked> future = futures.get(i);
+                if (future == null) {
+                    timings.add(RetrieverTiming.since(name, started, 0, RetrieverTiming.Outcome.REJECTED));
+                    continue;
+                }
+                Ranked ranked;
+                try {
+                    ranked = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    timings.add(RetrieverTiming.since(name, started, 0, RetrieverTiming.Outcome.TIMEOUT));
+                    continue;
+                } catch (ExecutionException e) {
+                    timings.add(RetrieverTiming.since(name, started, 0, RetrieverTiming.Outcome.FAILED));
+                    continue;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                accumulate(fused, ranked.passages());
+                timings.add(new RetrieverTiming(name, (ranked.finishedNanos() - started) / 1e6,
+                        ranked.passages().size(), RetrieverTiming.Outcome.OK));
+            }
+        } finally {
+            // 마감을 넘겼거나 기다리지 않게 된 검색기 취소 (끝난 작업에는 영향 없음)
+            for (Future<Ranked> future : futures) {
+                if (future != null) {
+                    future.cancel(true);
+                }
+            }
+        }
+
+        List<Fused> ordered = new ArrayList<>(fused.values());
+        ordered.sort(Comparator.comparingDouble((Fused f) -> f.score).reversed()
+                .thenComparingInt(f -> f.firstSeen));
+        List<Passage> passages = new ArrayList<>(Math.min(topK, ordered.size()));
+        for (Fused f : ordered.subList(0, Math.min(topK, ordered.size()))) {
+            passages.add(new Passage(f.passage.key(), f.passage.content(), f.score));
+        }
+        return RetrievalResult.of(passages, timings);
+    }
+
+    private Future<Ranked> submit(Callable<Ranked> task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            // 대기열이 가득 찼거나 종료 중인 풀
+            return null;
+        }
+    }
+
+    private void accumulate(Map<String, Fused> fused, List<Passage> ranked) {
+        Set<String> seen = new HashSet<>();
+        int rank = 0;
+        for (Passage passage : ranked) {
+            if (!seen.add(passage.key())) {
+                continue;
+            }
+            rank++;
+            Fused entry = fused.computeIfAbsent(passage.key(), key -> new Fused(passage, fused.size()));
+            entry.score += 1.0 / (rrfK + rank);
+        }
+    }
+}
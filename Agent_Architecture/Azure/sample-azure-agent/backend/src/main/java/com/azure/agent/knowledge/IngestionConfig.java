@@ -0,0 +1,19 @@
+package com.azure.agent.knowledge;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * 지식 코퍼스 적재 설정
+ *
+ * @param paths            읽을 파일/디렉터리 (*.jsonl, *.md)
+ * @param chunkChars       Markdown 조각 하나의 목표 문자 수
+ * @param parallelism      색인 구성에 쓸 fork-join 스레드 수 (0이면 CPU 코어 수)
+ * @param segmentDirectory SegmentBuilder로 만든 세그먼트 디렉터리 (segment 검색기에서 사용, 없으면 null)
+ */
+public record IngestionConfig(List<Path> paths, int chunkChars, int parallelism, Path segmentDirectory) {
+
+    public IngestionConfig {
+        paths = List.copyOf(paths);
+    }
+}
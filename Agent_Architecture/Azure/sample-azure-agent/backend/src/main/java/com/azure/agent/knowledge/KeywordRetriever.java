@@ -0,0 +1,46 @@
+package com.azure.agent.knowledge;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 질의에 지식 키가 그대로 포함되어 있는지로 찾는 검색기 (Aho-Corasick)
+ *
+ * 긴 키 우선, 같은 길이면 질의에서 먼저 나온 순. 점수는 매칭된 키가 질의에서 차지하는 비율
+ */
+public final class KeywordRetriever implements Retriever {
+
+    public static final String NAME = "keyword";
+
+    private final KeywordMatcher<KnowledgeDocument> matcher;
+
+    public KeywordRetriever(List<KnowledgeDocument> documents) {
+        Map<String, KnowledgeDocument> byKey = new LinkedHashMap<>();
+        for (KnowledgeDocument document : documents) {
+            byKey.put(document.key(), document);
+        }
+        this.matcher = KeywordMatcher.compile(byKey);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<Passage> retrieve(String query, int topK) {
+        List<KeywordMatcher.Match<KnowledgeDocument>> matches = matcher.findAll(query);
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        int count = Math.min(topK, matches.size());
+        List<Passage> passages = new ArrayList<>(count);
+        for (KeywordMatcher.Match<KnowledgeDocument> match : matches.subList(0, count)) {
+            double score = Math.min(1.0, (double) match.length() / query.length());
+            passages.add(new Passage(match.value().key(), match.value().content(), score));
+        }
+        return passages;
+    }
+}
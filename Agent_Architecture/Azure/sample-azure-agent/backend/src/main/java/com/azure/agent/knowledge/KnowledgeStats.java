@@ -0,0 +1,15 @@
+package com.azure.agent.knowledge;
+
+import com.azure.agent.cache.CacheStats;
+
+/**
+ * 지식 검색 현황
+ *
+ * @param version      현재 게시된 색인 스냅샷 번호
+ * @param retriever    사용 중인 검색기
+ * @param documents    색인된 문서 수
+ * @param cacheEnabled 검색 결과 캐시 사용 여부
+ * @param cache        캐시 적중/축출 통계 (캐시를 끄면 null)
+ */
+public record KnowledgeStats(long version, String retriever, int documents, boolean cacheEnabled, CacheStats cache) {
+}
@@ -0,0 +1,11 @@
+package com.azure.agent.knowledge;
+
+/**
+ * 검색된 지식 한 건
+ *
+ * @param key     매칭된 지식 키 (인용 출처)
+ * @param content 지식 본문
+ * @param score   질의와의 관련도 (클수록 관련이 높음)
+ */
+public record Passage(String key, String content, double score) {
+}
@@ -0,0 +1,53 @@
+package com.azure.agent.knowledge;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 지식 검색 설정
+ *
+ * @param retriever          사용할 검색기 이름 (keyword, bm25, vector, segment, hybrid)
+ * @param topK               질의당 반환할 최대 지식 수
+ * @param bm25K1             BM25 빈도 포화 계수
+ * @param bm25B              BM25 문서 길이 정규화 강도
+ * @param vectorDimensions   해싱 임베딩 차원
+ * @param hnswM              HNSW 노드당 이웃 수 (클수록 재현율/메모리 증가)
+ * @param hnswEfConstruction HNSW 색인 시 후보 목록 크기
+ * @param hnswEfSearch       HNSW 검색 시 후보 목록 크기 (클수록 재현율/지연 증가)
+ * @param vectorMinScore     벡터 검색 결과로 인정할 최소 코사인 유사도
+ * @param hybridRetrievers   hybrid 검색기가 동시에 물을 검색기 이름
+ * @param hybridDeadline     hybrid 검색의 요청별 마감 (넘긴 검색기는 결과에서 제외)
+ * @param hybridQueue        hybrid 하위 검색 풀의 대기열 길이 (넘치면 그 검색기는 결과에서 제외)
+ * @param rrfK               Reciprocal Rank Fusion 순위 완화 상수
+ * @param cacheEnabled       정규화한 질의별 검색 결과 캐시 사용 여부
+ * @param cacheMaxEntries    캐시에 보관할 최대 질의 수
+ */
+public record RetrievalConfig(String retriever, int topK, double bm25K1, double bm25B,
+                              int vectorDimensions, int hnswM, int hnswEfConstruction, int hnswEfSearch,
+                              double vectorMinScore, List<String> hybridRetrievers, Duration hybridDeadline,
+                              int hybridQueue, int rrfK, boolean cacheEnabled, int cacheMaxEntries) {
+
+    public RetrievalConfig {
+        if (topK <= 0) {
+            throw new IllegalArgumentException("agent.kb.top-k는 0보다 커야 합니다");
+        }
+        hybridRetrievers = List.copyOf(hybridRetrievers);
+        if (HybridRetriever.NAME.equals(retriever)
+                && (hybridRetrievers.isEmpty() || hybridRetrievers.contains(HybridRetriever.NAME))) {
+            throw new IllegalArgumentException("agent.kb.hybrid.retrievers에는 hybrid가 아닌 검색기가 하나 이상 필요합니다");
+        }
+        if (hybridQueue < 0) {
+            throw new IllegalArgumentException("agent.kb.hybrid.queue는 0 이상이어야 합니다");
+        }
+        if (cacheEnabled && cacheMaxEntries <= 0) {
+            throw new IllegalArgumentException("agent.kb.cache.max-entries는 0보다 커야 합니다");
+        }
+    }
+
+    /**
+     * 단독으로든 hybrid의 일부로든 해당 검색기를 쓰는지 여부
+     */
+    public boolean uses(String name) {
+        return retriever.equals(name) || HybridRetriever.NAME.equals(retriever) && hybridRetrievers.contains(name);
+    }
+}
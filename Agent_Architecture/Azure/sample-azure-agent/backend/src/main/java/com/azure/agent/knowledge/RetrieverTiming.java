@@ -0,0 +1,27 @@
+package com.azure.agent.knowledge;
+
+/**
+ * 검색 한 번에서 검색기 하나가 쓴 시간과 결과
+ *
+ * @param retriever     검색기 이름 (캐시에서 바로 반환한 경우 "cache" 뒤에 처음 검색할 때의 기록이 이어짐)
+ * @param elapsedMillis 검색에 걸린 시간 (마감을 넘긴 경우 마감까지 기다린 시간)
+ * @param results       반환한 지식 수
+ * @param outcome       결과 반영 여부
+ */
+public record RetrieverTiming(String retriever, double elapsedMillis, int results, Outcome outcome) {
+
+    public enum Outcome {
+        /** 결과가 최종 순위에 반영됨 */
+        OK,
+        /** 요청별 마감을 넘겨 버려짐 */
+        TIMEOUT,
+        /** 검색 중 예외가 발생해 버려짐 */
+        FAILED,
+        /** 실행 스레드와 대기열이 가득 차 실행하지 못함 */
+        REJECTED
+    }
+
+    public static RetrieverTiming since(String retriever, long startedNanos, int results, Outcome outcome) {
+        return new RetrieverTiming(retriever, (System.nanoTime() - startedNanos) / 1e6, results, outcome);
+    }
+}
@@ -0,0 +1,168 @@
+package com.azure.agent.knowledge;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * 여러 불변 세그먼트를 하나의 BM25 색인처럼 검색하는 검색기 (불변, 스레드 안전)
+ *
+ * 문서 수, 평균 문서 길이, 문서 빈도는 모든 세그먼트를 합친 전역 통계를 써서 세그먼트 구성과 무관하게 점수가 같다.
+ * 세그먼트별 포스팅을 매핑된 페이지에서 바로 훑어 점수를 누적하고, 전역 문서 번호로 상위 k건을 고른다.
+ */
+public final class SegmentedIndex implements Retriever {
+
+    public static final String NAME = "segment";
+
+    private final List<IndexSegment> segments;
+    private final TextAnalyzer analyzer;
+    private final float k1;
+    private final float b;
+    private final int[] docBases;
+    private final int docCount;
+    private final float averageLength;
+
+    public SegmentedIndex(List<IndexSegment> segments, TextAnalyzer analyzer, double k1, double b) {
+        if (k1 < 0 || b < 0 || b > 1) {
+            throw new IllegalArgumentException("BM25 파라미터가 올바르지 않습니다: k1=" + k1 + ", b=" + b);
+        }
+        this.segments = List.copyOf(segments);
+        this.analyzer = analyzer;
+        this.k1 = (float) k1;
+        this.b = (float) b;
+        this.docBases = new int[this.segments.size()];
+        int base = 0;
+        long totalLength = 0;
+        for (int i = 0; i < this.segments.size(); i++) {
+            docBases[i] = base;
+            base = Math.addExact(base, this.segments.get(i).docCount());
+            totalLength += this.segments.get(i).totalLength();
+        }
+        this.docCount = base;
+        this.averageLength = base == 0 ? 1 : Math.max(1, (float) totalLength / base);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    public int documentCount() {
+        return docCount;
+    }
+
+    public List<IndexSegment> segments() {
+        return segments;
+    }
+
+    @Override
+    public List<Passage> retrieve(String query, int topK) {
+        if (docCount == 0 || topK <= 0) {
+            return List.of();
+        }
+        // 1. 질의어별 세그먼트 내 위치와 전역 문서 빈도 (문서 빈도의 합 = 훑을 포스팅 수)
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(analyzer.analyzeQuery(query)));
+        int[][] ordinals = new int[terms.size()][segments.size()];
+        int[] dfs = new int[terms.size()];
+        long postings = 0;
+        for (int t = 0; t < terms.size(); t++) {
+            byte[] bytes = terms.get(t).getBytes(StandardCharsets.UTF_8);
+            for (int s = 0; s < segments.size(); s++) {
+                ordinals[t][s] = segments.get(s).findTerm(bytes);
+                if (ordinals[t][s] >= 0) {
+                    dfs[t] += segments.get(s).docFreq(ordinals[t][s]);
+                }
+            }
+            postings += dfs[t];
+        }
+        if (postings == 0) {
+            return List.of();
+        }
+
+        // 2. 포스팅 수에 맞춘 희소 누적기에 점수를 모은다 (질의마다 문서 수 크기의 배열을 만들지 않음)
+        ScoreAccumulator scores = new ScoreAccumulator((int) Math.min(postings, docCount));
+        for (int t = 0; t < terms.size(); t++) {
+            if (dfs[t] == 0) {
+                continue;
+            }
+            float weight = (float) Math.log(1 + (docCount - dfs[t] + 0.5) / (dfs[t] + 0.5)) * (k1 + 1);
+            for (int s = 0; s < segments.size(); s++) {
+                if (ordinals[t][s] < 0) {
+                    continue;
+                }
+                IndexSegment segment = segments.get(s);
+                int start = segment.postingStart(ordinals[t][s]);
+                int size = segment.docFreq(ordinals[t][s]);
+                for (int i = 0; i < size; i++) {
+                    int local = segment.postingDoc(start, i);
+                    int freq = segment.postingFreq(start, i);
+                    float norm = k1 * (1 - b + b * segment.docLength(local) / averageLength);
+                    scores.add(docBases[s] + local, weight * freq / (freq + norm));
+                }
+            }
+        }
+
+        TopK top = new TopK(topK);
+        scores.offerTo(top);
+        float[] topScores = new float[top.size()];
+        int[] topDocs = top.drainDescending(topScores);
+        List<Passage> passages = new ArrayList<>(topDocs.length);
+        for (int i = 0; i < topDocs.length; i++) {
+            int s = segmentOf(topDocs[i]);
+            KnowledgeDocument document = segments.get(s).document(topDocs[i] - docBases[s]);
+            passages.add(new Passage(document.key(), document.content(), topScores[i]));
+        }
+        return passages;
+    }
+
+    private int segmentOf(int doc) {
+        int lo = 0;
+        int hi = docBases.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (docBases[mid] <= doc) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * 문서 번호별 누적 점수 (열린 주소법, 선형 탐사). 예상 문서 수의 두 배 이상인 2의 거듭제곱 크기로 잡아 재해싱이 없다
+     */
+    private static final class ScoreAccumulator {
+        /** 문서 번호 + 1 (0은 빈 칸) */
+        private final int[] docs;
+        private final float[] scores;
+        private final int mask;
+
+        ScoreAccumulator(int expectedDocs) {
+            int capacity = (int) Math.min(1 << 30, Long.highestOneBit(2L * Math.max(1, expectedDocs) - 1) << 1);
+            this.docs = new int[capacity];
+            this.scores = new float[capacity];
+            this.mask = capacity - 1;
+        }
+
+        void add(int doc, float score) {
+            int key = doc + 1;
+            int hash = key * 0x9E3779B9;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (docs[slot] != 0 && docs[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            docs[slot] = key;
+            scores[slot] += score;
+        }
+
+        void offerTo(TopK top) {
+            for (int i = 0; i < docs.length; i++) {
+                if (docs[i] != 0) {
+                    top.offer(docs[i] - 1, scores[i]);
+                }
+            }
+        }
+    }
+}
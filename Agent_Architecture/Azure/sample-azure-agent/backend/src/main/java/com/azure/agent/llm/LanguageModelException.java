@@ -0,0 +1,17 @@
+package com.azure.agent.llm;
+
+/**
+ * 모델 서버 호출 실패 (연결/HTTP 오류, 응답 형식 오류, 제한 시간 초과)
+ */
+public class LanguageModelException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LanguageModelException(String message) {
+        super(message);
+    }
+
+    public LanguageModelException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,46 @@
+package com.azure.agent.llm;
+
+import java.util.List;
+
+/**
+ * 응답 생성에 넘기는 입력 (질문, 세션 대화 기록, 검색한 지식, 도구 결과)
+ *
+ * @param message    사용자 질문
+ * @param context    컨텍스트 윈도우로 렌더링된 최근 대화 (없으면 빈 문자열)
+ * @param knowledge  검색된 지식 본문 (관련도 순)
+ * @param toolUsed   실행한 도구 이름 (없으면 null)
+ * @param toolOutput 도구가 렌더링한 결과 문장 (없으면 null)
+ */
+public record Prompt(String message, String context, List<String> knowledge, String toolUsed, String toolOutput) {
+
+    public Prompt {
+        context = context == null ? "" : context;
+        knowledge = knowledge == null ? List.of() : List.copyOf(knowledge);
+    }
+
+    public boolean hasToolOutput() {
+        return toolUsed != null && toolOutput != null;
+    }
+
+    /**
+     * 모델 서버에 보낼 단일 텍스트 프롬프트. 섹션 머리는 [..] 한 줄이며 빈 섹션은 생략한다
+     */
+    public String render() {
+        StringBuilder text = new StringBuilder(256 + message.length());
+        text.append("[지시]\n아래 참고 자료와 도구 결과를 근거로 질문에 한국어로 간결하게 답하세요.\n\n");
+        if (!context.isEmpty()) {
+            text.append("[대화 기록]\n").append(context).append("\n\n");
+        }
+        if (!knowledge.isEmpty()) {
+            text.append("[참고 자료]\n");
+            for (int i = 0; i < knowledge.size(); i++) {
+                text.append(i + 1).append(". ").append(knowledge.get(i)).append('\n');
+            }
+            text.append('\n');
+        }
+        if (hasToolOutput()) {
+            text.append("[도구 결과: ").append(toolUsed).append("]\n").append(toolOutput).append("\n\n");
+        }
+        return text.append("[질문]\n").append(message).toString();
+    }
+}
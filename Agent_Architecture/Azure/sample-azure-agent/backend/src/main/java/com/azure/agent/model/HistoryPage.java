@@ -0,0 +1,24 @@
+package com.azure.agent.model;
+
+import com.azure.agent.session.ConversationTurn;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 세션 히스토리 한 페이지 (nextCursor를 다음 요청의 cursor로 넘기면 이어서 조회)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoryPage {
+    private String sessionId;
+    private List<ConversationTurn> turns;
+    private long cursor;
+    private Long nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,69 @@
+package com.azure.agent.routing;
+
+/**
+ * 정규식 \d+\s*[+\-*&#47;%^]\s*\d+ 를 문자열 어디에서든 찾는 DFA
+ *
+ * String.matches(".*...*")는 호출마다 Pattern을 컴파일하고 앞뒤 ".*"로 되추적하지만,
+ * 이 DFA는 문자 분류와 상태 전이 표만으로 질의를 한 번 훑고 첫 일치에서 멈춘다.
+ */
+final class ArithmeticScanner {
+
+    static final String NAME = "arithmetic";
+
+    private static final int OTHER = 0;
+    private static final int DIGIT = 1;
+    private static final int SPACE = 2;
+    private static final int OPERATOR = 3;
+
+    private static final int START = 0;
+    private static final int ACCEPT = 4;
+
+    private static final int CLASSES = 4;
+
+    /**
+     * [상태 * CLASSES + 문자 분류] → 다음 상태
+     * 0: 시작, 1: 숫자 안, 2: 숫자 뒤 공백, 3: 연산자(와 공백) 뒤, 4: 일치
+     */
+    private static final byte[] TRANSITIONS = {
+            START, 1, START, START,
+            START, 1, 2, 3,
+            START, 1, 2, 3,
+            START, ACCEPT, 3, START,
+    };
+
+    /** ASCII 문자 분류 표 (그 밖의 문자는 모두 OTHER) */
+    private static final byte[] ASCII_CLASSES = new byte[128];
+
+    static {
+        for (char c = '0'; c <= '9'; c++) {
+            ASCII_CLASSES[c] = DIGIT;
+        }
+        for (char c : new char[]{' ', '\t', '\n', '\u000B', '\f', '\r'}) {
+            ASCII_CLASSES[c] = SPACE;
+        }
+        for (char c : new char[]{'+', '-', '*', '/', '%', '^'}) {
+            ASCII_CLASSES[c] = OPERATOR;
+        }
+    }
+
+    private ArithmeticScanner() {
+    }
+
+    static boolean find(CharSequence text) {
+        int state = START;
+        for (int i = 0; i < text.length(); i++) {
+            state = TRANSITIONS[state * CLASSES + classify(text.charAt(i))];
+            if (state == ACCEPT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 정규식 기본 모드와 같은 문자 분류 (\d는 ASCII 숫자, \s는 [ \t\n\x0B\f\r])
+     */
+    private static int classify(char c) {
+        return c < ASCII_CLASSES.length ? ASCII_CLASSES[c] : OTHER;
+    }
+}
@@ -0,0 +1,116 @@
+package com.azure.agent.routing;
+
+import com.azure.agent.knowledge.KeywordMatcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 라우팅 규칙을 미리 컴파일한 의도 라우터 (불변, 스레드 안전)
+ *
+ * 모든 규칙의 문구는 Aho-Corasick 오토마톤 하나로, 패턴은 DFA로 컴파일되므로
+ * 질의를 훑는 비용은 규칙/도구 수와 무관하게 질의 길이에 비례한다.
+ * 여러 도구가 걸리면 우선순위, 신뢰도, 규칙 순서로 하나를 고른다.
+ */
+public final class IntentRouter {
+
+    private final List<RouteRule> rules;
+    private final KeywordMatcher<int[]> phrases;
+    private final int[] arithmeticRules;
+
+    public static IntentRouter compile(List<RouteRule> rules) {
+        return new IntentRouter(rules);
+    }
+
+    private IntentRouter(List<RouteRule> rules) {
+        this.rules = List.copyOf(rules);
+        Map<String, int[]> phraseRules = new LinkedHashMap<>();
+        int[] arithmetic = new int[0];
+        for (int r = 0; r < this.rules.size(); r++) {
+            RouteRule rule = this.rules.get(r);
+            for (String phrase : rule.phrases()) {
+                int[] owners = phraseRules.getOrDefault(phrase.toLowerCase(), new int[0]);
+                if (owners.length == 0 || owners[owners.length - 1] != r) {
+                    owners = Arrays.copyOf(owners, owners.length + 1);
+                    owners[owners.length - 1] = r;
+                }
+                phraseRules.put(phrase.toLowerCase(), owners);
+            }
+            for (String pattern : rule.patterns()) {
+                if (!ArithmeticScanner.NAME.equals(pattern)) {
+                    throw new IllegalArgumentException("지원하지 않는 라우팅 패턴: " + pattern);
+                }
+                arithmetic = Arrays.copyOf(arithmetic, arithmetic.length + 1);
+                arithmetic[arithmetic.length - 1] = r;
+            }
+        }
+        this.phrases = KeywordMatcher.compile(phraseRules);
+        this.arithmeticRules = arithmetic;
+    }
+
+    public List<RouteRule> rules() {
+        return rules;
+    }
+
+    /**
+     * 질의에 맞는 도구 선택 (걸린 규칙이 없으면 IntentRoute.none())
+     */
+    public IntentRoute route(CharSequence message) {
+        if (message == null || rules.isEmpty()) {
+            return IntentRoute.none();
+        }
+        int[] hits = new int[rules.size()];
+        // 걸린 문구의 키 번호 (트리거 목록용, 일치마다 객체를 만들지 않도록 int 배열에 모음)
+        int[][] matched = {new int[8]};
+        int[] matchCount = new int[1];
+        phrases.scanKeys(message, (key, end) -> {
+            for (int r : phrases.value(key)) {
+                hits[r]++;
+            }
+            if (matchCount[0] == matched[0].length) {
+                matched[0] = Arrays.copyOf(matched[0], matchCount[0] * 2);
+            }
+            matched[0][matchCount[0]++] = key;
+        });
+        boolean arithmetic = arithmeticRules.length > 0 && ArithmeticScanner.find(message);
+        if (arithmetic) {
+            for (int r : arithmeticRules) {
+                hits[r]++;
+            }
+        }
+
+        int best = -1;
+        double bestConfidence = 0;
+        for (int r = 0; r < rules.size(); r++) {
+            if (hits[r] == 0) {
+                continue;
+            }
+            double confidence = 1 - Math.pow(1 - rules.get(r).confidence(), hits[r]);
+            if (best < 0 || rules.get(r).priority() > rules.get(best).priority()
+                    || rules.get(r).priority() == rules.get(best).priority() && confidence > bestConfidence) {
+                best = r;
+                bestConfidence = confidence;
+            }
+        }
+        if (best < 0) {
+            return IntentRoute.none();
+        }
+
+        List<String> triggers = new ArrayList<>(hits[best]);
+        for (int m = 0; m < matchCount[0]; m++) {
+            int key = matched[0][m];
+            for (int r : phrases.value(key)) {
+                if (r == best) {
+                    triggers.add(phrases.key(key));
+                }
+            }
+        }
+        if (arithmetic && Arrays.binarySearch(arithmeticRules, best) >= 0) {
+            triggers.add(ArithmeticScanner.NAME);
+        }
+        return new IntentRoute(rules.get(best).tool(), bestConfidence, triggers);
+    }
+}
@@ -1,20 +1,124 @@
 package com.azure.agent.service;
 
+import com.azure.agent.cache.TinyLfuCache;
+import com.azure.agent.knowledge.Bm25Index;
+import com.azure.agent.knowledge.CorpusReader;
+import com.azure.agent.knowledge.HashingEmbedder;
+import com.azure.agent.knowledge.HnswIndex;
+import com.azure.agent.knowledge.HybridRetriever;
+import com.azure.agent.knowledge.IndexSegment;
+import com.azure.agent.knowledge.IngestionConfig;
+import com.azure.agent.knowledge.IngestionReport;
+import com.azure.agent.knowledge.KeywordRetriever;
+import com.azure.agent.knowledge.KnowledgeDocument;
+import com.azure.agent.knowledge.KnowledgeIndex;
+import com.azure.agent.knowledge.KnowledgeStats;
+import com.azure.agent.knowledge.RetrievalConfig;
+import com.azure.agent.knowledge.RetrievalResult;
+import com.azure.agent.knowledge.RetrieverTiming;
+import com.azure.agent.knowledge.SegmentBuilder;
+import com.azure.agent.knowledge.SegmentWriter;
+import com.azure.agent.knowledge.SegmentedIndex;
+import com.azure.agent.knowledge.Retriever;
+import com.azure.agent.knowledge.TextAnalyzer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Azure AI Search 기반 RAG를 단순 모킹한 인메모리 Knowledge Base
+ *
+ * 검색기는 agent.kb.retriever로 고른다.
+ * - keyword: 질의에 지식 키가 그대로 포함된 경우만 찾음 (Aho-Corasick)
+ * - bm25: 한글 bigram/영문 단어 역색인과 BM25 점수로 순위를 매김 ("애저 함수" → functions)
+ * - vector: 해싱 임베딩 + HNSW 근사 최근접 검색 (외부 서비스 없이 벡터 검색)
+ * - segment: SegmentBuilder로 미리 만든 메모리 맵 세그먼트 + 기본 지식을 전역 BM25 통계로 함께 검색
+ * - hybrid: agent.kb.hybrid.retrievers를 동시에 검색해 RRF로 합침 (마감을 넘긴 검색기는 제외)
+ * 기본 지식에 더해 agent.kb.ingest.paths의 JSONL/Markdown 코퍼스를 적재할 수 있다.
+ * 지식이 바뀌면 색인 스냅샷(KnowledgeIndex)을 fork-join으로 새로 만든 뒤 참조만 바꿔 끼우므로,
+ * 검색은 락 없이 항상 완성된 한 버전만 본다.
+ * 반복되는 질의는 정규화한 질의와 색인 버전을 키로 W-TinyLFU 캐시에서 바로 돌려준다(agent.kb.cache.*).
  */
+@Slf4j
 @Service
 public class KnowledgeBaseService {
 
+    /** 캐시 적중 시 검색기 소요 시간에 표시할 이름 */
+    private static final String CACHE_TIMING = "cache";
+
     private final Map<String, String> knowledgeBase;
 
-    public KnowledgeBaseService() {
-        this.knowledgeBase = new HashMap<>();
+    private final Map<String, String> aliases;
+
+    private final RetrievalConfig config;
+
+    private final TextAnalyzer analyzer;
+
+    private final IngestionConfig ingestionConfig;
+
+    private final CorpusReader corpusReader;
+
+    private final ForkJoinPool indexPool;
+
+    /** hybrid 검색기가 하위 검색기를 동시에 실행하는 풀 (hybrid가 아니면 null) */
+    private final ExecutorService hybridExecutor;
+
+    /** segment 검색기에서 쓰는 오프라인 세그먼트 (기동 시 한 번 매핑) */
+    private final List<IndexSegment> mappedSegments;
+
+    /** 코퍼스에서 적재한 문서 (변경은 synchronized 안에서만) */
+    private List<KnowledgeDocument> ingested = List.of();
+
+    private long version;
+
+    private volatile KnowledgeIndex index;
+
+    /** 검색 결과 캐시 (agent.kb.cache.enabled=false이면 null) */
+    private final TinyLfuCache<CacheKey, RetrievalResult> cache;
+
+    /**
+     * 캐시 키. 색인 버전을 포함해 재색인 전 결과가 새 색인에서 재사용되지 않도록 한다
+     */
+    private record CacheKey(long version, String query) {
+    }
+
+    public KnowledgeBaseService(RetrievalConfig config, IngestionConfig ingestionConfig, ObjectMapper objectMapper)
+            throws IOException {
+        this.config = config;
+        this.ingestionConfig = ingestionConfig;
+        this.corpusReader = new CorpusReader(objectMapper, ingestionConfig.chunkChars());
+        this.indexPool = ingestionConfig.parallelism() > 0
+                ? new ForkJoinPool(ingestionConfig.parallelism())
+                : new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        this.cache = config.cacheEnabled() ? new TinyLfuCache<>(config.cacheMaxEntries()) : null;
+        this.hybridExecutor = HybridRetriever.NAME.equals(config.retriever())
+                ? newHybridExecutor(config.hybridRetrievers().size(), config.hybridQueue())
+                : null;
+        this.mappedSegments = config.uses(SegmentedIndex.NAME)
+                ? openSegments(ingestionConfig.segmentDirectory())
+                : List.of();
+        this.knowledgeBase = new LinkedHashMap<>();
+        this.aliases = new LinkedHashMap<>();
         initializeKnowledgeBase();
+        this.analyzer = new TextAnalyzer(aliases);
+        rebuild();
     }
 
     private void initializeKnowledgeBase() {
@@ -24,36 +128,280 @@ public class KnowledgeBaseService {
         knowledgeBase.put("functions", "Azure Functions는 서버리스 함수 실행 환경으로, HTTP 트리거 등을 이용해 코드를 실행할 수 있습니다.");
         knowledgeBase.put("logic apps", "Azure Logic Apps는 워크플로우 오케스트레이션을 위한 서버리스 서비스입니다.");
         knowledgeBase.put("rag", "RAG는 Retrieval-Augmented Generation으로, 검색된 지식을 프롬프트에 합쳐 더 정확한 응답을 생성하는 패턴입니다.");
+
+        // 한글 표기로 물어도 영문 용어를 찾을 수 있도록 (bm25 질의 확장)
+        aliases.put("애저", "azure");
+        aliases.put("오픈ai", "openai");
+        aliases.put("함수", "functions");
+        aliases.put("로직 앱", "logic apps");
+        aliases.put("검색 증강", "rag retrieval augmented generation");
+    }
+
+    /**
+     * 기동 시 설정된 코퍼스 적재
+     */
+    @PostConstruct
+    public void loadCorpus() {
+        if (ingestionConfig.paths().isEmpty()) {
+            return;
+        }
+        try {
+            reload();
+        } catch (IOException e) {
+            throw new IllegalStateException("지식 코퍼스 적재 실패: " + ingestionConfig.paths(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexPool.shutdown();
+        if (hybridExecutor != null) {
+            hybridExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 설정된 코퍼스를 다시 읽어 새 색인 스냅샷을 게시 (게시 전까지 검색은 이전 스냅샷을 사용)
+     */
+    public synchronized IngestionReport reload() throws IOException {
+        List<MemoryPoolMXBean> heapPools = heapPools();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long started = System.nanoTime();
+
+        List<KnowledgeDocument> documents = new ArrayList<>();
+        int files = 0;
+        for (Path path : ingestionConfig.paths()) {
+            files += corpusReader.read(path, documents::add);
+        }
+        long read = System.nanoTime();
+
+        this.ingested = List.copyOf(documents);
+        KnowledgeIndex published = rebuild();
+        long finished = System.nanoTime();
+
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peakHeap += pool.getPeakUsage().getUsed();
+        }
+        int total = published.documents().size();
+        IngestionReport report = new IngestionReport(
+                published.version(),
+                published.retriever().name(),
+                files,
+                total,
+                (read - started) / 1_000_000,
+                (finished - read) / 1_000_000,
+                total / Math.max((finished - started) / 1e9, 1e-9),
+                peakHeap);
+        log.info("지식 코퍼스 적재 완료: {}", report);
+        return report;
+    }
+
+    /**
+     * 현재 게시된 색인 스냅샷
+     */
+    public KnowledgeIndex currentIndex() {
+        return index;
+    }
+
+    /**
+     * 색인과 검색 결과 캐시 현황
+     */
+    public KnowledgeStats stats() {
+        KnowledgeIndex current = index;
+        return new KnowledgeStats(current.version(), current.retriever().name(), current.documents().size(),
+                cache != null, cache != null ? cache.stats() : null);
+    }
+
+    /**
+     * 지식 추가/갱신 (키는 소문자로 저장)
+     */
+    public synchronized void putKnowledge(String key, String content) {
+        knowledgeBase.put(key.toLowerCase(), content);
+        rebuild();
     }
 
     /**
-     * 간단한 키워드 매칭 기반 검색
+     * 여러 지식을 한 번에 추가 (검색기는 마지막에 한 번만 재구성)
      */
+    public synchronized void putAllKnowledge(Map<String, String> entries) {
+        entries.forEach((key, content) -> knowledgeBase.put(key.toLowerCase(), content));
+        rebuild();
+    }
+
+    public synchronized boolean removeKnowledge(String key) {
+        boolean removed = knowledgeBase.remove(key.toLowerCase()) != null;
+        if (removed) {
+            rebuild();
+        }
+        return removed;
+    }
+
+    /**
+     * 지식 검색 (한 번의 검색으로 본문, 인용, 점수와 검색기별 소요 시간을 함께 반환)
+     */
+    public RetrievalResult retrieve(String query) {
+        KnowledgeIndex current = index;
+        if (cache == null) {
+            return current.retriever().search(query, config.topK());
+        }
+        long started = System.nanoTime();
+        CacheKey key = new CacheKey(current.version(), normalize(query));
+        RetrievalResult cached = cache.get(key);
+        if (cached != null) {
+            // 캐시 조회 시간을 앞에 두고, 결과를 만들 때의 검색기별 기록(outcome)은 그대로 전달
+            List<RetrieverTiming> timings = new ArrayList<>(cached.timings().size() + 1);
+            timings.add(RetrieverTiming.since(
+                    CACHE_TIMING, started, cached.passages().size(), RetrieverTiming.Outcome.OK));
+            timings.addAll(cached.timings());
+            return cached.withTimings(timings);
+        }
+        RetrievalResult result = current.retriever().search(query, config.topK());
+        if (isCacheable(result)) {
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * 모든 검색기가 마감 안에 정상 완료한 결과만 캐시한다. 시간 초과/실패로 일부가 빠진 결과나
+     * 요청 마감으로 취소(인터럽트)되어 비어 버린 결과를 다음 재색인까지 고정하지 않기 위함
+     */
+    private static boolean isCacheable(RetrievalResult result) {
+        if (Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        for (RetrieverTiming timing : result.timings()) {
+            if (timing.outcome() != RetrieverTiming.Outcome.OK) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public List<String> search(String query) {
-        List<String> results = new ArrayList<>();
-        String lower = query.toLowerCase();
+        return retrieve(query).contents();
+    }
+
+    public List<String> getCitations(String query) {
+        return retrieve(query).citations();
+    }
 
-        for (Map.Entry<String, String> entry : knowledgeBase.entrySet()) {
-            if (lower.contains(entry.getKey())) {
-                results.add(entry.getValue());
+    private KnowledgeIndex rebuild() {
+        List<KnowledgeDocument> documents = new ArrayList<>(knowledgeBase.size() + ingested.size());
+        knowledgeBase.forEach((key, content) -> documents.add(new KnowledgeDocument(key, content)));
+        documents.addAll(ingested);
+        KnowledgeIndex rebuilt = new KnowledgeIndex(++version, documents, createRetriever(config.retriever(), documents));
+        this.index = rebuilt;
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+        return rebuilt;
+    }
+
+    /**
+     * 캐시 키용 질의 정규화: 소문자로 바꾸고 문자/숫자가 아닌 구간은 공백 하나로 접는다
+     * ("What is Lambda?" == "what is  lambda")
+     */
+    static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(query.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < query.length(); ) {
+            int codePoint = query.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isLetterOrDigit(codePoint)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                pendingSpace = false;
+                normalized.appendCodePoint(Character.toLowerCase(codePoint));
+            } else {
+                pendingSpace = true;
             }
         }
-        return results;
+        return normalized.toString();
+    }
+
+    private Retriever createRetriever(String name, List<KnowledgeDocument> documents) {
+        return switch (name) {
+            case KeywordRetriever.NAME -> new KeywordRetriever(documents);
+            case Bm25Index.NAME -> new Bm25Index(documents, analyzer, config.bm25K1(), config.bm25B(), indexPool);
+            case SegmentedIndex.NAME -> {
+                List<IndexSegment> segments = new ArrayList<>(mappedSegments);
+                segments.add(inMemorySegment(documents));
+                yield new SegmentedIndex(segments, analyzer, config.bm25K1(), config.bm25B());
+            }
+            case HnswIndex.NAME -> new HnswIndex(documents, new HashingEmbedder(analyzer, config.vectorDimensions()),
+                    config.hnswM(), config.hnswEfConstruction(), config.hnswEfSearch(), config.vectorMinScore(), indexPool);
+            case HybridRetriever.NAME -> {
+                List<Retriever> members = new ArrayList<>();
+                for (String member : config.hybridRetrievers()) {
+                    members.add(createRetriever(member, documents));
+                }
+                yield new HybridRetriever(members, hybridExecutor, config.hybridDeadline(), config.rrfK());
+            }
+            default -> throw new IllegalArgumentException("알 수 없는 agent.kb.retriever: " + name);
+        };
     }
 
     /**
-     * 인용 정보 생성
+     * hybrid 하위 검색 풀. 요청마다 검색기 수만큼 작업이 들어오므로 코어 수 × 검색기 수로 잡는다.
+     * 대기열이 차면 거절하고, 거절된 검색기는 그 요청의 결과에서 빠진다
      */
-    public List<String> getCitations(String query) {
-        List<String> citations = new ArrayList<>();
-        String lower = query.toLowerCase();
+    private static ExecutorService newHybridExecutor(int retrievers, int queue) {
+        int threads = Runtime.getRuntime().availableProcessors() * retrievers;
+        AtomicInteger sequence = new AtomicInteger();
+        BlockingQueue<Runnable> backlog = queue == 0 ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(queue);
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, backlog, r -> {
+            Thread thread = new Thread(r, "kb-hybrid-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 
-        for (String key : knowledgeBase.keySet()) {
-            if (lower.contains(key)) {
-                citations.add("Knowledge Base: " + key);
+    /**
+     * 힙 메모리 풀 (풀별 최대 사용량의 합으로 적재 중 최대 힙 사용량을 추정)
+     */
+    private static List<MemoryPoolMXBean> heapPools() {
+        List<MemoryPoolMXBean> pools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pools.add(pool);
             }
         }
-        return citations;
+        return pools;
     }
-}
 
+    /**
+     * 기본/적재 지식을 세그먼트 형식의 힙 버퍼로 만들어 오프라인 세그먼트와 같은 방식으로 검색
+     */
+    private IndexSegment inMemorySegment(List<KnowledgeDocument> documents) {
+        SegmentWriter writer = new SegmentWriter(TextAnalyzer.standard());
+        documents.forEach(writer::add);
+        try {
+            return new IndexSegment("memory", writer.toBuffer());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<IndexSegment> openSegments(Path directory) throws IOException {
+        if (directory == null) {
+            return List.of();
+        }
+        long started = System.nanoTime();
+        List<IndexSegment> segments = new ArrayList<>();
+        long documents = 0;
+        for (Path file : SegmentBuilder.listSegments(directory)) {
+            IndexSegment segment = IndexSegment.open(file);
+            segments.add(segment);
+            documents += segment.docCount();
+        }
+        log.info("색인 세그먼트 {}개 매핑 완료: 문서 {}건, {}ms", segments.size(), documents,
+                (System.nanoTime() - started) / 1_000_000);
+        return segments;
+    }
+}
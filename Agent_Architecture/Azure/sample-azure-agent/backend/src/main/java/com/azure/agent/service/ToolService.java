@@ -1,116 +1,158 @@
 package com.azure.agent.service;
 
+import com.azure.agent.routing.IntentRoute;
+import com.azure.agent.routing.IntentRouter;
+import com.azure.agent.routing.RouteRule;
+import com.azure.agent.tool.CachePolicy;
+import com.azure.agent.tool.FallbackReason;
+import com.azure.agent.tool.Tool;
+import com.azure.agent.tool.ToolExecutor;
+import com.azure.agent.tool.ToolRegistry;
+import com.azure.agent.tool.ToolResultCache;
+import com.azure.agent.tool.ToolStats;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
- * Azure Functions 기반 함수 호출(Function Calling)을 모킹한 도구 서비스
+ * 도구(Tools) 서비스 - 실제 Action Groups 역할
+ * 
+ * 도구는 Tool 구현 빈으로 등록되며 ToolRegistry의 이름 조회 표로 실행/응답 생성을 위임한다.
+ * 실행은 ToolExecutor가 도구별 벌크헤드/시간 제한/서킷 브레이커 안에서 하며, 실패 시 도구의 대체 결과를 돌려준다.
+ * 순수/TTL 도구의 성공 결과는 해석한 인자 기준으로 ToolResultCache에 보관해 같은 인자의 재실행을 건너뛴다.
+ * 도구 선택은 미리 컴파일한 IntentRouter가 맡는다. 규칙은 각 도구가 선언한 기본 규칙을 쓰거나
+ * agent.routing.rules-file(JSON)로 바꿀 수 있고, reloadRoutes()로 재배포 없이 다시 읽는다.
  */
+@Slf4j
 @Service
 public class ToolService {
 
-    public enum Tool {
-        CALCULATOR("calculator", "계산기 - 수학 연산 수행"),
-        WEATHER("weather", "날씨 조회 - 모킹 데이터"),
-        TIME("time", "현재 시간 조회"),
-        NONE("none", "도구 사용 없음");
+    private final ToolRegistry registry;
 
-        private final String name;
-        private final String description;
+    private final ToolExecutor executor;
 
-        Tool(String name, String description) {
-            this.name = name;
-            this.description = description;
-        }
+    private final ToolResultCache resultCache;
 
-        public String getName() {
-            return name;
-        }
+    private final ObjectMapper objectMapper;
 
-        public String getDescription() {
-            return description;
-        }
+    /** 라우팅 규칙 파일 (null이면 도구별 기본 규칙) */
+    private final Path routingRulesFile;
+
+    private volatile IntentRouter router;
+
+    public ToolService(ToolRegistry registry, ToolExecutor executor, ToolResultCache resultCache,
+                       ObjectMapper objectMapper,
+                       @Value("${agent.routing.rules-file:}") String routingRulesFile) throws IOException {
+        this.registry = registry;
+        this.executor = executor;
+        this.resultCache = resultCache;
+        this.objectMapper = objectMapper;
+        this.routingRulesFile = routingRulesFile.isBlank() ? null : Path.of(routingRulesFile.trim());
+        this.router = IntentRouter.compile(loadRouteRules());
     }
 
     /**
-     * 간단한 의도 파악으로 사용할 도구 결정
+     * 라우팅 규칙을 다시 읽어 교체 (읽기/검증에 실패하면 기존 규칙 유지)
      */
-    public Tool determineTool(String message) {
-        String lower = message.toLowerCase();
-
-        if (lower.matches(".*\\d+\\s*[+\\-*/]\\s*\\d+.*") ||
-                lower.contains("계산") || lower.contains("더하기") ||
-                lower.contains("빼기") || lower.contains("곱하기") ||
-                lower.contains("나누기")) {
-            return Tool.CALCULATOR;
-        }
-        if (lower.contains("날씨") || lower.contains("기온")) {
-            return Tool.WEATHER;
-        }
-        if (lower.contains("시간") || lower.contains("몇 시")) {
-            return Tool.TIME;
-        }
-        return Tool.NONE;
+    public synchronized List<RouteRule> reloadRoutes() throws IOException {
+        IntentRouter reloaded = IntentRouter.compile(loadRouteRules());
+        this.router = reloaded;
+        log.info("라우팅 규칙 {}개 적용", reloaded.rules().size());
+        return reloaded.rules();
+    }
+
+    /**
+     * 메시지에 맞는 도구와 신뢰도
+     */
+    public IntentRoute route(String message) {
+        return router.route(message);
     }
 
-    public Map<String, Object> executeCalculator(String message) {
-        Map<String, Object> result = new HashMap<>();
-
-        Pattern pattern = Pattern.compile("(\\d+)\\s*([+\\-*/])\\s*(\\d+)");
-        Matcher matcher = pattern.matcher(message);
-
-        if (matcher.find()) {
-            try {
-                double n1 = Double.parseDouble(matcher.group(1));
-                String op = matcher.group(2);
-                double n2 = Double.parseDouble(matcher.group(3));
-                double out = 0;
-
-                switch (op) {
-                    case "+" -> out = n1 + n2;
-                    case "-" -> out = n1 - n2;
-                    case "*" -> out = n1 * n2;
-                    case "/" -> {
-                        if (n2 == 0) {
-                            result.put("error", "0으로 나눌 수 없습니다");
-                            return result;
-                        }
-                        out = n1 / n2;
-                    }
-                }
-
-                result.put("result", out);
-                result.put("expression", n1 + " " + op + " " + n2);
-            } catch (Exception e) {
-                result.put("error", "계산 중 오류가 발생했습니다: " + e.getMessage());
+    /**
+     * 이름으로 도구 실행. 캐시에 같은 인자의 유효한 결과가 있으면 재사용하고,
+     * 없으면 도구 전용 스레드에서 실행해 Tool.timeout()까지만 기다림
+     */
+    public Map<String, Object> execute(String toolName, String message) {
+        Tool tool = require(toolName);
+        String cacheKey = resultCache.keyFor(tool, message);
+        if (cacheKey != null) {
+            Map<String, Object> cached = resultCache.get(tool, cacheKey);
+            if (cached != null) {
+                return cached;
             }
-        } else {
-            result.put("error", "계산식을 찾을 수 없습니다. 예: '5 + 3'");
+        }
+        Map<String, Object> result = executor.execute(tool, message);
+        if (cacheKey != null) {
+            resultCache.put(tool, cacheKey, result);
         }
         return result;
     }
 
-    public Map<String, Object> executeWeather(String message) {
-        Map<String, Object> result = new HashMap<>();
-        result.put("location", "서울 (샘플)");
-        result.put("temperature", "18°C");
-        result.put("condition", "부분적으로 흐림");
-        result.put("note", "실제 Azure Functions/외부 API 대신 모킹 데이터입니다.");
-        return result;
+    /**
+     * 결과가 입력만으로 정해지는(PURE) 도구면 도구가 해석한 인자, 아니면 null (시간/날씨처럼 시점에 따라 결과가 바뀌는 도구)
+     */
+    public String pureArgumentKey(String toolName, String message) {
+        Tool tool = require(toolName);
+        return tool.cachePolicy() == CachePolicy.PURE ? tool.cacheKey(message) : null;
     }
 
-    public Map<String, Object> executeTime(String message) {
-        Map<String, Object> result = new HashMap<>();
-        LocalDateTime now = LocalDateTime.now();
-        result.put("currentTime", now.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-        result.put("timezone", "Asia/Seoul");
-        return result;
+    /**
+     * 도구를 실행하지 못했을 때(요청 마감 초과 등) 응답에 쓸 대체 결과
+     */
+    public Map<String, Object> fallback(String toolName, FallbackReason reason) {
+        return require(toolName).fallback(reason);
+    }
+
+    /**
+     * 도구별 실행 현황 (결과 캐시 적중률, 서킷 브레이커 상태, 벌크헤드 점유, 실패/시간 초과/거절 횟수)
+     */
+    public List<ToolStats> stats() {
+        return executor.stats().stream()
+                .map(stats -> stats.withCache(resultCache.stats(stats.tool())))
+                .toList();
+    }
+
+    /**
+     * 도구 실행 결과를 응답 문장으로 변환 (실패 결과는 오류 안내)
+     */
+    public String render(String toolName, Map<String, Object> result) {
+        if (result.containsKey("error")) {
+            return "죄송합니다. " + result.get("error");
+        }
+        return require(toolName).render(result);
     }
-}
 
+    private Tool require(String toolName) {
+        Tool tool = registry.get(toolName);
+        if (tool == null) {
+            throw new IllegalArgumentException("등록되지 않은 도구: " + toolName);
+        }
+        return tool;
+    }
+
+    private List<RouteRule> loadRouteRules() throws IOException {
+        if (routingRulesFile == null) {
+            return registry.routes();
+        }
+        List<RouteRule> rules;
+        try (InputStream in = Files.newInputStream(routingRulesFile)) {
+            rules = objectMapper.readValue(in, new TypeReference<List<RouteRule>>() {
+            });
+        }
+        for (RouteRule rule : rules) {
+            if (registry.get(rule.tool()) == null) {
+                throw new IllegalArgumentException("알 수 없는 도구의 라우팅 규칙: " + rule.tool());
+            }
+        }
+        return rules;
+    }
+}
@@ -0,0 +1,107 @@
+package com.azure.agent.session;
+
+import java.util.Arrays;
+
+/**
+ * 최근 대화를 프롬프트용 텍스트로 미리 렌더링해 두는 롤링 컨텍스트 윈도우
+ *
+ * 턴이 추가될 때마다(세션 쓰기 락 아래) 앞쪽 턴을 잘라 내며 턴 수와 문자 수 상한을 함께 지키고,
+ * 읽기는 이미 만들어진 문자열을 그대로 돌려준다.
+ */
+public class ContextWindow {
+
+    private static final View EMPTY = new View("", new int[0]);
+
+    private final int maxTurns;
+    private final int maxChars;
+    private volatile View view = EMPTY;
+
+    /**
+     * 렌더링된 텍스트와 각 턴의 시작 위치
+     */
+    private record View(String text, int[] offsets) {
+
+        long estimatedBytes() {
+            return 56 + 2L * text.length() + 16 + 4L * offsets.length;
+        }
+    }
+
+    public ContextWindow(int maxTurns, int maxChars) {
+        if (maxTurns <= 0 || maxChars <= 0) {
+            throw new IllegalArgumentException("컨텍스트 윈도우 상한은 0보다 커야 합니다");
+        }
+        this.maxTurns = maxTurns;
+        this.maxChars = maxChars;
+    }
+
+    /**
+     * 턴을 윈도우 끝에 붙이고 가중치(바이트 추정치) 변화량을 반환 (호출 측이 쓰기 락 보유)
+     */
+    long append(ConversationTurn turn) {
+        String segment = format(turn);
+        if (segment.length() > maxChars) {
+            segment = segment.substring(segment.length() - maxChars);
+        }
+
+        View current = view;
+        String text = current.text();
+        int[] offsets = current.offsets();
+        int count = offsets.length;
+
+        int drop = 0;
+        while (drop < count) {
+            int keptChars = text.length() - offsets[drop] + segment.length();
+            if (count - drop + 1 <= maxTurns && keptChars <= maxChars) {
+                break;
+            }
+            drop++;
+        }
+
+        int start = drop < count ? offsets[drop] : text.length();
+        int kept = count - drop;
+        int[] nextOffsets = Arrays.copyOfRange(offsets, drop, count + 1);
+        for (int i = 0; i < kept; i++) {
+            nextOffsets[i] -= start;
+        }
+        nextOffsets[kept] = text.length() - start;
+
+        String nextText = new StringBuilder(text.length() - start + segment.length())
+                .append(text, start, text.length())
+                .append(segment)
+                .toString();
+
+        View next = new View(nextText, nextOffsets);
+        view = next;
+        return next.estimatedBytes() - current.estimatedBytes();
+    }
+
+    /**
+     * 윈도우 전체 렌더링 결과
+     */
+    public String render() {
+        return view.text();
+    }
+
+    /**
+     * 윈도우 안의 최근 count개 턴만 렌더링 (윈도우보다 많이 요청하면 윈도우 전체)
+     */
+    public String renderRecent(int count) {
+        View current = view;
+        int size = current.offsets().length;
+        if (count >= size) {
+            return current.text();
+        }
+        if (count <= 0) {
+            return "";
+        }
+        return current.text().substring(current.offsets()[size - count]);
+    }
+
+    public int turnCount() {
+        return view.offsets().length;
+    }
+
+    static String format(ConversationTurn turn) {
+        return "사용자: " + turn.user() + "\n" + "에이전트: " + turn.agent() + "\n\n";
+    }
+}
@@ -0,0 +1,121 @@
+package com.azure.agent.session;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 특정 시점의 세션 전체 히스토리 사본
+ *
+ * 턴마다 세션 시작부터의 시퀀스 번호가 붙으며, cold tier 블록은 실제로 읽히는 구간만 복원한다.
+ * 시퀀스 번호는 이후 턴이 추가되거나 오래된 블록이 버려져도 바뀌지 않으므로 페이지 커서로 쓸 수 있다.
+ */
+public class HistorySnapshot implements Iterable<ConversationTurn> {
+
+    private final ColdTurnArchive.Snapshot cold;
+    private final List<ConversationTurn> hot;
+    private final long firstSequence;
+
+    HistorySnapshot(ColdTurnArchive.Snapshot cold, List<ConversationTurn> hot, long endSequence) {
+        this.cold = cold;
+        this.hot = hot;
+        this.firstSequence = endSequence - hot.size() - cold.turnCount();
+    }
+
+    /**
+     * 보관 중인 가장 오래된 턴의 시퀀스
+     */
+    public long firstSequence() {
+        return firstSequence;
+    }
+
+    /**
+     * 마지막 턴 다음 시퀀스
+     */
+    public long endSequence() {
+        return firstSequence + size();
+    }
+
+    public int size() {
+        return cold.turnCount() + hot.size();
+    }
+
+    /**
+     * fromSequence부터 최대 limit개 턴 (보관 범위 이전 시퀀스는 가장 오래된 턴부터)
+     */
+    public List<ConversationTurn> page(long fromSequence, int limit) {
+        List<ConversationTurn> out = new ArrayList<>(Math.min(limit, size()));
+        long seq = firstSequence;
+        for (int chunk = 0; chunk < chunkCount() && out.size() < limit; chunk++) {
+            int count = chunkSize(chunk);
+            if (seq + count > fromSequence) {
+                List<ConversationTurn> turns = decodeChunk(chunk);
+                int skip = (int) Math.max(0, fromSequence - seq);
+                for (int i = skip; i < turns.size() && out.size() < limit; i++) {
+                    out.add(turns.get(i));
+                }
+            }
+            seq += count;
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    /**
+     * 전체 턴을 오래된 순으로 순회 (블록을 하나씩 복원하므로 전체를 한꺼번에 메모리에 올리지 않음)
+     */
+    @Override
+    public Iterator<ConversationTurn> iterator() {
+        return new Iterator<>() {
+            private int chunk = -1;
+            private Iterator<ConversationTurn> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext() && chunk + 1 < chunkCount()) {
+                    current = decodeChunk(++chunk).iterator();
+                }
+                return current.hasNext();
+            }
+
+            @Override
+            public ConversationTurn next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+    }
+
+    public List<ConversationTurn> toList() {
+        if (cold.turnCount() == 0) {
+            return hot;
+        }
+        List<ConversationTurn> all = new ArrayList<>(size());
+        forEach(all::add);
+        return Collections.unmodifiableList(all);
+    }
+
+    /** cold 블록들, 스테이징, hot 순서의 구간 수 */
+    private int chunkCount() {
+        return cold.blocks().length + 2;
+    }
+
+    private int chunkSize(int chunk) {
+        int blocks = cold.blocks().length;
+        if (chunk < blocks) {
+            return cold.blocks()[chunk].turnCount();
+        }
+        return chunk == blocks ? cold.stagingTurns() : hot.size();
+    }
+
+    private List<ConversationTurn> decodeChunk(int chunk) {
+        int blocks = cold.blocks().length;
+        if (chunk < blocks) {
+            return cold.decodeBlock(chunk);
+        }
+        return chunk == blocks ? cold.decodeStaging() : hot;
+    }
+}
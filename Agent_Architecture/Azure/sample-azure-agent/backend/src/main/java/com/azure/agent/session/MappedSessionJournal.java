@@ -0,0 +1,501 @@
+package com.azure.agent.session;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * 메모리 맵 세그먼트 파일에 턴을 순차 기록하는 append-only 저널
+ *
+ * - 레코드: [int 길이][int CRC32C][payload] — 길이 0, 잘린 레코드, CRC 불일치에서 세그먼트 스캔 종료(찢어진 꼬리 무시)
+ * - payload는 턴 기록 또는 폐기 기록(tombstone). 폐기 기록은 같은 세션의 앞선 턴을 재생/압축 대상에서 뺀다
+ * - 세그먼트가 가득 차면 동기화 후 봉인하고 다음 번호로 롤오버. 재기동 시에는 항상 새 세그먼트에 기록
+ * - 그룹 커밋: 플러셔 스레드가 주기적으로(또는 대기자가 있으면 즉시) force()하고, 그 사이 쌓인 쓰기를 한 번에 확정
+ * - 압축: 레코드의 생사는 저널만으로 판단 (보존 기간이 지났거나 뒤에 같은 세션의 폐기 기록이 있으면 죽은 레코드).
+ *   최신 세그먼트부터 거꾸로 훑어 뒤쪽 폐기 기록을 먼저 모은 뒤, 죽은 레코드가 많은 세그먼트를 같은 번호로 교체(재생 순서 유지)
+ * - 봉인 세그먼트는 매핑하지 않고 스트림으로 읽는다. 이번 기동에서 쓰기용으로 매핑한 세그먼트는 매핑이 GC 전까지
+ *   남아 있으므로 교체하지 않고, 레코드가 모두 죽었을 때 삭제만 시도한다
+ */
+@Slf4j
+public class MappedSessionJournal implements SessionJournal {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int HEADER_BYTES = 8;
+    private static final byte TURN_RECORD = 1;
+    private static final byte DISCARD_RECORD = 2;
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+
+    /** 살아 있는 레코드 비율이 이보다 낮은 봉인 세그먼트만 다시 쓴다 */
+    private static final double COMPACTION_LIVE_RATIO = 0.5;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long flushIntervalNanos;
+    private final boolean waitForSync;
+    private final long retentionMillis;
+    /** 이번 기동에서 처음 쓰기용으로 매핑한 세그먼트 번호 (이 번호 이상은 제자리 교체 금지) */
+    private final long firstMappedId;
+
+    private final ConcurrentSkipListSet<Long> sealedSegments = new ConcurrentSkipListSet<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock commitLock = new ReentrantLock();
+    private final Condition flushRequested = commitLock.newCondition();
+    private final Condition flushed = commitLock.newCondition();
+    private final Thread flusher;
+    private final ScheduledExecutorService compactor;
+
+    private MappedByteBuffer active;
+    private long activeId;
+    private long writtenSeq;
+    private volatile long flushedSeq;
+    private boolean syncRequested;
+    private volatile boolean closed;
+
+    /**
+     * @param directory          세그먼트 디렉터리
+     * @param segmentBytes       세그먼트 하나의 크기
+     * @param flushInterval      그룹 커밋 주기
+     * @param waitForSync        true면 append가 자신의 레코드가 디스크에 동기화될 때까지 대기
+     * @param compactionInterval 봉인 세그먼트 압축 주기
+     * @param retention          레코드 보존 기간 (세션 유휴 TTL — 이보다 오래된 턴은 복원되지 않으므로 압축 시 제거)
+     */
+    public MappedSessionJournal(Path directory, int segmentBytes, Duration flushInterval, boolean waitForSync,
+                                Duration compactionInterval, Duration retention) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.waitForSync = waitForSync;
+        this.retentionMillis = retention.toMillis();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(MappedSessionJournal::segmentId)
+                    .filter(id -> id >= 0)
+                    .forEach(sealedSegments::add);
+        }
+        this.activeId = sealedSegments.isEmpty() ? 1 : sealedSegments.last() + 1;
+        this.firstMappedId = activeId;
+        this.active = mapSegment(activeId);
+
+        this.flusher = new Thread(this::flushLoop, "session-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+
+        this.compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "session-journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long compactionMillis = compactionInterval.toMillis();
+        compactor.scheduleWithFixedDelay(this::compact, compactionMillis, compactionMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void append(String sessionId, ConversationTurn turn) {
+        write(encode(sessionId, turn));
+    }
+
+    @Override
+    public void discard(String sessionId) {
+        write(encodeDiscard(sessionId, System.currentTimeMillis()));
+    }
+
+    private void write(byte[] payload) {
+        if (HEADER_BYTES + payload.length > segmentBytes) {
+            throw new IllegalArgumentException("턴 크기가 저널 세그먼트보다 큽니다: " + payload.length + " bytes");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+
+        long seq;
+        writeLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("세션 저널이 닫혔습니다");
+            }
+            if (active.remaining() < HEADER_BYTES + payload.length) {
+                rollover();
+            }
+            active.putInt(payload.length);
+            active.putInt((int) crc.getValue());
+            active.put(payload);
+            seq = ++writtenSeq;
+        } finally {
+            writeLock.unlock();
+        }
+
+        if (waitForSync) {
+            awaitSync(seq);
+        }
+    }
+
+    @Override
+    public long replay(BiConsumer<String, ConversationTurn> turns, Consumer<String> discards) {
+        long started = System.nanoTime();
+        long[] replayed = new long[1];
+        for (long id : sealedSegments) {
+            scan(segmentPath(id), (record, ordinal) -> {
+                if (record.turn() != null) {
+                    turns.accept(record.sessionId(), record.turn());
+                    replayed[0]++;
+                } else {
+                    discards.accept(record.sessionId());
+                }
+            });
+        }
+        log.info("세션 저널 재생 완료: {}턴, 세그먼트 {}개, {}ms",
+                replayed[0], sealedSegments.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return replayed[0];
+    }
+
+    @Override
+    public void close() {
+        compactor.shutdownNow();
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            active.force();
+            flushedSeq = writtenSeq;
+        } finally {
+            writeLock.unlock();
+        }
+        flusher.interrupt();
+        commitLock.lock();
+        try {
+            flushed.signalAll();
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    /**
+     * 현재 세그먼트를 동기화해 봉인하고 다음 세그먼트로 전환 (writeLock 보유)
+     */
+    private void rollover() {
+        active.force();
+        flushedSeq = writtenSeq;
+        sealedSegments.add(activeId);
+        activeId++;
+        try {
+            active = mapSegment(activeId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("세션 저널 세그먼트 생성 실패", e);
+        }
+    }
+
+    private void awaitSync(long seq) {
+        commitLock.lock();
+        try {
+            while (flushedSeq < seq && !closed) {
+                syncRequested = true;
+                flushRequested.signal();
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (!closed) {
+            commitLock.lock();
+            try {
+                if (!syncRequested) {
+                    flushRequested.awaitNanos(flushIntervalNanos);
+                }
+                syncRequested = false;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                commitLock.unlock();
+            }
+
+            MappedByteBuffer buffer = null;
+            long target;
+            writeLock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                target = writtenSeq;
+                if (flushedSeq < target) {
+                    buffer = active;
+                }
+            } finally {
+                writeLock.unlock();
+            }
+
+            // force 중에도 쓰기는 계속되며, 그 사이 롤오버됐다면 이전 세그먼트는 rollover()에서 이미 동기화됨
+            if (buffer != null) {
+                buffer.force();
+            }
+            commitLock.lock();
+            try {
+                if (flushedSeq < target) {
+                    flushedSeq = target;
+                }
+                flushed.signalAll();
+            } finally {
+                commitLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 최신 세그먼트부터 거꾸로 훑으며 죽은 레코드가 많은 봉인 세그먼트를 다시 쓰거나 삭제
+     */
+    void compact() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        long newest;
+        writeLock.lock();
+        try {
+            newest = activeId;
+        } finally {
+            writeLock.unlock();
+        }
+        // 각 레코드보다 뒤(더 최신 세그먼트)에 폐기 기록이 있는 세션
+        Set<String> discardedLater = new HashSet<>();
+        try {
+            scan(segmentPath(newest), (record, ordinal) -> {
+                if (record.turn() == null) {
+                    discardedLater.add(record.sessionId());
+                }
+            });
+        } catch (UncheckedIOException e) {
+            log.warn("세션 저널 활성 세그먼트 읽기 실패", e);
+            return;
+        }
+        for (long id : new ArrayList<>(sealedSegments.headSet(newest).descendingSet())) {
+            try {
+                discardedLater.addAll(compactSegment(id, cutoff, discardedLater));
+            } catch (RuntimeException | IOException e) {
+                // 삭제/교체에 실패한 세그먼트는 그대로 두고 다음 주기에 다시 시도
+                log.warn("세션 저널 세그먼트 압축 실패: {}", segmentPath(id).getFileName(), e);
+            }
+        }
+    }
+
+    /**
+     * @return 이 세그먼트에 폐기 기록이 있는 세션 (더 오래된 세그먼트의 같은 세션 레코드는 죽음)
+     */
+    private Set<String> compactSegment(long id, long cutoff, Set<String> discardedLater) throws IOException {
+        Path path = segmentPath(id);
+        // 세그먼트 안에서 세션별 마지막 폐기 기록의 위치 (그보다 앞선 같은 세션의 레코드는 죽음)
+        Map<String, Integer> lastDiscard = new HashMap<>();
+        List<JournalRecord> candidates = new ArrayList<>();
+        List<Integer> candidateOrdinals = new ArrayList<>();
+        long total = scan(path, (record, ordinal) -> {
+            if (record.turn() == null) {
+                lastDiscard.put(record.sessionId(), ordinal);
+            }
+            if (record.timestamp() >= cutoff && !discardedLater.contains(record.sessionId())) {
+                candidates.add(record.withoutBytes());
+                candidateOrdinals.add(ordinal);
+            }
+        });
+        long live = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            if (isLive(candidates.get(i), candidateOrdinals.get(i), cutoff, discardedLater, lastDiscard)) {
+                live++;
+            }
+        }
+
+        if (live == 0) {
+            Files.deleteIfExists(path);
+            sealedSegments.remove(id);
+            log.info("세션 저널 세그먼트 삭제: {} ({}건 모두 만료/폐기)", path.getFileName(), total);
+            return lastDiscard.keySet();
+        }
+        if (live >= total * COMPACTION_LIVE_RATIO || id >= firstMappedId) {
+            return lastDiscard.keySet();
+        }
+
+        Path compacted = directory.resolve(path.getFileName() + ".compact");
+        try (FileChannel channel = FileChannel.open(compacted,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            IOException[] failure = new IOException[1];
+            scan(path, (record, ordinal) -> {
+                if (failure[0] != null || !isLive(record, ordinal, cutoff, discardedLater, lastDiscard)) {
+                    return;
+                }
+                try {
+                    ByteBuffer bytes = record.bytes();
+                    while (bytes.hasRemaining()) {
+                        channel.write(bytes);
+                    }
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            channel.force(true);
+        }
+        // 이전 기동에서 쓴 세그먼트라 이 프로세스에 매핑이 없으므로 교체해도 안전
+        Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        log.info("세션 저널 세그먼트 압축: {} ({} -> {}건)", path.getFileName(), total, live);
+        return lastDiscard.keySet();
+    }
+
+    /**
+     * 보존 기간 안이고, 뒤 세그먼트나 같은 세그먼트 뒤쪽에 같은 세션의 폐기 기록이 없으면 살아 있는 레코드
+     */
+    private static boolean isLive(JournalRecord record, int ordinal, long cutoff,
+                                  Set<String> discardedLater, Map<String, Integer> lastDiscard) {
+        if (record.timestamp() < cutoff || discardedLater.contains(record.sessionId())) {
+            return false;
+        }
+        Integer discard = lastDiscard.get(record.sessionId());
+        return discard == null || discard <= ordinal;
+    }
+
+    /**
+     * 디코딩한 레코드. turn이 null이면 폐기 기록, bytes는 헤더를 포함한 원본 레코드
+     */
+    private record JournalRecord(String sessionId, long timestamp, ConversationTurn turn, ByteBuffer bytes) {
+
+        JournalRecord withoutBytes() {
+            return new JournalRecord(sessionId, timestamp, turn, null);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor {
+        void visit(JournalRecord record, int ordinal);
+    }
+
+    /**
+     * 세그먼트를 (매핑하지 않고) 순서대로 읽어 유효한 레코드를 방문하고 레코드 수를 반환
+     */
+    private static long scan(Path path, RecordVisitor visitor) {
+        int count = 0;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path), READ_BUFFER_BYTES))) {
+            long remaining = Files.size(path);
+            while (remaining >= HEADER_BYTES) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                remaining -= HEADER_BYTES;
+                if (length <= 0 || length > remaining) {
+                    break;
+                }
+                byte[] bytes = new byte[HEADER_BYTES + length];
+                try {
+                    in.readFully(bytes, HEADER_BYTES, length);
+                } catch (EOFException e) {
+                    break;
+                }
+                remaining -= length;
+                CRC32C crc = new CRC32C();
+                crc.update(bytes, HEADER_BYTES, length);
+                if ((int) crc.getValue() != checksum) {
+                    log.warn("세션 저널 손상 레코드에서 스캔 중단: {} (레코드 {})", path.getFileName(), count);
+                    break;
+                }
+                ByteBuffer record = ByteBuffer.wrap(bytes).putInt(0, length).putInt(4, checksum);
+                ByteBuffer payload = ByteBuffer.wrap(bytes, HEADER_BYTES, length);
+                byte type = payload.get();
+                if (type != TURN_RECORD && type != DISCARD_RECORD) {
+                    continue;
+                }
+                long timestamp = payload.getLong();
+                String sessionId = readString(payload);
+                ConversationTurn turn = null;
+                if (type == TURN_RECORD) {
+                    String user = readString(payload);
+                    String agent = readString(payload);
+                    turn = new ConversationTurn(user, agent, timestamp);
+                }
+                visitor.visit(new JournalRecord(sessionId, timestamp, turn, record), count++);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("세션 저널 세그먼트 읽기 실패: " + path, e);
+        }
+        return count;
+    }
+
+    private MappedByteBuffer mapSegment(long id) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(id),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("%016d%s", id, SEGMENT_SUFFIX));
+    }
+
+    private static long segmentId(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static byte[] encode(String sessionId, ConversationTurn turn) {
+        byte[] id = sessionId.getBytes(StandardCharsets.UTF_8);
+        byte[] user = bytes(turn.user());
+        byte[] agent = bytes(turn.agent());
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 8 + 12 + id.length + user.length + agent.length);
+        buffer.put(TURN_RECORD).putLong(turn.timestamp());
+        buffer.putInt(id.length).put(id);
+        buffer.putInt(user.length).put(user);
+        buffer.putInt(agent.length).put(agent);
+        return buffer.array();
+    }
+
+    private static byte[] encodeDiscard(String sessionId, long timestamp) {
+        byte[] id = sessionId.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 8 + 4 + id.length);
+        buffer.put(DISCARD_RECORD).putLong(timestamp);
+        buffer.putInt(id.length).put(id);
+        return buffer.array();
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,27 @@
+package com.azure.agent.session;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * 영속화하지 않는 저널 (세션은 메모리에만 유지)
+ */
+public class NoopSessionJournal implements SessionJournal {
+
+    @Override
+    public void append(String sessionId, ConversationTurn turn) {
+    }
+
+    @Override
+    public void discard(String sessionId) {
+    }
+
+    @Override
+    public long replay(BiConsumer<String, ConversationTurn> turns, Consumer<String> discards) {
+        return 0;
+    }
+
+    @Override
+    public void close() {
+    }
+}
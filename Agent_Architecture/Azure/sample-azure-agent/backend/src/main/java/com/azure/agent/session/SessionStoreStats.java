@@ -0,0 +1,21 @@
+package com.azure.agent.session;
+
+/**
+ * 세션 저장소 현황, 축출(eviction) 카운터, hot/cold tier 사용량
+ */
+public record SessionStoreStats(
+        int sessions,
+        long weightBytes,
+        int maxSessions,
+        long maxWeightBytes,
+        long capacityEvictions,
+        long weightEvictions,
+        long expirations,
+        long hotTurns,
+        long coldTurns,
+        long coldBlocks,
+        long coldRawBytes,
+        long coldStoredBytes,
+        double coldCompressionRatio
+) {
+}
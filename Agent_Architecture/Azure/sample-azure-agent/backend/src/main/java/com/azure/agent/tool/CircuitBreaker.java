@@ -0,0 +1,160 @@
+package com.azure.agent.tool;
+
+/**
+ * 최근 N회 호출의 실패율/지연율로 여닫는 서킷 브레이커 (스레드 안전)
+ *
+ * - CLOSED: 모든 호출 허용. 최근 windowSize회 중 minimumCalls회 이상 기록되었고
+ *   실패율 또는 느린 호출 비율이 임계값 이상이면 OPEN
+ * - OPEN: openDuration 동안 호출을 막고 즉시 대체 결과를 쓰게 한다
+ * - HALF_OPEN: 시험 호출 halfOpenCalls회만 허용. 모두 성공하면 CLOSED, 하나라도 실패/지연이면 다시 OPEN
+ * 호출 결과는 원형 버퍼에 1바이트씩 기록하고 실패/지연 개수를 누적해 비율 계산에 순회가 없다.
+ * 상태가 바뀔 때마다 세대 번호를 올리고 허가에 발급 당시 세대를 담아, 이전 상태에서 허용된 호출이
+ * 늦게 끝나도 현재 상태(예: HALF_OPEN 시험 호출 집계)에 섞이지 않게 한다.
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * 현재 상태와 창 안의 비율 (기록이 minimumCalls 미만이면 비율은 참고용)
+     */
+    public record Snapshot(State state, int recordedCalls, double failureRate, double slowCallRate) {
+    }
+
+    /** 호출을 허용하지 않을 때 tryAcquire()가 돌려주는 값 */
+    public static final long DENIED = -1;
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private final byte[] window;
+    private int position;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(ToolExecutionConfig config) {
+        this.window = new byte[config.breakerWindow()];
+        this.minimumCalls = config.breakerMinimumCalls();
+        this.failureRateThreshold = config.breakerFailureRate();
+        this.slowCallRateThreshold = config.breakerSlowCallRate();
+        this.slowCallNanos = config.breakerSlowCall().toNanos();
+        this.openNanos = config.breakerOpenDuration().toNanos();
+        this.halfOpenCalls = config.breakerHalfOpenCalls();
+    }
+
+    /**
+     * 호출 허가 요청. 허가(발급 세대)를 받았으면 그 값으로 onResult 또는 release 중 하나를 반드시 호출해야 한다
+     *
+     * @return 허가, 호출을 막으면 DENIED
+     */
+    public synchronized long tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return DENIED;
+            }
+            transition(State.HALF_OPEN);
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return DENIED;
+            }
+            halfOpenPermits--;
+        }
+        return generation;
+    }
+
+    /**
+     * 허용받은 호출의 결과 기록 (elapsedNanos가 slowCall 이상이면 느린 호출).
+     * 허가를 받은 뒤 상태가 바뀌었으면 그 결과는 버린다
+     */
+    public synchronized void onResult(long permit, boolean failed, long elapsedNanos) {
+        if (permit != generation) {
+            return;
+        }
+        boolean slow = elapsedNanos >= slowCallNanos;
+        if (state == State.HALF_OPEN) {
+            if (failed || slow) {
+                open();
+            } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        record((byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0)));
+        if (recorded >= minimumCalls
+                && (failureRate() >= failureRateThreshold || slowCallRate() >= slowCallRateThreshold)) {
+            open();
+        }
+    }
+
+    /**
+     * 허용받았지만 실행하지 못한 호출(벌크헤드 거절, 호출자 취소)의 허가 반납. 결과로 기록하지 않는다
+     */
+    public synchronized void release(long permit) {
+        if (permit == generation && state == State.HALF_OPEN && halfOpenPermits < halfOpenCalls - halfOpenSuccesses) {
+            halfOpenPermits++;
+        }
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(state, recorded, failureRate(), slowCallRate());
+    }
+
+    private void record(byte outcome) {
+        if (recorded == window.length) {
+            byte evicted = window[position];
+            failures -= evicted & FAILED;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            recorded++;
+        }
+        window[position] = outcome;
+        failures += outcome & FAILED;
+        slowCalls += (outcome & SLOW) >> 1;
+        position = (position + 1) % window.length;
+    }
+
+    private double failureRate() {
+        return recorded == 0 ? 0 : (double) failures / recorded;
+    }
+
+    private double slowCallRate() {
+        return recorded == 0 ? 0 : (double) slowCalls / recorded;
+    }
+
+    private void open() {
+        transition(State.OPEN);
+        openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        transition(State.CLOSED);
+        position = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    private void transition(State next) {
+        state = next;
+        generation++;
+    }
+}
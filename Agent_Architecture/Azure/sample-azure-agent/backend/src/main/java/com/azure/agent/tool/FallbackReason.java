@@ -0,0 +1,35 @@
+package com.azure.agent.tool;
+
+/**
+ * 도구를 실행하지 못하고 대체 결과(fallback)를 돌려준 사유
+ */
+public enum FallbackReason {
+
+    /** 도구별 제한 시간 초과 (대기열 대기 시간 포함) */
+    TIMEOUT("도구 응답이 지연되어 결과를 가져오지 못했습니다. 잠시 후 다시 시도해 주세요."),
+
+    /** 도구가 예외를 던짐 */
+    FAILED("도구 실행 중 오류가 발생했습니다. 잠시 후 다시 시도해 주세요."),
+
+    /** 벌크헤드(도구 전용 스레드와 대기열)가 가득 참 */
+    REJECTED("요청이 많아 지금은 도구를 실행할 수 없습니다. 잠시 후 다시 시도해 주세요."),
+
+    /** 서킷 브레이커가 열려 호출하지 않음 */
+    CIRCUIT_OPEN("도구가 일시적으로 응답하지 않아 호출을 잠시 중단했습니다. 잠시 후 다시 시도해 주세요."),
+
+    /** 호출한 요청 스레드가 중단됨 */
+    CANCELLED("요청이 취소되어 도구 실행을 중단했습니다.");
+
+    private final String message;
+
+    FallbackReason(String message) {
+        this.message = message;
+    }
+
+    /**
+     * 사용자에게 보일 안내 문구
+     */
+    public String message() {
+        return message;
+    }
+}
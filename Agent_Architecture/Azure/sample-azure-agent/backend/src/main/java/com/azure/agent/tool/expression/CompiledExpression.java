@@ -0,0 +1,17 @@
+package com.azure.agent.tool.expression;
+
+/**
+ * 정규화된 계산식과 컴파일된 AST (불변, 여러 요청이 공유)
+ *
+ * @param source 공백/표기를 정규화한 식 (캐시 키이자 응답에 보여줄 식)
+ * @param root   AST 루트
+ */
+public record CompiledExpression(String source, Expression root) {
+
+    /**
+     * 식 계산. 0으로 나누면 ArithmeticException
+     */
+    public double evaluate() {
+        return root.evaluate();
+    }
+}
@@ -0,0 +1,121 @@
+package com.azure.agent.tool.expression;
+
+import com.azure.agent.cache.CacheStats;
+import com.azure.agent.cache.TinyLfuCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 자연어 메시지에서 계산식을 찾아 AST로 컴파일하는 엔진 (스레드 안전)
+ *
+ * 메시지에서 숫자/연산자/괄호/함수 이름으로만 이루어진 구간을 후보로 잘라 토큰화하고,
+ * 토큰을 정규화한 문자열("(3 + 4) * 2")을 키로 컴파일된 AST를 W-TinyLFU 캐시에 보관한다.
+ * 공백만 다른 같은 식은 파싱 없이 캐시된 AST를 재사용한다.
+ */
+public final class ExpressionEngine {
+
+    private static final String NOT_FOUND = "계산식을 찾을 수 없습니다. 예: '5 + 3'";
+
+    private final TinyLfuCache<String, CompiledExpression> cache;
+
+    public ExpressionEngine(int cacheSize) {
+        this.cache = new TinyLfuCache<>(cacheSize);
+    }
+
+    /**
+     * 메시지에서 첫 번째로 해석되는 계산식을 컴파일 (없으면 ExpressionException)
+     */
+    public CompiledExpression compile(String message) {
+        ExpressionException firstError = null;
+        for (String candidate : candidates(message)) {
+            List<ExpressionParser.Token> tokens;
+            try {
+                tokens = ExpressionParser.tokenize(candidate);
+            } catch (ExpressionException e) {
+                firstError = firstError != null ? firstError : e;
+                continue;
+            }
+            if (!hasOperation(tokens)) {
+                continue;
+            }
+            String source = ExpressionParser.normalize(tokens);
+            CompiledExpression cached = cache.get(source);
+            if (cached != null) {
+                return cached;
+            }
+            try {
+                CompiledExpression compiled = new CompiledExpression(source, ExpressionParser.parse(tokens));
+                cache.put(source, compiled);
+                return compiled;
+            } catch (ExpressionException e) {
+                firstError = firstError != null ? firstError : e;
+            }
+        }
+        throw firstError != null ? firstError : new ExpressionException(NOT_FOUND);
+    }
+
+    public CacheStats cacheStats() {
+        return cache.stats();
+    }
+
+    /**
+     * 계산식에 쓸 수 있는 문자만 이어진 구간 (×, ÷는 *, /로 바꾸고 함수/상수가 아닌 단어는 구간을 끊음)
+     */
+    static List<String> candidates(String message) {
+        List<String> candidates = new ArrayList<>();
+        if (message == null) {
+            return candidates;
+        }
+        StringBuilder current = new StringBuilder();
+        int i = 0;
+        while (i < message.length()) {
+            char c = message.charAt(i);
+            if (ExpressionParser.isLetter(c)) {
+                int start = i;
+                while (i < message.length() && ExpressionParser.isLetter(message.charAt(i))) {
+                    i++;
+                }
+                String word = message.substring(start, i).toLowerCase(Locale.ROOT);
+                if (ExpressionParser.isIdentifier(word)) {
+                    current.append(word);
+                } else {
+                    flush(current, candidates);
+                }
+                continue;
+            }
+            char mapped = c == '×' ? '*' : c == '÷' ? '/' : c;
+            if (ExpressionParser.isDigit(mapped) || mapped == '.' || mapped == '(' || mapped == ')' || mapped == ','
+                    || Operator.of(mapped) != null || Character.isWhitespace(mapped)) {
+                current.append(mapped);
+            } else {
+                flush(current, candidates);
+            }
+            i++;
+        }
+        flush(current, candidates);
+        return candidates;
+    }
+
+    private static void flush(StringBuilder current, List<String> candidates) {
+        String candidate = current.toString().trim();
+        if (!candidate.isEmpty()) {
+            candidates.add(candidate);
+        }
+        current.setLength(0);
+    }
+
+    /**
+     * 숫자 하나만 있는 구간("2024")은 계산식으로 보지 않는다
+     */
+    private static boolean hasOperation(List<ExpressionParser.Token> tokens) {
+        for (ExpressionParser.Token token : tokens) {
+            if (token.kind() == ExpressionParser.Kind.OPERATOR
+                    || token.kind() == ExpressionParser.Kind.IDENTIFIER && MathFunction.lookup(token.text()) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
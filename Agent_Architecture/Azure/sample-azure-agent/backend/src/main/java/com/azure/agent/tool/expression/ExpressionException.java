@@ -0,0 +1,13 @@
+package com.azure.agent.tool.expression;
+
+/**
+ * 계산식을 찾지 못했거나 해석할 수 없을 때 (메시지는 사용자에게 그대로 보여줄 수 있는 문장)
+ */
+public class ExpressionException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ExpressionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,260 @@
+package com.azure.agent.tool.expression;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 계산식 렉서 + 재귀 하강 파서
+ *
+ * <pre>
+ * expr    := term (('+' | '-') term)*
+ * term    := unary (('*' | '/' | '%') unary)*
+ * unary   := ('-' | '+') unary | power
+ * power   := primary ('^' unary)?          (오른쪽 결합, -2^2 = -4)
+ * primary := number | constant | function '(' expr (',' expr)? ')' | '(' expr ')'
+ * </pre>
+ */
+final class ExpressionParser {
+
+    /** 한 식에 허용하는 최대 토큰 수와 괄호/단항 중첩 깊이 (스택 오버플로 방지) */
+    static final int MAX_TOKENS = 256;
+    private static final int MAX_DEPTH = 64;
+
+    enum Kind {
+        NUMBER, IDENTIFIER, OPERATOR, LEFT_PAREN, RIGHT_PAREN, COMMA
+    }
+
+    record Token(Kind kind, String text) {
+    }
+
+    private final List<Token> tokens;
+    private int position;
+    private int depth;
+
+    private ExpressionParser(List<Token> tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * 식 문자열을 토큰으로 분리 (공백은 버리고 식별자는 소문자로)
+     */
+    static List<Token> tokenize(CharSequence text) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (isDigit(c) || c == '.') {
+                int start = i;
+                while (i < text.length() && (isDigit(text.charAt(i)) || text.charAt(i) == '.')) {
+                    i++;
+                }
+                tokens.add(new Token(Kind.NUMBER, text.subSequence(start, i).toString()));
+            } else if (isLetter(c)) {
+                int start = i;
+                while (i < text.length() && isLetter(text.charAt(i))) {
+                    i++;
+                }
+                tokens.add(new Token(Kind.IDENTIFIER, text.subSequence(start, i).toString().toLowerCase(Locale.ROOT)));
+            } else if (c == '(') {
+                tokens.add(new Token(Kind.LEFT_PAREN, "("));
+                i++;
+            } else if (c == ')') {
+                tokens.add(new Token(Kind.RIGHT_PAREN, ")"));
+                i++;
+            } else if (c == ',') {
+                tokens.add(new Token(Kind.COMMA, ","));
+                i++;
+            } else if (Operator.of(c) != null) {
+                tokens.add(new Token(Kind.OPERATOR, String.valueOf(c)));
+                i++;
+            } else {
+                throw new ExpressionException("계산식에 쓸 수 없는 문자입니다: " + c);
+            }
+            if (tokens.size() > MAX_TOKENS) {
+                throw new ExpressionException("계산식이 너무 깁니다");
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * 토큰을 정규화된 식 문자열로 (이항 연산자 앞뒤 공백, 단항 부호는 붙여 씀)
+     */
+    static String normalize(List<Token> tokens) {
+        StringBuilder normalized = new StringBuilder();
+        Token previous = null;
+        for (Token token : tokens) {
+            if (token.kind() == Kind.OPERATOR && !isUnaryPosition(previous)) {
+                normalized.append(' ').append(token.text()).append(' ');
+            } else if (token.kind() == Kind.COMMA) {
+                normalized.append(", ");
+            } else {
+                normalized.append(token.text());
+            }
+            previous = token;
+        }
+        return normalized.toString();
+    }
+
+    static Expression parse(List<Token> tokens) {
+        if (tokens.isEmpty()) {
+            throw new ExpressionException("계산식이 비어 있습니다");
+        }
+        ExpressionParser parser = new ExpressionParser(tokens);
+        Expression expression = parser.expression();
+        if (parser.position < tokens.size()) {
+            throw new ExpressionException("계산식을 해석할 수 없습니다: '" + tokens.get(parser.position).text() + "' 근처");
+        }
+        return expression;
+    }
+
+    private Expression expression() {
+        Expression left = term();
+        while (peekOperator(Operator.ADD) || peekOperator(Operator.SUBTRACT)) {
+            Operator operator = Operator.of(next().text().charAt(0));
+            left = new Expression.Binary(operator, left, term());
+        }
+        return left;
+    }
+
+    private Expression term() {
+        Expression left = unary();
+        while (peekOperator(Operator.MULTIPLY) || peekOperator(Operator.DIVIDE) || peekOperator(Operator.REMAINDER)) {
+            Operator operator = Operator.of(next().text().charAt(0));
+            left = new Expression.Binary(operator, left, unary());
+        }
+        return left;
+    }
+
+    private Expression unary() {
+        enter();
+        try {
+            if (peekOperator(Operator.SUBTRACT)) {
+                next();
+                return new Expression.Negate(unary());
+            }
+            if (peekOperator(Operator.ADD)) {
+                next();
+                return unary();
+            }
+            return power();
+        } finally {
+            depth--;
+        }
+    }
+
+    private Expression power() {
+        Expression base = primary();
+        if (peekOperator(Operator.POWER)) {
+            next();
+            return new Expression.Binary(Operator.POWER, base, unary());
+        }
+        return base;
+    }
+
+    private Expression primary() {
+        Token token = next();
+        if (token == null) {
+            throw new ExpressionException("계산식이 완성되지 않았습니다");
+        }
+        if (token.kind() == Kind.NUMBER) {
+            return new Expression.Literal(parseNumber(token.text()));
+        }
+        if (token.kind() == Kind.IDENTIFIER) {
+            return identifier(token.text());
+        }
+        if (token.kind() != Kind.LEFT_PAREN) {
+            throw new ExpressionException("계산식을 해석할 수 없습니다: '" + token.text() + "' 근처");
+        }
+        enter();
+        try {
+            Expression inner = expression();
+            expect(Kind.RIGHT_PAREN, "닫는 괄호가 없습니다");
+            return inner;
+        } finally {
+            depth--;
+        }
+    }
+
+    private Expression identifier(String name) {
+        if ("pi".equals(name)) {
+            return new Expression.Literal(Math.PI);
+        }
+        if ("e".equals(name)) {
+            return new Expression.Literal(Math.E);
+        }
+        MathFunction function = MathFunction.lookup(name);
+        if (function == null) {
+            throw new ExpressionException("알 수 없는 함수입니다: " + name);
+        }
+        expect(Kind.LEFT_PAREN, name + " 뒤에 여는 괄호가 필요합니다");
+        enter();
+        try {
+            Expression first = expression();
+            Expression second = null;
+            if (function.arity() == 2) {
+                expect(Kind.COMMA, name + "에는 인자가 두 개 필요합니다");
+                second = expression();
+            }
+            expect(Kind.RIGHT_PAREN, name + "의 닫는 괄호가 없습니다");
+            return new Expression.Call(function, first, second);
+        } finally {
+            depth--;
+        }
+    }
+
+    private void enter() {
+        if (++depth > MAX_DEPTH) {
+            throw new ExpressionException("계산식의 중첩이 너무 깊습니다");
+        }
+    }
+
+    private boolean peekOperator(Operator operator) {
+        if (position >= tokens.size()) {
+            return false;
+        }
+        Token token = tokens.get(position);
+        return token.kind() == Kind.OPERATOR && token.text().charAt(0) == operator.symbol();
+    }
+
+    private Token next() {
+        return position < tokens.size() ? tokens.get(position++) : null;
+    }
+
+    private void expect(Kind kind, String message) {
+        Token token = next();
+        if (token == null || token.kind() != kind) {
+            throw new ExpressionException(message);
+        }
+    }
+
+    private static double parseNumber(String text) {
+        if (text.indexOf('.') != text.lastIndexOf('.') || ".".equals(text)) {
+            throw new ExpressionException("숫자 형식이 올바르지 않습니다: " + text);
+        }
+        return Double.parseDouble(text);
+    }
+
+    private static boolean isUnaryPosition(Token previous) {
+        return previous == null || previous.kind() == Kind.OPERATOR
+                || previous.kind() == Kind.LEFT_PAREN || previous.kind() == Kind.COMMA;
+    }
+
+    /**
+     * 계산식에서 의미가 있는 단어인지 (상수 pi, e 또는 함수 이름)
+     */
+    static boolean isIdentifier(String word) {
+        return "pi".equals(word) || "e".equals(word) || MathFunction.lookup(word) != null;
+    }
+
+    static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    static boolean isLetter(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+}
@@ -0,0 +1,74 @@
+package com.azure.agent.tool.expression;
+
+/**
+ * 이항 연산자 (우선순위와 결합 방향은 ExpressionParser의 문법 단계가 정함: +, - < *, /, % < ^, ^만 오른쪽 결합)
+ */
+public enum Operator {
+
+    ADD('+') {
+        @Override
+        double apply(double a, double b) {
+            return a + b;
+        }
+    },
+    SUBTRACT('-') {
+        @Override
+        double apply(double a, double b) {
+            return a - b;
+        }
+    },
+    MULTIPLY('*') {
+        @Override
+        double apply(double a, double b) {
+            return a * b;
+        }
+    },
+    DIVIDE('/') {
+        @Override
+        double apply(double a, double b) {
+            if (b == 0) {
+                throw new ArithmeticException("0으로 나눌 수 없습니다");
+            }
+            return a / b;
+        }
+    },
+    REMAINDER('%') {
+        @Override
+        double apply(double a, double b) {
+            if (b == 0) {
+                throw new ArithmeticException("0으로 나눌 수 없습니다");
+            }
+            return a % b;
+        }
+    },
+    POWER('^') {
+        @Override
+        double apply(double a, double b) {
+            return Math.pow(a, b);
+        }
+    };
+
+    private final char symbol;
+
+    Operator(char symbol) {
+        this.symbol = symbol;
+    }
+
+    public char symbol() {
+        return symbol;
+    }
+
+    abstract double apply(double a, double b);
+
+    /**
+     * 기호로 연산자 찾기 (없으면 null)
+     */
+    static Operator of(char symbol) {
+        for (Operator operator : values()) {
+            if (operator.symbol == symbol) {
+                return operator;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.azure.agent.tool.weather;
+
+/**
+ * 날씨 API 응답 한 건
+ *
+ * @param location    지역 이름
+ * @param temperature 기온 (°C)
+ * @param condition   하늘 상태 (예: 맑음)
+ * @param humidity    습도 (%)
+ */
+public record WeatherReport(String location, double temperature, String condition, int humidity) {
+}
@@ -0,0 +1,131 @@
+package com.azure.agent.session;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * 한 세션에 여러 스레드가 동시에 턴을 추가할 때 유실/순서 뒤바뀜이 없는지 확인하는 부하 테스트
+ *
+ * 작성자 스레드는 "w{작성자}-{순번}" 턴을 순서대로 추가하고, 읽기 스레드는 그동안 전체 스냅샷과
+ * 락 없는 최근 턴 조회를 반복하며 작성자별 순번이 빠짐없이 이어지는지 검사한다.
+ * hot tier를 작게 잡아 cold tier 블록 이동도 함께 일어나게 한다.
+ */
+class SessionStoreStressTest {
+
+    private static final int WRITERS = 16;
+    private static final int TURNS_PER_WRITER = 500;
+    private static final int READERS = 4;
+    private static final int HOT_TURNS = 64;
+
+    private SessionStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new SessionStore(new SessionStoreConfig(
+                100, 256L * 1024 * 1024, WRITERS * TURNS_PER_WRITER, HOT_TURNS, 32, 10, 4000,
+                Duration.ofMinutes(30), Duration.ofMinutes(1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void concurrentWritersLoseNoTurnsAndKeepPerWriterOrder() throws Exception {
+        String sessionId = store.create().getId();
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                int writer = w;
+                writers.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < TURNS_PER_WRITER; i++) {
+                        store.append(sessionId, new ConversationTurn("w" + writer + "-" + i, "ok", System.currentTimeMillis()));
+                    }
+                    return null;
+                }));
+            }
+            List<Future<Integer>> readers = new ArrayList<>();
+            for (int r = 0; r < READERS; r++) {
+                readers.add(pool.submit(() -> {
+                    start.await();
+                    int reads = 0;
+                    int lastSize = 0;
+                    while (writing.get()) {
+                        Session session = store.peek(sessionId);
+                        List<ConversationTurn> snapshot = session.history();
+                        assertTrue(snapshot.size() >= lastSize, "스냅샷 크기가 줄어듦");
+                        lastSize = snapshot.size();
+                        assertPerWriterOrder(snapshot, true);
+                        assertPerWriterOrder(session.recentTurns(HOT_TURNS), false);
+                        reads++;
+                    }
+                    return reads;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(60, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            int reads = 0;
+            for (Future<Integer> reader : readers) {
+                reads += reader.get(60, TimeUnit.SECONDS);
+            }
+            assertTrue(reads > 0, "읽기 스레드가 한 번도 스냅샷을 읽지 못함");
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<ConversationTurn> history = store.peek(sessionId).history();
+        assertEquals(WRITERS * TURNS_PER_WRITER, history.size());
+        int[] counts = assertPerWriterOrder(history, true);
+        for (int w = 0; w < WRITERS; w++) {
+            assertEquals(TURNS_PER_WRITER, counts[w], "작성자 " + w + "의 턴 수");
+        }
+    }
+
+    /**
+     * 작성자별 순번이 1씩 증가하는지 검사하고 작성자별 턴 수를 반환
+     *
+     * @param fromStart true면 세션 처음부터의 스냅샷이므로 순번이 0부터 시작해야 함
+     */
+    private static int[] assertPerWriterOrder(List<ConversationTurn> turns, boolean fromStart) {
+        int[] next = new int[WRITERS];
+        Arrays.fill(next, fromStart ? 0 : -1);
+        int[] counts = new int[WRITERS];
+        for (ConversationTurn turn : turns) {
+            String user = turn.user();
+            int dash = user.indexOf('-');
+            int writer = Integer.parseInt(user.substring(1, dash));
+            int sequence = Integer.parseInt(user.substring(dash + 1));
+            if (next[writer] >= 0 && sequence != next[writer]) {
+                fail("작성자 " + writer + ": " + next[writer] + " 다음에 " + sequence + " (스냅샷 " + turns.size() + "턴)");
+            }
+            next[writer] = sequence + 1;
+            counts[writer]++;
+        }
+        return counts;
+    }
+}
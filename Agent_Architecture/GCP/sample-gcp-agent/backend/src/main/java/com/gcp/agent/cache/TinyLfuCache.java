@@ -0,0 +1,249 @@
+package com.gcp.agent.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * W-TinyLFU 정책의 크기 제한 캐시 (스레드 안전)
+ *
+ * - 새 항목은 작은 LRU 창(window, 용량의 1%)에 먼저 들어간다
+ * - 창에서 밀려난 항목은 본 영역(SLRU: probation 20% + protected 80%)의 희생 후보와 최근 빈도를 겨뤄,
+ *   더 자주 쓰인 쪽만 남는다. 한 번 쓰이고 마는 질의가 자주 쓰이는 항목을 밀어내지 못한다
+ * - probation에서 다시 적중하면 protected로 승격된다
+ * 조회는 ConcurrentHashMap에서 락 없이 읽고, 순서/빈도 갱신은 락을 얻을 수 있을 때만 한다(경합 시 생략).
+ */
+public final class TinyLfuCache<K, V> {
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final Map<K, Node<K, V>> data = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final int capacity;
+    private final int windowMax;
+    private final int protectedMax;
+
+    private final AccessQueue<K, V> window = new AccessQueue<>();
+    private final AccessQueue<K, V> probation = new AccessQueue<>();
+    private final AccessQueue<K, V> protectedQueue = new AccessQueue<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public TinyLfuCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("캐시 용량은 0보다 커야 합니다");
+        }
+        this.capacity = capacity;
+        this.windowMax = Math.max(1, capacity / 100);
+        this.protectedMax = (int) ((capacity - windowMax) * 0.8);
+        this.sketch = new FrequencySketch(capacity);
+    }
+
+    /**
+     * 캐시된 값. 없으면 null
+     */
+    public V get(K key) {
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        if (lock.tryLock()) {
+            try {
+                if (node.queue >= 0) {
+                    sketch.increment(key);
+                    onHit(node);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return node.value;
+    }
+
+    /**
+     * 캐시된 값 (없으면 null). 적중/실패 통계와 빈도, 접근 순서를 바꾸지 않는다
+     */
+    public V peek(K key) {
+        Node<K, V> node = data.get(key);
+        return node != null ? node.value : null;
+    }
+
+    public void put(K key, V value) {
+        lock.lock();
+        try {
+            sketch.increment(key);
+            Node<K, V> existing = data.get(key);
+            if (existing != null) {
+                existing.value = value;
+                onHit(existing);
+                return;
+            }
+            Node<K, V> node = new Node<>(key, value);
+            data.put(key, node);
+            window.addLast(node, WINDOW);
+            if (window.size > windowMax) {
+                admit(window.removeFirst());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            data.clear();
+            window.clear();
+            probation.clear();
+            protectedQueue.clear();
+            invalidations.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long size() {
+        return data.size();
+    }
+
+    public CacheStats stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        return new CacheStats(
+                data.size(),
+                capacity,
+                hitCount,
+                missCount,
+                requests == 0 ? 0 : (double) hitCount / requests,
+                evictions.sum(),
+                rejections.sum(),
+                invalidations.sum());
+    }
+
+    /**
+     * 창에서 밀려난 후보를 본 영역에 넣고, 본 영역이 넘치면 후보와 희생자 중 빈도가 낮은 쪽을 버린다
+     */
+    private void admit(Node<K, V> candidate) {
+        probation.addLast(candidate, PROBATION);
+        if (probation.size + protectedQueue.size <= capacity - windowMax) {
+            return;
+        }
+        Node<K, V> victim = probation.head.next != candidate ? probation.head.next : protectedQueue.head.next;
+        if (victim == null || victim == candidate) {
+            remove(candidate);
+            rejections.increment();
+            return;
+        }
+        if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+            remove(victim);
+            evictions.increment();
+        } else {
+            remove(candidate);
+            rejections.increment();
+        }
+    }
+
+    private void onHit(Node<K, V> node) {
+        if (node.queue == WINDOW) {
+            window.moveToLast(node);
+        } else if (node.queue == PROBATION) {
+            probation.unlink(node);
+            protectedQueue.addLast(node, PROTECTED);
+            if (protectedQueue.size > protectedMax) {
+                probation.addLast(protectedQueue.removeFirst(), PROBATION);
+            }
+        } else if (node.queue == PROTECTED) {
+            protectedQueue.moveToLast(node);
+        }
+    }
+
+    private void remove(Node<K, V> node) {
+        queueOf(node).unlink(node);
+        node.queue = -1;
+        data.remove(node.key, node);
+    }
+
+    private AccessQueue<K, V> queueOf(Node<K, V> node) {
+        if (node.queue == WINDOW) {
+            return window;
+        }
+        return node.queue == PROBATION ? probation : protectedQueue;
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private volatile V value;
+        private int queue = -1;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * 접근 순서 이중 연결 리스트 (head.next가 가장 오래된 항목)
+     */
+    private static final class AccessQueue<K, V> {
+        private final Node<K, V> head = new Node<>(null, null);
+        private Node<K, V> tail = head;
+        private int size;
+
+        void addLast(Node<K, V> node, int queue) {
+            node.queue = queue;
+            node.prev = tail;
+            node.next = null;
+            tail.next = node;
+            tail = node;
+            size++;
+        }
+
+        Node<K, V> removeFirst() {
+            Node<K, V> first = head.next;
+            unlink(first);
+            return first;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            if (node != tail) {
+                int queue = node.queue;
+                unlink(node);
+                addLast(node, queue);
+            }
+        }
+
+        void unlink(Node<K, V> node) {
+            node.prev.next = node.next;
+            if (node.next != null) {
+                node.next.prev = node.prev;
+            } else {
+                tail = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        void clear() {
+            for (Node<K, V> node = head.next; node != null; node = node.next) {
+                node.queue = -1;
+            }
+            head.next = null;
+            tail = head;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.gcp.agent.config;
+
+import com.gcp.agent.knowledge.IngestionConfig;
+import com.gcp.agent.knowledge.RetrievalConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Knowledge Base 검색 및 코퍼스 적재 구성
+ */
+@Configuration
+public class KnowledgeConfig {
+
+    @Bean
+    public RetrievalConfig retrievalConfig(@Value("${agent.kb.retriever:keyword}") String retriever,
+                                           @Value("${agent.kb.top-k:3}") int topK,
+                                           @Value("${agent.kb.bm25.k1:1.2}") double bm25K1,
+                                           @Value("${agent.kb.bm25.b:0.75}") double bm25B,
+                                           @Value("${agent.kb.vector.dimensions:256}") int vectorDimensions,
+                                           @Value("${agent.kb.vector.hnsw-m:16}") int hnswM,
+                                           @Value("${agent.kb.vector.ef-construction:100}") int hnswEfConstruction,
+                                           @Value("${agent.kb.vector.ef-search:64}") int hnswEfSearch,
+                                           @Value("${agent.kb.vector.min-score:0.1}") double vectorMinScore,
+                                           @Value("${agent.kb.hybrid.retrievers:keyword,bm25,vector}") List<String> hybridRetrievers,
+                                           @Value("${agent.kb.hybrid.deadline:100ms}") Duration hybridDeadline,
+                                           @Value("${agent.kb.hybrid.queue:256}") int hybridQueue,
+                                           @Value("${agent.kb.hybrid.rrf-k:60}") int rrfK,
+                                           @Value("${agent.kb.cache.enabled:true}") boolean cacheEnabled,
+                                           @Value("${agent.kb.cache.max-entries:10000}") int cacheMaxEntries) {
+        return new RetrievalConfig(retriever, topK, bm25K1, bm25B,
+                vectorDimensions, hnswM, hnswEfConstruction, hnswEfSearch, vectorMinScore,
+                hybridRetrievers.stream().map(String::trim).filter(name -> !name.isEmpty()).toList(),
+                hybridDeadline, hybridQueue, rrfK, cacheEnabled, cacheMaxEntries);
+    }
+
+    /**
+     * agent.kb.ingest.paths가 비어 있으면 기본 지식만 사용
+     */
+    @Bean
+    public IngestionConfig ingestionConfig(@Value("${agent.kb.ingest.paths:}") List<String> paths,
+                                           @Value("${agent.kb.ingest.chunk-chars:1200}") int chunkChars,
+                                           @Value("${agent.kb.ingest.parallelism:0}") int parallelism,
+                                           @Value("${agent.kb.segments.directory:}") String segmentDirectory) {
+        return new IngestionConfig(paths.stream().filter(p -> !p.isBlank()).map(p -> Path.of(p.trim())).toList(),
+                chunkChars, parallelism, segmentDirectory.isBlank() ? null : Path.of(segmentDirectory.trim()));
+    }
+}
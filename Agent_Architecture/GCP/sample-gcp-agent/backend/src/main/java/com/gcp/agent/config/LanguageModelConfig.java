@@ -0,0 +1,56 @@
+package com.gcp.agent.config;
+
+import com.gcp.agent.llm.HttpLanguageModelClient;
+import com.gcp.agent.llm.LanguageModelClient;
+import com.gcp.agent.llm.MockModelServer;
+import com.gcp.agent.llm.TemplateLanguageModelClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * 응답 생성 모델 구성 (내장 템플릿 또는 모델 서버)
+ */
+@Configuration
+public class LanguageModelConfig {
+
+    /**
+     * provider=http이면 endpoint의 모델 서버를, endpoint가 비어 있고 모의 서버가 켜져 있으면 함께 띄운 모의 서버를 호출.
+     * 모델 서버 호출이 실패하면 템플릿 응답으로 대체
+     */
+    @Bean
+    public LanguageModelClient languageModelClient(ObjectMapper objectMapper,
+                                                   @Value("${agent.llm.provider:template}") String provider,
+                                                   @Value("${agent.llm.endpoint:}") String endpoint,
+                                                   @Value("${agent.llm.timeout:30s}") Duration timeout,
+                                                   @Value("${agent.llm.max-tokens:512}") int maxTokens,
+                                                   @Value("${agent.llm.batch.max-size:8}") int batchSize,
+                                                   @Value("${agent.llm.batch.window:5ms}") Duration batchWindow,
+                                                   @Value("${agent.llm.mock.enabled:false}") boolean mockEnabled,
+                                                   @Value("${agent.llm.mock.port:18091}") int mockPort,
+                                                   @Value("${agent.llm.mock.latency:200ms}") Duration mockLatency,
+                                                   @Value("${agent.llm.mock.tokens-per-second:50}") double mockTokensPerSecond,
+                                                   @Value("${agent.llm.mock.concurrency:4}") int mockConcurrency)
+            throws IOException {
+        LanguageModelClient template = new TemplateLanguageModelClient();
+        if ("template".equalsIgnoreCase(provider.trim())) {
+            return template;
+        }
+        if (!"http".equalsIgnoreCase(provider.trim())) {
+            throw new IllegalArgumentException("알 수 없는 agent.llm.provider: " + provider + " (template, http)");
+        }
+        MockModelServer mock = endpoint.isBlank() && mockEnabled
+                ? MockModelServer.start(mockPort, mockLatency, mockTokensPerSecond, mockConcurrency) : null;
+        if (endpoint.isBlank() && mock == null) {
+            throw new IllegalArgumentException("agent.llm.provider=http에는 agent.llm.endpoint 또는 agent.llm.mock.enabled=true가 필요합니다");
+        }
+        URI uri = mock != null ? mock.endpoint() : URI.create(endpoint.trim());
+        return new HttpLanguageModelClient(uri, timeout, maxTokens, batchSize, batchWindow,
+                objectMapper.getFactory(), template, mock);
+    }
+}
@@ -0,0 +1,56 @@
+package com.gcp.agent.config;
+
+import com.gcp.agent.session.MappedSessionJournal;
+import com.gcp.agent.session.NoopSessionJournal;
+import com.gcp.agent.session.SessionJournal;
+import com.gcp.agent.session.SessionStore;
+import com.gcp.agent.session.SessionStoreConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * 세션 저장소와 영속화 계층(저널) 구성
+ */
+@Configuration
+public class SessionConfig {
+
+    @Bean
+    public SessionStore sessionStore(@Value("${agent.session.max-sessions:10000}") int maxSessions,
+                                     @Value("${agent.session.max-weight-bytes:67108864}") long maxWeightBytes,
+                                     @Value("${agent.session.max-turns:500}") int maxTurns,
+                                     @Value("${agent.session.hot-turns:16}") int hotTurns,
+                                     @Value("${agent.session.cold-block-turns:32}") int coldBlockTurns,
+                                     @Value("${agent.session.context-turns:10}") int contextTurns,
+                                     @Value("${agent.session.context-max-chars:4000}") int contextMaxChars,
+                                     @Value("${agent.session.idle-ttl:30m}") Duration idleTtl,
+                                     @Value("${agent.session.reaper-interval:1m}") Duration reaperInterval) {
+        return new SessionStore(new SessionStoreConfig(
+                maxSessions, maxWeightBytes, maxTurns, hotTurns, coldBlockTurns,
+                contextTurns, contextMaxChars, idleTtl, reaperInterval));
+    }
+
+    /**
+     * agent.session.journal.enabled=true면 메모리 맵 저널, 아니면 메모리 전용
+     */
+    @Bean
+    public SessionJournal sessionJournal(@Value("${agent.session.journal.enabled:false}") boolean enabled,
+                                         @Value("${agent.session.journal.directory:data/session-journal}") Path directory,
+                                         @Value("${agent.session.journal.segment-size:64MB}") DataSize segmentSize,
+                                         @Value("${agent.session.journal.flush-interval:10ms}") Duration flushInterval,
+                                         @Value("${agent.session.journal.wait-for-sync:true}") boolean waitForSync,
+                                         @Value("${agent.session.journal.compaction-interval:10m}") Duration compactionInterval,
+                                         @Value("${agent.session.idle-ttl:30m}") Duration idleTtl)
+            throws IOException {
+        if (!enabled) {
+            return new NoopSessionJournal();
+        }
+        return new MappedSessionJournal(directory, Math.toIntExact(segmentSize.toBytes()), flushInterval,
+                waitForSync, compactionInterval, idleTtl);
+    }
+}
@@ -0,0 +1,76 @@
+package com.gcp.agent.config;
+
+import com.gcp.agent.tool.ToolExecutionConfig;
+import com.gcp.agent.tool.ToolExecutor;
+import com.gcp.agent.tool.ToolRegistry;
+import com.gcp.agent.tool.ToolResultCache;
+import com.gcp.agent.tool.weather.WeatherClient;
+import com.gcp.agent.tool.weather.WeatherStubServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 도구 실행 격리(벌크헤드, 서킷 브레이커), 결과 캐시, 외부 API 클라이언트 구성
+ */
+@Configuration
+public class ToolConfig {
+
+    @Bean
+    public ToolExecutionConfig toolExecutionConfig(@Value("${agent.tools.bulkhead.threads:8}") int bulkheadThreads,
+                                                   @Value("${agent.tools.bulkhead.queue:16}") int bulkheadQueue,
+                                                   @Value("${agent.tools.breaker.window:50}") int breakerWindow,
+                                                   @Value("${agent.tools.breaker.minimum-calls:10}") int breakerMinimumCalls,
+                                                   @Value("${agent.tools.breaker.failure-rate:0.5}") double breakerFailureRate,
+                                                   @Value("${agent.tools.breaker.slow-call-rate:0.8}") double breakerSlowCallRate,
+                                                   @Value("${agent.tools.breaker.slow-call:1s}") Duration breakerSlowCall,
+                                                   @Value("${agent.tools.breaker.open-duration:30s}") Duration breakerOpenDuration,
+                                                   @Value("${agent.tools.breaker.half-open-calls:3}") int breakerHalfOpenCalls,
+                                                   @Value("${agent.tools.fault.tools:}") List<String> faultTools,
+                                                   @Value("${agent.tools.fault.latency:0ms}") Duration faultLatency,
+                                                   @Value("${agent.tools.fault.failure-rate:0}") double faultFailureRate) {
+        return new ToolExecutionConfig(bulkheadThreads, bulkheadQueue,
+                breakerWindow, breakerMinimumCalls, breakerFailureRate, breakerSlowCallRate,
+                breakerSlowCall, breakerOpenDuration, breakerHalfOpenCalls,
+                faultTools.stream().map(String::trim).filter(name -> !name.isEmpty()).toList(),
+                faultLatency, faultFailureRate);
+    }
+
+    @Bean
+    public ToolExecutor toolExecutor(ToolRegistry registry, ToolExecutionConfig config) {
+        return new ToolExecutor(registry.tools(), config);
+    }
+
+    /**
+     * 캐시 정책이 PURE/TTL인 도구마다 max-entries개까지 결과 보관
+     */
+    @Bean
+    public ToolResultCache toolResultCache(ToolRegistry registry,
+                                           @Value("${agent.tools.cache.enabled:true}") boolean enabled,
+                                           @Value("${agent.tools.cache.max-entries:1024}") int maxEntries) {
+        return new ToolResultCache(registry.tools(), enabled, maxEntries);
+    }
+
+    /**
+     * endpoint가 있으면 그 API를, 없고 스텁이 켜져 있으면 함께 띄운 로컬 스텁을 조회. 둘 다 없으면 샘플 데이터
+     */
+    @Bean
+    public WeatherClient weatherClient(ObjectMapper objectMapper,
+                                       @Value("${agent.tools.weather.endpoint:}") String endpoint,
+                                       @Value("${agent.tools.weather.timeout:1500ms}") Duration timeout,
+                                       @Value("${agent.tools.weather.stub.enabled:false}") boolean stubEnabled,
+                                       @Value("${agent.tools.weather.stub.port:18090}") int stubPort,
+                                       @Value("${agent.tools.weather.stub.latency:50ms}") Duration stubLatency,
+                                       @Value("${agent.tools.weather.stub.failure-rate:0}") double stubFailureRate)
+            throws IOException {
+        WeatherStubServer stub = stubEnabled ? WeatherStubServer.start(stubPort, stubLatency, stubFailureRate) : null;
+        URI uri = !endpoint.isBlank() ? URI.create(endpoint.trim()) : stub != null ? stub.endpoint() : null;
+        return new WeatherClient(uri, timeout, objectMapper.getFactory(), stub);
+    }
+}
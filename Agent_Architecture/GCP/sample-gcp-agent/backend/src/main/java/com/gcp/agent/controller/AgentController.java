@@ -1,15 +1,36 @@
 package com.gcp.agent.controller;
 
+import com.gcp.agent.cache.ResponseCacheStats;
+import com.gcp.agent.knowledge.IngestionReport;
+import com.gcp.agent.knowledge.KnowledgeStats;
 import com.gcp.agent.model.AgentRequest;
 import com.gcp.agent.model.AgentResponse;
+import com.gcp.agent.model.HistoryPage;
+import com.gcp.agent.routing.RouteRule;
+import com.gcp.agent.service.AgentEventSink;
 import com.gcp.agent.service.AgentOrchestrationService;
+import com.gcp.agent.service.KnowledgeBaseService;
+import com.gcp.agent.service.SessionService;
+import com.gcp.agent.service.ToolService;
+import com.gcp.agent.session.ConversationTurn;
+import com.gcp.agent.session.SessionStoreStats;
+import com.gcp.agent.tool.ToolStats;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 @Slf4j
 @RestController
@@ -18,7 +39,13 @@ import java.util.Map;
 @CrossOrigin(origins = "http://localhost:3002")
 public class AgentController {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 500;
+
     private final AgentOrchestrationService agentService;
+    private final SessionService sessionService;
+    private final KnowledgeBaseService knowledgeBaseService;
+    private final ToolService toolService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/chat")
     public ResponseEntity<AgentResponse> chat(@Valid @RequestBody AgentRequest request) {
@@ -27,9 +54,148 @@ public class AgentController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Agent 메시지 처리 (SSE 스트리밍): tool → citations → chunk(여러 번) → metadata 이벤트 순으로 전송
+     * 
+     * 첫 바이트는 처리 스레드가 시작하자마자 보내고, 연결이 끊기거나 시간이 지나면 남은 처리를 취소한다.
+     * 스트리밍 스레드가 모두 바쁘면 503으로 거절한다.
+     */
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> chatStream(@Valid @RequestBody AgentRequest request) {
+        log.info("Agent 스트리밍 요청 수신: {}", request.getMessage());
+
+        SseEmitter emitter = new SseEmitter(agentService.streamTimeout().toMillis());
+        Future<?> task;
+        try {
+            task = agentService.streamRequest(request.getMessage(), request.getSessionId(), new SseEventSink(emitter));
+        } catch (RejectedExecutionException e) {
+            log.warn("스트리밍 요청 거절: 처리 스레드 포화");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        // 정상 완료(complete)는 처리 스레드가 직접 호출하므로 취소하지 않음
+        emitter.onTimeout(() -> task.cancel(true));
+        emitter.onError(error -> task.cancel(true));
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * 세션 히스토리 페이지 조회 (응답의 nextCursor를 cursor로 넘겨 다음 페이지 조회)
+     */
+    @GetMapping("/sessions/{sessionId}/history")
+    public ResponseEntity<HistoryPage> history(@PathVariable String sessionId,
+                                               @RequestParam(required = false) Long cursor,
+                                               @RequestParam(defaultValue = "50") int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_HISTORY_PAGE_SIZE);
+        return sessionService.getSessionHistoryPage(sessionId, cursor, pageSize)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 세션 전체 히스토리를 NDJSON(한 줄에 턴 하나)으로 스트리밍 내보내기
+     */
+    @GetMapping(value = "/sessions/{sessionId}/history/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportHistory(@PathVariable String sessionId) {
+        return sessionService.getHistorySnapshot(sessionId)
+                .<ResponseEntity<StreamingResponseBody>>map(snapshot -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .body(out -> {
+                            for (ConversationTurn turn : snapshot) {
+                                out.write(objectMapper.writeValueAsBytes(turn));
+                                out.write('\n');
+                            }
+                        }))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/sessions/stats")
+    public ResponseEntity<SessionStoreStats> sessionStats() {
+        return ResponseEntity.ok(sessionService.getStats());
+    }
+
+    /**
+     * 설정된 지식 코퍼스를 다시 적재 (적재 중에도 검색은 이전 색인으로 계속 동작)
+     */
+    @PostMapping("/kb/reload")
+    public ResponseEntity<IngestionReport> reloadKnowledge() throws IOException {
+        return ResponseEntity.ok(knowledgeBaseService.reload());
+    }
+
+    /**
+     * 지식 색인과 검색 결과 캐시 현황 조회
+     */
+    @GetMapping("/kb/stats")
+    public ResponseEntity<KnowledgeStats> knowledgeStats() {
+        return ResponseEntity.ok(knowledgeBaseService.stats());
+    }
+
+    /**
+     * 도구 라우팅 규칙을 다시 읽어 적용 (agent.routing.rules-file)
+     */
+    @PostMapping("/routing/reload")
+    public ResponseEntity<List<RouteRule>> reloadRouting() throws IOException {
+        return ResponseEntity.ok(toolService.reloadRoutes());
+    }
+
+    /**
+     * 도구별 실행 현황 조회 (서킷 브레이커 상태, 실패/시간 초과/거절 횟수)
+     */
+    @GetMapping("/tools/stats")
+    public ResponseEntity<List<ToolStats>> toolStats() {
+        return ResponseEntity.ok(toolService.stats());
+    }
+
+    /**
+     * 응답 캐시 현황 조회 (정확/의미 일치 적중 수, 적중률, 아낀 처리 시간). 캐시를 껐으면 404
+     */
+    @GetMapping("/response-cache/stats")
+    public ResponseEntity<ResponseCacheStats> responseCacheStats() {
+        ResponseCacheStats stats = agentService.responseCacheStats();
+        return stats != null ? ResponseEntity.ok(stats) : ResponseEntity.notFound().build();
+    }
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> health() {
         return ResponseEntity.ok(Map.of("status", "UP", "service", "GCP Agent Backend"));
     }
-}
 
+    /**
+     * 오케스트레이터 이벤트를 SSE 이벤트(이름 + JSON 데이터)로 전송. 전송은 컨테이너에 쓸 때까지 블로킹한다
+     */
+    private record SseEventSink(SseEmitter emitter) implements AgentEventSink {
+
+        @Override
+        public void open() throws IOException {
+            try {
+                emitter.send(SseEmitter.event().comment("start"));
+            } catch (IllegalStateException e) {
+                throw new IOException("SSE 연결이 이미 종료되었습니다", e);
+            }
+        }
+
+        @Override
+        public void send(String event, Object data) throws IOException {
+            try {
+                emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+            } catch (IllegalStateException e) {
+                throw new IOException("SSE 연결이 이미 종료되었습니다", e);
+            }
+        }
+
+        @Override
+        public void complete() {
+            emitter.complete();
+        }
+
+        @Override
+        public void fail(Throwable error) {
+            try {
+                emitter.send(SseEmitter.event().name("error")
+                        .data(Map.of("message", "요청 처리 중 오류가 발생했습니다"), MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("SSE 오류 이벤트 전송 실패", e);
+            }
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.gcp.agent.knowledge;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 디스크의 지식 코퍼스를 한 줄씩 읽어 색인 단위 문서로 나누는 리더 (파일 전체를 메모리에 올리지 않음)
+ *
+ * - *.jsonl: 한 줄에 JSON 객체 하나. key(또는 id/title)와 content(또는 text) 필드를 읽는다
+ * - *.md: 제목(#) 단위 섹션으로 나누고, 섹션이 chunkChars를 넘으면 문단 경계에서 다시 자른다.
+ *   키는 "파일명#제목" (같은 섹션의 두 번째 조각부터 " (2)" 등을 붙임)
+ * 디렉터리를 주면 그 아래 대상 파일을 경로 순으로 모두 읽는다.
+ */
+public class CorpusReader {
+
+    private final ObjectMapper objectMapper;
+    private final int chunkChars;
+
+    public CorpusReader(ObjectMapper objectMapper, int chunkChars) {
+        if (chunkChars <= 0) {
+            throw new IllegalArgumentException("chunkChars는 0보다 커야 합니다");
+        }
+        this.objectMapper = objectMapper;
+        this.chunkChars = chunkChars;
+    }
+
+    /**
+     * 경로(파일 또는 디렉터리)의 문서를 읽어 sink로 넘기고, 읽은 파일 수를 반환
+     */
+    public int read(Path path, Consumer<KnowledgeDocument> sink) throws IOException {
+        if (!Files.isDirectory(path)) {
+            readFile(path, sink);
+            return 1;
+        }
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(path)) {
+            files = walk.filter(Files::isRegularFile).filter(CorpusReader::isSupported).sorted().toList();
+        }
+        for (Path file : files) {
+            readFile(file, sink);
+        }
+        return files.size();
+    }
+
+    private static boolean isSupported(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".jsonl") || name.endsWith(".md");
+    }
+
+    private void readFile(Path file, Consumer<KnowledgeDocument> sink) throws IOException {
+        String name = file.getFileName().toString();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (name.toLowerCase().endsWith(".jsonl")) {
+                readJsonLines(name, reader, sink);
+            } else {
+                readMarkdown(name, reader, sink);
+            }
+        }
+    }
+
+    private void readJsonLines(String name, BufferedReader reader, Consumer<KnowledgeDocument> sink) throws IOException {
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode node = objectMapper.readTree(line);
+            String content = text(node, "content", "text");
+            if (content == null || content.isBlank()) {
+                continue;
+            }
+            String key = text(node, "key", "id", "title");
+            sink.accept(new KnowledgeDocument(key != null ? key : name + "#" + lineNumber, content));
+        }
+    }
+
+    private void readMarkdown(String name, BufferedReader reader, Consumer<KnowledgeDocument> sink) throws IOException {
+        MarkdownChunker chunker = new MarkdownChunker(name, sink);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            chunker.accept(line);
+        }
+        chunker.flush();
+    }
+
+    private static String text(JsonNode node, String... fields) {
+        for (String field : fields) {
+            JsonNode value = node.get(field);
+            if (value != null && value.isValueNode()) {
+                return value.asText();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 제목/문단 경계에서 조각을 끊는 Markdown 상태 기계
+     *
+     * 코드 블록(``` 또는 ~~~) 안의 줄은 '#'으로 시작해도 제목으로 보지 않고 들여쓰기와 빈 줄을 그대로 둔다.
+     * 빈 줄 없이 긴 구간도 chunkChars를 넘으면 다음 줄 경계에서 끊는다.
+     */
+    private final class MarkdownChunker {
+
+        private final String fileName;
+        private final Consumer<KnowledgeDocument> sink;
+        private final StringBuilder chunk = new StringBuilder();
+        private String heading;
+        private int part;
+        /** 열린 코드 블록의 펜스 표시 (코드 블록 밖이면 null) */
+        private String fence;
+
+        MarkdownChunker(String fileName, Consumer<KnowledgeDocument> sink) {
+            this.fileName = fileName;
+            this.sink = sink;
+            this.heading = fileName;
+        }
+
+        void accept(String line) {
+            String trimmed = line.trim();
+            if (fence != null) {
+                if (trimmed.startsWith(fence)) {
+                    fence = null;
+                }
+                append(line.stripTrailing());
+                return;
+            }
+            if (trimmed.startsWith("```") || trimmed.startsWith("~~~")) {
+                fence = trimmed.substring(0, 3);
+                append(trimmed);
+                return;
+            }
+            if (trimmed.startsWith("#")) {
+                flush();
+                heading = trimmed.replaceFirst("^#+\\s*", "");
+                part = 0;
+                return;
+            }
+            if (trimmed.isEmpty() || trimmed.equals("---")) {
+                if (chunk.length() >= chunkChars) {
+                    flush();
+                }
+                return;
+            }
+            append(trimmed);
+        }
+
+        private void append(String line) {
+            if (chunk.length() >= chunkChars) {
+                flush();
+            }
+            if (chunk.length() > 0) {
+                chunk.append('\n');
+            }
+            chunk.append(line);
+        }
+
+        void flush() {
+            if (chunk.length() == 0) {
+                return;
+            }
+            part++;
+            String key = fileName + "#" + heading + (part > 1 ? " (" + part + ")" : "");
+            sink.accept(new KnowledgeDocument(key, heading + "\n" + chunk));
+            chunk.setLength(0);
+        }
+    }
+}
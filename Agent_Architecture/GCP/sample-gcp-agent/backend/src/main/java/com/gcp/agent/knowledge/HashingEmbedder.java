@@ -0,0 +1,87 @@
+package com.gcp.agent.knowledge;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 외부 모델 없이 동작하는 결정적 텍스트 임베더 (feature hashing, 불변, 스레드 안전)
+ *
+ * 분석기의 색인어(한글 bigram, 영문 단어)와 4글자 이상 영문 단어의 문자 trigram을 고정 차원에 해싱해 더하고
+ * L2 정규화한다. 같은 입력은 JVM과 무관하게 항상 같은 벡터가 되므로 내적이 곧 코사인 유사도다.
+ */
+public final class HashingEmbedder {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final float TRIGRAM_WEIGHT = 0.5f;
+
+    private final TextAnalyzer analyzer;
+    private final int dimensions;
+
+    public HashingEmbedder(TextAnalyzer analyzer, int dimensions) {
+        if (dimensions <= 0) {
+            throw new IllegalArgumentException("임베딩 차원은 0보다 커야 합니다");
+        }
+        this.analyzer = analyzer;
+        this.dimensions = dimensions;
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public float[] embedDocument(CharSequence text) {
+        return embed(analyzer.analyze(text));
+    }
+
+    /**
+     * 질의 임베딩 (별칭 확장 포함). 색인어가 하나도 없으면 영벡터
+     */
+    public float[] embedQuery(CharSequence query) {
+        return embed(analyzer.analyzeQuery(query));
+    }
+
+    private float[] embed(List<String> tokens) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        float[] vector = new float[dimensions];
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            String token = entry.getKey();
+            float weight = (float) (1 + Math.log(entry.getValue()));
+            add(vector, token, weight);
+            if (token.length() >= 4 && !isHangul(token.charAt(0))) {
+                for (int i = 0; i + 3 <= token.length(); i++) {
+                    add(vector, "#" + token.substring(i, i + 3), weight * TRIGRAM_WEIGHT);
+                }
+            }
+        }
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < dimensions; i++) {
+                vector[i] *= scale;
+            }
+        }
+        return vector;
+    }
+
+    private void add(float[] vector, String feature, float weight) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < feature.length(); i++) {
+            hash ^= feature.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        int bucket = (int) Long.remainderUnsigned(hash >>> 1, dimensions);
+        vector[bucket] += (hash & 1) == 0 ? weight : -weight;
+    }
+
+    private static boolean isHangul(char c) {
+        return c >= '가' && c <= '힣';
+    }
+}
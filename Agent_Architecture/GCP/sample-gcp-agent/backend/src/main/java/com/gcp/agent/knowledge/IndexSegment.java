@@ -0,0 +1,165 @@
+package com.gcp.agent.knowledge;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 불변 색인 세그먼트 읽기 (메모리 맵 또는 힙 버퍼, 스레드 안전)
+ *
+ * 열 때는 헤더만 검사하고, 사전/포스팅/문서는 조회 시점에 매핑된 페이지에서 절대 위치로 직접 읽는다.
+ * 그래서 세그먼트 크기와 무관하게 여는 비용이 거의 없다. 형식 (little-endian):
+ * <pre>
+ * 헤더      magic, version, docCount, termCount, totalLength(long), termIndex/termBytes/docLengths/docOffsets 위치
+ * 색인어표  색인어마다 (바이트 위치, 바이트 길이, 포스팅 위치, 문서 빈도) — UTF-8 바이트 순 정렬
+ * 색인어    UTF-8 바이트를 이어 붙인 영역
+ * 포스팅    색인어마다 (문서 번호, 빈도) 쌍을 문서 번호 오름차순으로
+ * 문서 길이 문서마다 색인어 수
+ * 문서 위치 문서마다 저장 영역 내 위치
+ * 저장 영역 문서마다 (키 길이, 키, 본문 길이, 본문)
+ * </pre>
+ */
+public final class IndexSegment {
+
+    static final int MAGIC = 0x4B425347;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 40;
+    static final int TERM_ENTRY_BYTES = 16;
+
+    private final String name;
+    private final ByteBuffer buffer;
+    private final int docCount;
+    private final int termCount;
+    private final long totalLength;
+    private final int termIndexOffset;
+    private final int docLengthsOffset;
+    private final int docOffsetsOffset;
+
+    /**
+     * 세그먼트 파일을 읽기 전용으로 매핑
+     */
+    public static IndexSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("2GB를 넘는 세그먼트는 지원하지 않습니다: " + file);
+            }
+            return new IndexSegment(file.getFileName().toString(),
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public IndexSegment(String name, ByteBuffer buffer) throws IOException {
+        this.name = name;
+        this.buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (this.buffer.capacity() < HEADER_BYTES || this.buffer.getInt(0) != MAGIC) {
+            throw new IOException("색인 세그먼트 형식이 아닙니다: " + name);
+        }
+        if (this.buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("지원하지 않는 세그먼트 버전: " + this.buffer.getInt(4) + " (" + name + ")");
+        }
+        this.docCount = this.buffer.getInt(8);
+        this.termCount = this.buffer.getInt(12);
+        this.totalLength = this.buffer.getLong(16);
+        this.termIndexOffset = this.buffer.getInt(24);
+        this.docLengthsOffset = this.buffer.getInt(32);
+        this.docOffsetsOffset = this.buffer.getInt(36);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int docCount() {
+        return docCount;
+    }
+
+    public int termCount() {
+        return termCount;
+    }
+
+    /**
+     * 전체 문서의 색인어 수 합 (평균 문서 길이 계산용)
+     */
+    public long totalLength() {
+        return totalLength;
+    }
+
+    public long sizeBytes() {
+        return buffer.capacity();
+    }
+
+    /**
+     * 색인어의 사전 순번. 없으면 -1
+     */
+    public int findTerm(byte[] term) {
+        int lo = 0;
+        int hi = termCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = compareTerm(mid, term);
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public int docFreq(int term) {
+        return buffer.getInt(termIndexOffset + term * TERM_ENTRY_BYTES + 12);
+    }
+
+    /**
+     * 색인어 포스팅의 시작 위치. i번째 쌍은 postingDoc/postingFreq(start, i)로 읽음
+     */
+    public int postingStart(int term) {
+        return buffer.getInt(termIndexOffset + term * TERM_ENTRY_BYTES + 8);
+    }
+
+    public int postingDoc(int start, int index) {
+        return buffer.getInt(start + index * 8);
+    }
+
+    public int postingFreq(int start, int index) {
+        return buffer.getInt(start + index * 8 + 4);
+    }
+
+    public int docLength(int doc) {
+        return buffer.getInt(docLengthsOffset + doc * 4);
+    }
+
+    public KnowledgeDocument document(int doc) {
+        int offset = buffer.getInt(docOffsetsOffset + doc * 4);
+        int keyLength = buffer.getInt(offset);
+        String key = readString(offset + 4, keyLength);
+        int contentOffset = offset + 4 + keyLength;
+        return new KnowledgeDocument(key, readString(contentOffset + 4, buffer.getInt(contentOffset)));
+    }
+
+    private int compareTerm(int term, byte[] target) {
+        int entry = termIndexOffset + term * TERM_ENTRY_BYTES;
+        int offset = buffer.getInt(entry);
+        int length = buffer.getInt(entry + 4);
+        int common = Math.min(length, target.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Integer.compare(buffer.get(offset + i) & 0xff, target[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, target.length);
+    }
+
+    private String readString(int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,10 @@
+package com.gcp.agent.knowledge;
+
+/**
+ * 검색 대상 지식 문서 (색인 단위)
+ *
+ * @param key     문서 식별자이자 인용 출처
+ * @param content 본문
+ */
+public record KnowledgeDocument(String key, String content) {
+}
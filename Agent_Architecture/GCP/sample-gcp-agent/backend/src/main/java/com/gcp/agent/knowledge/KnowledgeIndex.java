@@ -0,0 +1,19 @@
+package com.gcp.agent.knowledge;
+
+import java.util.List;
+
+/**
+ * 특정 시점의 지식 코퍼스와 그 위에 만들어진 검색기 (불변 스냅샷)
+ *
+ * 색인이 바뀌면 새 스냅샷 전체를 만든 뒤 참조 하나만 바꿔 끼우므로, 진행 중인 검색은 만들어지는 중인 색인을 보지 않는다.
+ *
+ * @param version   스냅샷 번호 (바뀔 때마다 증가)
+ * @param documents 색인된 문서
+ * @param retriever 검색기
+ */
+public record KnowledgeIndex(long version, List<KnowledgeDocument> documents, Retriever retriever) {
+
+    public KnowledgeIndex {
+        documents = List.copyOf(documents);
+    }
+}
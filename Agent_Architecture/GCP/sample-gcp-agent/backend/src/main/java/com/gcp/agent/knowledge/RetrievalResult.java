@@ -0,0 +1,65 @@
+package com.gcp.agent.knowledge;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 한 번의 검색으로 얻은 지식과 인용 정보 (불변)
+ *
+ * 본문과 인용이 같은 검색에서 나오므로 지식 베이스가 중간에 바뀌어도 서로 어긋나지 않는다.
+ * timings에는 결과를 만드는 데 참여한 검색기별 소요 시간이 담긴다.
+ */
+public record RetrievalResult(List<Passage> passages, List<String> citations, List<RetrieverTiming> timings) {
+
+    private static final RetrievalResult EMPTY = new RetrievalResult(List.of(), List.of(), List.of());
+
+    public RetrievalResult {
+        passages = List.copyOf(passages);
+        citations = List.copyOf(citations);
+        timings = List.copyOf(timings);
+    }
+
+    public static RetrievalResult empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 관련도 순으로 정렬된 지식에서 결과 생성 (인용은 지식과 같은 순서)
+     */
+    public static RetrievalResult of(List<Passage> passages) {
+        return of(passages, List.of());
+    }
+
+    public static RetrievalResult of(List<Passage> passages, List<RetrieverTiming> timings) {
+        if (passages.isEmpty() && timings.isEmpty()) {
+            return EMPTY;
+        }
+        List<String> citations = new ArrayList<>(passages.size());
+        for (Passage passage : passages) {
+            citations.add("Knowledge Base: " + passage.key());
+        }
+        return new RetrievalResult(passages, citations, timings);
+    }
+
+    /**
+     * 같은 지식과 인용에 검색기 소요 시간만 바꾼 결과 (캐시 적중 시 사용)
+     */
+    public RetrievalResult withTimings(List<RetrieverTiming> timings) {
+        return new RetrievalResult(passages, citations, timings);
+    }
+
+    public boolean isEmpty() {
+        return passages.isEmpty();
+    }
+
+    /**
+     * 지식 본문만 관련도 순으로 반환
+     */
+    public List<String> contents() {
+        List<String> contents = new ArrayList<>(passages.size());
+        for (Passage passage : passages) {
+            contents.add(passage.content());
+        }
+        return contents;
+    }
+}
@@ -0,0 +1,164 @@
+package com.gcp.agent.knowledge;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 문서를 모아 불변 색인 세그먼트(IndexSegment 형식)로 기록하는 작성기 (스레드 안전하지 않음)
+ *
+ * 색인어 사전은 UTF-8 바이트 순으로 정렬해 기록하므로 읽는 쪽은 매핑된 페이지에서 바로 이진 탐색한다.
+ */
+public final class SegmentWriter {
+
+    private final TextAnalyzer analyzer;
+    private final List<byte[]> keys = new ArrayList<>();
+    private final List<byte[]> contents = new ArrayList<>();
+    private final List<Integer> docLengths = new ArrayList<>();
+    private final Map<String, int[]> postings = new HashMap<>();
+    private final Map<String, Integer> postingSizes = new HashMap<>();
+    private long totalLength;
+
+    public SegmentWriter(TextAnalyzer analyzer) {
+        this.analyzer = analyzer;
+    }
+
+    public void add(KnowledgeDocument document) {
+        int doc = keys.size();
+        keys.add(document.key().getBytes(StandardCharsets.UTF_8));
+        contents.add(document.content().getBytes(StandardCharsets.UTF_8));
+        List<String> tokens = analyzer.analyze(document.key() + "\n" + document.content());
+        docLengths.add(tokens.size());
+        totalLength += tokens.size();
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        frequencies.forEach((term, freq) -> {
+            int size = postingSizes.getOrDefault(term, 0);
+            int[] pairs = postings.get(term);
+            if (pairs == null) {
+                pairs = new int[4];
+            } else if (size * 2 + 2 > pairs.length) {
+                pairs = Arrays.copyOf(pairs, pairs.length * 2);
+            }
+            pairs[size * 2] = doc;
+            pairs[size * 2 + 1] = freq;
+            postings.put(term, pairs);
+            postingSizes.put(term, size + 1);
+        });
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * 세그먼트 전체를 힙 버퍼로 직렬화 (읽기 위치 0)
+     */
+    public ByteBuffer toBuffer() {
+        int docCount = keys.size();
+        byte[][] terms = new byte[postings.size()][];
+        String[] termStrings = postings.keySet().toArray(new String[0]);
+        Integer[] order = new Integer[termStrings.length];
+        for (int i = 0; i < termStrings.length; i++) {
+            terms[i] = termStrings[i].getBytes(StandardCharsets.UTF_8);
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(terms[a], terms[b]));
+
+        long termBytesSize = 0;
+        long postingsSize = 0;
+        for (int i = 0; i < termStrings.length; i++) {
+            termBytesSize += terms[i].length;
+            postingsSize += (long) postingSizes.get(termStrings[i]) * 8;
+        }
+        long storedSize = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            storedSize += 8L + keys.get(doc).length + contents.get(doc).length;
+        }
+
+        long termIndexOffset = IndexSegment.HEADER_BYTES;
+        long termBytesOffset = termIndexOffset + (long) terms.length * IndexSegment.TERM_ENTRY_BYTES;
+        long postingsOffset = termBytesOffset + termBytesSize;
+        long docLengthsOffset = postingsOffset + postingsSize;
+        long docOffsetsOffset = docLengthsOffset + (long) docCount * 4;
+        long storedOffset = docOffsetsOffset + (long) docCount * 4;
+        long total = storedOffset + storedSize;
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalStateException("세그먼트가 2GB를 넘습니다. 세그먼트당 문서 수를 줄이세요");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) total).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(IndexSegment.MAGIC)
+                .putInt(IndexSegment.FORMAT_VERSION)
+                .putInt(docCount)
+                .putInt(terms.length)
+                .putLong(totalLength)
+                .putInt((int) termIndexOffset)
+                .putInt((int) termBytesOffset)
+                .putInt((int) docLengthsOffset)
+                .putInt((int) docOffsetsOffset);
+
+        int termBytesCursor = (int) termBytesOffset;
+        int postingsCursor = (int) postingsOffset;
+        for (int rank = 0; rank < order.length; rank++) {
+            int i = order[rank];
+            int df = postingSizes.get(termStrings[i]);
+            int entry = (int) termIndexOffset + rank * IndexSegment.TERM_ENTRY_BYTES;
+            buffer.putInt(entry, termBytesCursor)
+                    .putInt(entry + 4, terms[i].length)
+                    .putInt(entry + 8, postingsCursor)
+                    .putInt(entry + 12, df);
+            buffer.put(termBytesCursor, terms[i]);
+            termBytesCursor += terms[i].length;
+            int[] pairs = postings.get(termStrings[i]);
+            for (int p = 0; p < df * 2; p++) {
+                buffer.putInt(postingsCursor, pairs[p]);
+                postingsCursor += 4;
+            }
+        }
+
+        int storedCursor = (int) storedOffset;
+        for (int doc = 0; doc < docCount; doc++) {
+            buffer.putInt((int) docLengthsOffset + doc * 4, docLengths.get(doc));
+            buffer.putInt((int) docOffsetsOffset + doc * 4, storedCursor);
+            byte[] key = keys.get(doc);
+            byte[] content = contents.get(doc);
+            buffer.putInt(storedCursor, key.length).put(storedCursor + 4, key);
+            storedCursor += 4 + key.length;
+            buffer.putInt(storedCursor, content.length).put(storedCursor + 4, content);
+            storedCursor += 4 + content.length;
+        }
+        buffer.position(0);
+        return buffer;
+    }
+
+    /**
+     * 임시 파일에 쓴 뒤 원자적으로 이름을 바꿔, 읽는 쪽이 쓰다 만 세그먼트를 보지 않게 한다
+     */
+    public void writeTo(Path file) throws IOException {
+        ByteBuffer buffer = toBuffer();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
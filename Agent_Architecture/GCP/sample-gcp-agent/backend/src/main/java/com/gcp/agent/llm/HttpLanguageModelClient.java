@@ -0,0 +1,370 @@
+package com.gcp.agent.llm;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 모델 서버 HTTP 클라이언트 (클라우드 SDK에 묶이지 않는 중립 형식, 스레드 안전)
+ *
+ * - 애플리케이션 전체가 HttpClient 하나를 공유해 keep-alive 연결을 풀로 재사용한다
+ * - 동시에 들어온 generate 호출은 batch-window 동안 최대 batch-size개까지 모아 요청 하나로 보낸다(마이크로 배칭).
+ *   배치를 받지 못하는 서버는 batch-size=1로 두면 프롬프트마다 요청 하나가 된다
+ * - stream은 SSE 응답을 줄 단위로 읽어 조각이 도착하는 대로 넘긴다. 바이트는 줄 단위로 디코딩하므로
+ *   다중 바이트 문자가 네트워크 청크 경계에서 갈라져도 깨지지 않는다
+ * - 모델 서버 호출이 실패하면(스트리밍은 첫 조각을 넘기기 전까지) 대체 클라이언트의 응답을 쓴다
+ * 요청 형식:
+ *   POST {endpoint}/generate {"prompts":[..],"max_tokens":n} → {"completions":[{"text":".."}, ..]} (프롬프트 순서대로)
+ *   POST {endpoint}/stream {"prompt":"..","max_tokens":n} → text/event-stream, data: {"text":".."} ... data: [DONE]
+ */
+@Slf4j
+public final class HttpLanguageModelClient implements LanguageModelClient, AutoCloseable {
+
+    private static final String DONE = "[DONE]";
+
+    private final URI generateUri;
+    private final URI streamUri;
+    private final Duration timeout;
+    private final int maxTokens;
+    private final int batchSize;
+    private final long batchWindowNanos;
+    private final JsonFactory jsonFactory;
+    private final LanguageModelClient fallback;
+    private final MockModelServer server;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread batcher;
+
+    /**
+     * 응답을 기다리는 generate 호출 하나
+     */
+    private record Pending(String prompt, CompletableFuture<String> result) {
+    }
+
+    /**
+     * @param endpoint 모델 서버 주소 (/generate, /stream의 기준 경로)
+     * @param fallback 모델 서버 호출이 실패했을 때 쓸 클라이언트
+     * @param server   함께 띄운 로컬 모의 서버 (close 시 같이 종료, 없으면 null)
+     */
+    public HttpLanguageModelClient(URI endpoint, Duration timeout, int maxTokens, int batchSize, Duration batchWindow,
+                                   JsonFactory jsonFactory, LanguageModelClient fallback, MockModelServer server) {
+        if (batchSize <= 0 || maxTokens <= 0) {
+            throw new IllegalArgumentException("batch-size와 max-tokens는 0보다 커야 합니다");
+        }
+        String scheme = endpoint.getScheme();
+        if (!("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme)) || endpoint.getHost() == null) {
+            throw new IllegalArgumentException("모델 서버 주소는 http(s)://host[:port] 형식이어야 합니다: " + endpoint);
+        }
+        String base = endpoint.toString().replaceAll("/+$", "");
+        this.generateUri = URI.create(base + "/generate");
+        this.streamUri = URI.create(base + "/stream");
+        this.timeout = timeout;
+        this.maxTokens = maxTokens;
+        this.batchSize = batchSize;
+        this.batchWindowNanos = batchWindow.toNanos();
+        this.jsonFactory = jsonFactory;
+        this.fallback = fallback;
+        this.server = server;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(4, r -> {
+            Thread thread = new Thread(r, "llm-http-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .executor(executor)
+                .build();
+        this.batcher = new Thread(this::collectBatches, "llm-batcher");
+        batcher.setDaemon(true);
+        batcher.start();
+    }
+
+    @Override
+    public String name() {
+        return "http";
+    }
+
+    /**
+     * 배치에 실어 보내고 응답을 기다림 (제한 시간 초과/실패/인터럽트 시 대체 응답)
+     */
+    @Override
+    public String generate(Prompt prompt) {
+        Pending pending = new Pending(prompt.render(), new CompletableFuture<>());
+        queue.add(pending);
+        try {
+            return pending.result().get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            pending.result().cancel(false);
+            log.warn("모델 서버 응답 제한 시간({}) 초과, 대체 응답 사용", timeout);
+        } catch (ExecutionException e) {
+            log.warn("모델 서버 호출 실패, 대체 응답 사용: {}", e.getCause().toString());
+        } catch (InterruptedException e) {
+            pending.result().cancel(false);
+            Thread.currentThread().interrupt();
+        }
+        return fallback.generate(prompt);
+    }
+
+    /**
+     * 모델 서버의 SSE 응답을 조각 단위로 전달. 첫 조각 전에 실패하면 대체 클라이언트로 스트리밍하고,
+     * 조각을 넘긴 뒤 끊기면 LanguageModelException. 인터럽트되면 연결을 닫고 InterruptedIOException
+     */
+    @Override
+    public String stream(Prompt prompt, TokenSink sink) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(streamUri)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "text/event-stream")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(streamBody(prompt.render())))
+                .build();
+        HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("응답 생성이 취소되었습니다");
+        } catch (IOException e) {
+            log.warn("모델 서버 스트리밍 호출 실패, 대체 응답 사용: {}", e.toString());
+            return fallback.stream(prompt, sink);
+        }
+
+        StringBuilder text = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            if (response.statusCode() != 200) {
+                log.warn("모델 서버 스트리밍 응답 오류(HTTP {}), 대체 응답 사용", response.statusCode());
+                return fallback.stream(prompt, sink);
+            }
+            String line;
+            while ((line = readLine(reader, text)) != null) {
+                if (!line.startsWith("data:")) {
+                    continue;
+                }
+                String data = line.substring(5).trim();
+                if (DONE.equals(data)) {
+                    return text.toString();
+                }
+                String piece = readText(data);
+                if (!piece.isEmpty()) {
+                    text.append(piece);
+                    sink.accept(piece);
+                }
+            }
+        }
+        if (text.isEmpty()) {
+            log.warn("모델 서버 스트림이 내용 없이 끝나 대체 응답 사용");
+            return fallback.stream(prompt, sink);
+        }
+        throw new LanguageModelException("모델 서버 스트림이 [DONE] 전에 끊겼습니다");
+    }
+
+    @Override
+    public void close() {
+        batcher.interrupt();
+        executor.shutdownNow();
+        for (Pending pending; (pending = queue.poll()) != null; ) {
+            pending.result().completeExceptionally(new LanguageModelException("모델 클라이언트가 종료되었습니다"));
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    /**
+     * 모델 서버 응답 한 줄. 취소(인터럽트)는 InterruptedIOException, 읽기 실패는 LanguageModelException
+     */
+    private static String readLine(BufferedReader reader, CharSequence received) throws IOException {
+        try {
+            return reader.readLine();
+        } catch (IOException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("응답 생성이 취소되었습니다");
+            }
+            throw new LanguageModelException("모델 서버 스트림 읽기 실패 (" + received.length() + "자 수신 후)", e);
+        }
+    }
+
+    /**
+     * 첫 호출이 오면 batch-window 동안(또는 batch-size가 찰 때까지) 뒤따르는 호출을 모아 한 번에 보냄
+     */
+    private void collectBatches() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        try {
+            while (true) {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + batchWindowNanos;
+                while (batch.size() < batchSize) {
+                    Pending next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                batch.removeIf(pending -> pending.result().isDone());
+                if (!batch.isEmpty()) {
+                    List<Pending> ready = List.copyOf(batch);
+                    try {
+                        dispatch(ready);
+                    } catch (RuntimeException e) {
+                        // 이 배치만 실패 처리하고 계속 돈다 (배치 스레드가 끝나면 이후 호출이 모두 제한 시간까지 기다림)
+                        log.warn("모델 배치 전송 실패 ({}건): {}", ready.size(), e.toString());
+                        ready.forEach(pending -> pending.result().completeExceptionally(e));
+                    }
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("모델 배치 스레드 종료", e);
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+    }
+
+    private void dispatch(List<Pending> batch) {
+        HttpRequest request = HttpRequest.newBuilder(generateUri)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(generateBody(batch)))
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .thenApply(this::readCompletions)
+                .whenComplete((texts, error) -> {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    if (cause == null && texts.size() != batch.size()) {
+                        cause = new LanguageModelException("배치 응답 수가 다릅니다: 요청 " + batch.size()
+                                + "개, 응답 " + texts.size() + "개");
+                    }
+                    for (int i = 0; i < batch.size(); i++) {
+                        if (cause != null) {
+                            batch.get(i).result().completeExceptionally(cause);
+                        } else {
+                            batch.get(i).result().complete(texts.get(i));
+                        }
+                    }
+                });
+    }
+
+    private byte[] generateBody(List<Pending> batch) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator json = jsonFactory.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("prompts");
+            for (Pending pending : batch) {
+                json.writeString(pending.prompt());
+            }
+            json.writeEndArray();
+            json.writeNumberField("max_tokens", maxTokens);
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] streamBody(String prompt) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator json = jsonFactory.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("prompt", prompt);
+            json.writeNumberField("max_tokens", maxTokens);
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * {"completions":[{"text":".."}, ..]}에서 text만 순서대로 읽음 (원소가 문자열이어도 허용)
+     */
+    private List<String> readCompletions(HttpResponse<InputStream> response) {
+        List<String> texts = new ArrayList<>();
+        try (InputStream body = response.body(); JsonParser parser = jsonFactory.createParser(body)) {
+            if (response.statusCode() != 200) {
+                throw new LanguageModelException("모델 서버 응답 오류: HTTP " + response.statusCode());
+            }
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new LanguageModelException("모델 서버 응답이 JSON 객체가 아닙니다");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!"completions".equals(field) || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                for (JsonToken item; (item = parser.nextToken()) != JsonToken.END_ARRAY; ) {
+                    texts.add(item == JsonToken.START_OBJECT ? readTextField(parser) : parser.getValueAsString(""));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return texts;
+    }
+
+    /**
+     * SSE data 한 줄({"text":".."})의 text
+     */
+    private String readText(String data) {
+        try (JsonParser parser = jsonFactory.createParser(data)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new LanguageModelException("모델 서버 스트림 이벤트가 JSON 객체가 아닙니다: " + data);
+            }
+            return readTextField(parser);
+        } catch (IOException e) {
+            throw new LanguageModelException("모델 서버 스트림 이벤트를 읽지 못했습니다: " + data, e);
+        }
+    }
+
+    /**
+     * 현재 객체의 text 필드 (다른 필드는 건너뜀, 객체 끝까지 소비)
+     */
+    private static String readTextField(JsonParser parser) throws IOException {
+        String text = "";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("text".equals(field)) {
+                text = parser.getValueAsString("");
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return text;
+    }
+}
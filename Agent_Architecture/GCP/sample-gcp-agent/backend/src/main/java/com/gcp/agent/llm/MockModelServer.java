@@ -0,0 +1,357 @@
+package com.gcp.agent.llm;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 오프라인 지연/처리량 시험용 로컬 모의 모델 서버 (JDK HttpServer, 외부 의존성 없음)
+ *
+ * HttpLanguageModelClient의 요청 형식을 그대로 받는다. 응답은 프롬프트 본문(섹션 머리 줄과 지시 제외)을
+ * 단어 단위 토큰으로 되돌려주는 에코이며 max_tokens개에서 자른다.
+ * - 첫 토큰까지 latency, 이후 tokens-per-second 속도로 토큰을 낸다
+ * - 동시에 디코딩하는 요청은 concurrency개까지이며(가속기 하나를 흉내), 나머지는 자리가 날 때까지 기다린다.
+ *   배치 요청 하나는 한 자리만 쓰므로 마이크로 배칭의 효과가 그대로 드러난다
+ * - POST /generate: 배치 전체를 한 번에 디코딩한다고 보고 latency + (가장 긴 응답 토큰 수 / 속도) 뒤 응답
+ * - POST /stream: SSE로 토큰마다 data: {"text":".."}를 보내고 data: [DONE]으로 끝냄
+ * - GET /stats → 누적 generate 요청/프롬프트 수, 평균 배치 크기, 스트림 수, 최대 동시 디코딩 수
+ * agent.llm.mock.enabled=true로 앱과 함께 띄우거나, 단독으로 실행한다:
+ * java -cp target/classes com.gcp.agent.llm.MockModelServer [port] [latencyMillis] [tokensPerSecond] [concurrency]
+ */
+public final class MockModelServer implements AutoCloseable {
+
+    /** JSON 이스케이프 문자와 그 원래 문자 (같은 위치끼리 대응) */
+    private static final String ESCAPES = "\"\\/nrtbf";
+    private static final String UNESCAPED = "\"\\/\n\r\t\b\f";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long latencyNanos;
+    private final long tokenNanos;
+    private final Semaphore slots;
+
+    private final LongAdder generateRequests = new LongAdder();
+    private final LongAdder prompts = new LongAdder();
+    private final LongAdder streams = new LongAdder();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+
+    private MockModelServer(int port, Duration latency, double tokensPerSecond, int concurrency) throws IOException {
+        if (tokensPerSecond <= 0 || concurrency <= 0) {
+            throw new IllegalArgumentException("tokens-per-second와 concurrency는 0보다 커야 합니다");
+        }
+        this.slots = new Semaphore(concurrency, true);
+        this.latencyNanos = latency.toNanos();
+        this.tokenNanos = (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond);
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "mock-model");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/generate", this::generate);
+        server.createContext("/stream", this::stream);
+        server.createContext("/stats", this::stats);
+    }
+
+    /**
+     * 모의 서버 시작 (port가 0이면 빈 포트)
+     */
+    public static MockModelServer start(int port, Duration latency, double tokensPerSecond, int concurrency)
+            throws IOException {
+        MockModelServer mock = new MockModelServer(port, latency, tokensPerSecond, concurrency);
+        mock.server.start();
+        return mock;
+    }
+
+    /**
+     * 모델 서버 주소 (HttpLanguageModelClient의 endpoint로 사용)
+     */
+    public URI endpoint() {
+        return URI.create("http://localhost:" + server.getAddress().getPort());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void generate(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        List<String> batch = stringArray(body, "prompts");
+        if (batch.isEmpty()) {
+            respond(exchange, 400, "{\"error\":\"prompts is required\"}");
+            return;
+        }
+        int maxTokens = intField(body, "max_tokens", 512);
+        generateRequests.increment();
+        prompts.add(batch.size());
+        if (!enter()) {
+            exchange.close();
+            return;
+        }
+        try {
+            List<List<String>> outputs = new ArrayList<>(batch.size());
+            int longest = 0;
+            for (String prompt : batch) {
+                List<String> tokens = tokens(prompt, maxTokens);
+                outputs.add(tokens);
+                longest = Math.max(longest, tokens.size());
+            }
+            if (!sleepUntil(System.nanoTime() + latencyNanos + longest * tokenNanos)) {
+                exchange.close();
+                return;
+            }
+            StringBuilder json = new StringBuilder("{\"completions\":[");
+            for (int i = 0; i < outputs.size(); i++) {
+                json.append(i == 0 ? "" : ",").append("{\"text\":\"").append(escape(String.join("", outputs.get(i)))).append("\"}");
+            }
+            respond(exchange, 200, json.append("]}").toString());
+        } finally {
+            active.decrementAndGet();
+            slots.release();
+        }
+    }
+
+    private void stream(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        List<String> prompt = stringArray(body, "prompt");
+        if (prompt.isEmpty()) {
+            respond(exchange, 400, "{\"error\":\"prompt is required\"}");
+            return;
+        }
+        List<String> tokens = tokens(prompt.get(0), intField(body, "max_tokens", 512));
+        streams.increment();
+        if (!enter()) {
+            exchange.close();
+            return;
+        }
+        try {
+            long next = System.nanoTime() + latencyNanos;
+            if (!sleepUntil(next)) {
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (String token : tokens) {
+                    out.write(("data: {\"text\":\"" + escape(token) + "\"}\n\n").getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    next += tokenNanos;
+                    if (!sleepUntil(next)) {
+                        return;
+                    }
+                }
+                out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+            }
+        } finally {
+            active.decrementAndGet();
+            slots.release();
+        }
+    }
+
+    private void stats(HttpExchange exchange) throws IOException {
+        long requests = generateRequests.sum();
+        long promptCount = prompts.sum();
+        respond(exchange, 200, "{\"generateRequests\":" + requests
+                + ",\"prompts\":" + promptCount
+                + ",\"averageBatch\":" + (requests == 0 ? 0 : (double) promptCount / requests)
+                + ",\"streams\":" + streams.sum()
+                + ",\"maxConcurrent\":" + maxActive.get() + "}");
+    }
+
+    /**
+     * 디코딩 자리를 얻을 때까지 대기. 인터럽트되면 false
+     */
+    private boolean enter() {
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        int now = active.incrementAndGet();
+        maxActive.accumulateAndGet(now, Math::max);
+        return true;
+    }
+
+    /**
+     * 섹션 머리([..]) 줄과 [지시] 섹션을 뺀 프롬프트 단어들 (단어 뒤 공백 포함, 최대 maxTokens개)
+     */
+    private static List<String> tokens(String prompt, int maxTokens) {
+        List<String> tokens = new ArrayList<>();
+        boolean instruction = false;
+        for (String line : prompt.split("\n")) {
+            if (line.startsWith("[")) {
+                instruction = line.equals("[지시]");
+                continue;
+            }
+            if (instruction) {
+                continue;
+            }
+            for (String word : line.split("\\s+")) {
+                if (word.isEmpty()) {
+                    continue;
+                }
+                if (tokens.size() == maxTokens) {
+                    return tokens;
+                }
+                tokens.add(word + " ");
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * deadline(System.nanoTime 기준)까지 대기. 인터럽트되면 false
+     */
+    private static boolean sleepUntil(long deadline) {
+        try {
+            long remaining;
+            while ((remaining = deadline - System.nanoTime()) > 0) {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * 요청 JSON에서 name 필드의 문자열(또는 문자열 배열) 값. 이 서버가 받는 평평한 요청 형식만 다룬다
+     */
+    private static List<String> stringArray(String json, String name) {
+        List<String> values = new ArrayList<>();
+        int i = valueStart(json, name);
+        if (i < 0) {
+            return values;
+        }
+        boolean array = json.charAt(i) == '[';
+        if (array) {
+            i++;
+        }
+        while (i < json.length()) {
+            char c = json.charAt(i);
+            if (c == '"') {
+                StringBuilder value = new StringBuilder();
+                i = readString(json, i + 1, value);
+                values.add(value.toString());
+                if (!array) {
+                    break;
+                }
+            } else if (c == ']' || !array && !Character.isWhitespace(c)) {
+                break;
+            } else {
+                i++;
+            }
+        }
+        return values;
+    }
+
+    private static int intField(String json, String name, int defaultValue) {
+        int i = valueStart(json, name);
+        int end = i;
+        while (end >= 0 && end < json.length() && Character.isDigit(json.charAt(end))) {
+            end++;
+        }
+        return i < 0 || end == i ? defaultValue : Integer.parseInt(json.substring(i, end));
+    }
+
+    /**
+     * "name": 뒤 첫 값 문자의 위치 (없으면 -1)
+     */
+    private static int valueStart(String json, String name) {
+        int key = json.indexOf('"' + name + '"');
+        if (key < 0) {
+            return -1;
+        }
+        int i = json.indexOf(':', key + name.length() + 2);
+        if (i < 0) {
+            return -1;
+        }
+        i++;
+        while (i < json.length() && Character.isWhitespace(json.charAt(i))) {
+            i++;
+        }
+        return i < json.length() ? i : -1;
+    }
+
+    /**
+     * 여는 따옴표 다음 위치부터 JSON 문자열을 읽어 out에 담고, 닫는 따옴표 다음 위치를 반환
+     */
+    private static int readString(String json, int i, StringBuilder out) {
+        while (i < json.length()) {
+            char c = json.charAt(i++);
+            if (c == '"') {
+                return i;
+            }
+            if (c != '\\' || i >= json.length()) {
+                out.append(c);
+                continue;
+            }
+            char e = json.charAt(i++);
+            if (e == 'u') {
+                out.append((char) Integer.parseInt(json.substring(i, i + 4), 16));
+                i += 4;
+            } else {
+                int known = ESCAPES.indexOf(e);
+                out.append(known >= 0 ? UNESCAPED.charAt(known) : e);
+            }
+        }
+        return i;
+    }
+
+    private static String escape(String value) {
+        StringBuilder out = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            int special = UNESCAPED.indexOf(c);
+            if (special >= 0) {
+                out.append('\\').append(ESCAPES.charAt(special));
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 18091;
+        Duration latency = Duration.ofMillis(args.length > 1 ? Long.parseLong(args[1]) : 200);
+        double tokensPerSecond = args.length > 2 ? Double.parseDouble(args[2]) : 50;
+        int concurrency = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        MockModelServer mock = start(port, latency, tokensPerSecond, concurrency);
+        System.out.println("모의 모델 서버 시작: " + mock.endpoint() + " (latency=" + latency
+                + ", tokensPerSecond=" + tokensPerSecond + ", concurrency=" + concurrency + ")");
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,47 @@
+package com.gcp.agent.llm;
+
+import java.util.List;
+
+/**
+ * Vertex AI(Gemini) 응답 생성을 모킹한 템플릿 응답
+ * 모델 서버를 쓰지 않을 때의 기본값이자, 모델 서버 호출이 실패했을 때의 대체 응답
+ */
+public class TemplateLanguageModelClient implements LanguageModelClient {
+
+    @Override
+    public String name() {
+        return "template";
+    }
+
+    @Override
+    public String generate(Prompt prompt) {
+        String message = prompt.message();
+        List<String> kbResults = prompt.knowledge();
+        StringBuilder sb = new StringBuilder();
+
+        if (prompt.hasToolOutput()) {
+            sb.append(prompt.toolOutput());
+        } else if (!kbResults.isEmpty()) {
+            sb.append(kbResults.get(0));
+        } else {
+            String lower = message.toLowerCase();
+            if (lower.contains("안녕") || lower.contains("hello")) {
+                return "안녕하세요! GCP AI Agent입니다. 무엇을 도와드릴까요?";
+            }
+            if (lower.contains("도움") || lower.contains("help")) {
+                return """
+                        저는 다음과 같은 기능을 제공할 수 있습니다:
+                        - 계산기: 예) "5 + 3 계산해줘"
+                        - 날씨 조회(모킹)
+                        - 시간 조회
+                        - GCP / Vertex AI / Agent Engine 관련 기본 설명
+                        """;
+            }
+            sb.append("GCP 기반 에이전트로서 '")
+                    .append(message)
+                    .append("'에 대해 답변을 시도합니다. 더 구체적인 질문을 주시면 좋습니다.");
+        }
+
+        return sb.toString();
+    }
+}
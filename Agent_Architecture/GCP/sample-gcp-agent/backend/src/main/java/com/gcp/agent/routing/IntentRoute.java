@@ -0,0 +1,29 @@
+package com.gcp.agent.routing;
+
+import java.util.List;
+
+/**
+ * 라우팅 결과
+ *
+ * @param tool       선택된 도구 이름 (해당 없으면 "none")
+ * @param confidence 선택 신뢰도 (0~1)
+ * @param triggers   선택에 쓰인 문구/패턴
+ */
+public record IntentRoute(String tool, double confidence, List<String> triggers) {
+
+    public static final String NONE = "none";
+
+    private static final IntentRoute NO_ROUTE = new IntentRoute(NONE, 0, List.of());
+
+    public IntentRoute {
+        triggers = List.copyOf(triggers);
+    }
+
+    public static IntentRoute none() {
+        return NO_ROUTE;
+    }
+
+    public boolean isNone() {
+        return NONE.equals(tool);
+    }
+}
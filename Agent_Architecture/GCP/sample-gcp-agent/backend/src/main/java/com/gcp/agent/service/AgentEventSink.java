@@ -0,0 +1,43 @@
+package com.gcp.agent.service;
+
+import java.io.IOException;
+
+/**
+ * 스트리밍 응답 이벤트를 받는 쪽 (예: SSE 연결)
+ *
+ * send는 전송을 마칠 때까지 블로킹해도 되며, 그동안 다음 이벤트는 만들어지지 않는다.
+ */
+public interface AgentEventSink {
+
+    /** 도구 실행 결과: {"tool": 이름, "result": 결과 맵} */
+    String TOOL = "tool";
+
+    /** 출처 목록 */
+    String CITATIONS = "citations";
+
+    /** 응답 텍스트 조각: {"text": 조각} */
+    String CHUNK = "chunk";
+
+    /** 최종 AgentResponse (전체 응답, 세션 ID, 메타데이터) */
+    String METADATA = "metadata";
+
+    /**
+     * 처리를 시작하면 가장 먼저 호출 (첫 바이트를 보내 응답을 연다). 연결이 끊겼으면 IOException
+     */
+    void open() throws IOException;
+
+    /**
+     * 이벤트 하나 전송. 연결이 끊겼으면 IOException
+     */
+    void send(String event, Object data) throws IOException;
+
+    /**
+     * 마지막 이벤트까지 보낸 뒤 호출
+     */
+    void complete();
+
+    /**
+     * 처리 중 오류로 스트림을 끝낼 때 호출
+     */
+    void fail(Throwable error);
+}
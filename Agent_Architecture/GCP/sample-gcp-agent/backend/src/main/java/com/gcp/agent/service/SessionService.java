@@ -1,39 +1,107 @@
 package com.gcp.agent.service;
 
+import com.gcp.agent.model.HistoryPage;
+import com.gcp.agent.session.ConversationTurn;
+import com.gcp.agent.session.HistorySnapshot;
+import com.gcp.agent.session.Session;
+import com.gcp.agent.session.SessionJournal;
+import com.gcp.agent.session.SessionStore;
+import com.gcp.agent.session.SessionStoreStats;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * 세션/메모리 관리 (Firestore / Memorystore 컨셉을 인메모리로 모킹)
  */
 @Service
+@RequiredArgsConstructor
 public class SessionService {
 
-    private final Map<String, List<Map<String, String>>> sessions = new ConcurrentHashMap<>();
+    private final SessionStore sessions;
+    private final SessionJournal journal;
+
+    /**
+     * 기동 시 저널에 남은 턴으로 세션 복구
+     */
+    @PostConstruct
+    public void recover() {
+        journal.replay(sessions::restore, sessions::discard);
+    }
 
     public String createSession() {
-        String id = UUID.randomUUID().toString();
-        sessions.put(id, new ArrayList<>());
-        return id;
+        return sessions.create().getId();
     }
 
     public boolean sessionExists(String sessionId) {
-        return sessions.containsKey(sessionId);
+        return sessions.contains(sessionId);
     }
 
     public void addToSession(String sessionId, String userMessage, String agentResponse) {
-        sessions.computeIfAbsent(sessionId, k -> new ArrayList<>());
-        Map<String, String> conv = new HashMap<>();
-        conv.put("user", userMessage);
-        conv.put("agent", agentResponse);
-        conv.put("timestamp", new Date().toString());
-        sessions.get(sessionId).add(conv);
+        ConversationTurn turn = new ConversationTurn(userMessage, agentResponse, System.currentTimeMillis());
+        if (!sessions.isLive(sessionId)) {
+            // 축출/만료된 세션 ID로 다시 시작하면 저널에 남은 이전 턴이 재기동 때 되살아나지 않도록 폐기 기록
+            journal.discard(sessionId);
+        }
+        journal.append(sessionId, turn);
+        sessions.append(sessionId, turn);
+    }
+
+    public List<ConversationTurn> getSessionHistory(String sessionId) {
+        Session session = sessions.get(sessionId);
+        return session != null ? session.history() : List.of();
+    }
+
+    /**
+     * 세션 히스토리 페이지 조회 (cursor는 턴 시퀀스, null이면 처음부터)
+     */
+    public Optional<HistoryPage> getSessionHistoryPage(String sessionId, Long cursor, int limit) {
+        return getHistorySnapshot(sessionId).map(snapshot -> {
+            long from = Math.max(cursor != null ? cursor : 0, snapshot.firstSequence());
+            List<ConversationTurn> turns = snapshot.page(from, limit);
+            long next = from + turns.size();
+            boolean hasMore = next < snapshot.endSequence();
+            return HistoryPage.builder()
+                    .sessionId(sessionId)
+                    .turns(turns)
+                    .cursor(from)
+                    .nextCursor(hasMore ? next : null)
+                    .hasMore(hasMore)
+                    .build();
+        });
+    }
+
+    /**
+     * 세션 전체 히스토리 스냅샷 (내보내기용, 세션 접근 시각은 갱신하지 않음)
+     */
+    public Optional<HistorySnapshot> getHistorySnapshot(String sessionId) {
+        return Optional.ofNullable(sessions.peek(sessionId)).map(Session::historySnapshot);
+    }
+
+    /**
+     * 세션 컨텍스트 (컨텍스트 윈도우 전체, 턴 추가 시점에 미리 렌더링된 값)
+     */
+    public String getSessionContext(String sessionId) {
+        Session session = sessions.get(sessionId);
+        return session != null ? session.contextWindow().render() : "";
+    }
+
+    /**
+     * 세션 컨텍스트 (최근 N개 대화, 컨텍스트 윈도우 상한 내에서)
+     */
+    public String getSessionContext(String sessionId, int recentCount) {
+        Session session = sessions.get(sessionId);
+        return session != null ? session.contextWindow().renderRecent(recentCount) : "";
     }
 
-    public List<Map<String, String>> getSessionHistory(String sessionId) {
-        return sessions.getOrDefault(sessionId, new ArrayList<>());
+    /**
+     * 세션 저장소 현황 (세션 수, 메모리 추정치, 축출 카운터)
+     */
+    public SessionStoreStats getStats() {
+        return sessions.stats();
     }
 }
 
@@ -0,0 +1,218 @@
+package com.gcp.agent.session;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 링 버퍼(hot tier)에서 밀려난 오래된 턴을 압축 블록으로 보관하는 cold tier
+ *
+ * 턴은 먼저 직렬화된 바이트로 스테이징 버퍼에 쌓이고, 블록 크기만큼 모이면 Deflate로 압축된다.
+ * 보관 턴 수 상한을 넘으면 가장 오래된 블록부터 버린다. 동기화는 호출 측(세션 쓰기 락) 책임.
+ */
+public class ColdTurnArchive {
+
+    /** 블록 객체, 배열 헤더 등의 대략적인 고정 비용 */
+    private static final long BLOCK_OVERHEAD = 64;
+
+    /**
+     * 압축된 턴 블록 (불변)
+     */
+    public record Block(byte[] data, int rawLength, int turnCount) {
+    }
+
+    /**
+     * 특정 시점의 cold tier 사본 (압축 블록은 공유, 스테이징은 복사)
+     */
+    public record Snapshot(Block[] blocks, byte[] staging, int stagingTurns) {
+
+        public int turnCount() {
+            int count = stagingTurns;
+            for (Block block : blocks) {
+                count += block.turnCount();
+            }
+            return count;
+        }
+
+        /**
+         * 블록 i번째의 턴을 오래된 순으로 복원
+         */
+        public List<ConversationTurn> decodeBlock(int index) {
+            Block block = blocks[index];
+            List<ConversationTurn> turns = new ArrayList<>(block.turnCount());
+            decodeInto(inflate(block), turns);
+            return turns;
+        }
+
+        /**
+         * 아직 압축되지 않은 스테이징 턴을 오래된 순으로 복원
+         */
+        public List<ConversationTurn> decodeStaging() {
+            List<ConversationTurn> turns = new ArrayList<>(stagingTurns);
+            decodeInto(ByteBuffer.wrap(staging), turns);
+            return turns;
+        }
+    }
+
+    private final int blockTurns;
+    private final int maxTurns;
+    private final ArrayDeque<Block> blocks = new ArrayDeque<>();
+    private byte[] staging = new byte[256];
+    private int stagingLength;
+    private int stagingTurns;
+    private int blockedTurns;
+    private long blockRawBytes;
+    private long blockCompressedBytes;
+
+    /**
+     * @param blockTurns 한 블록에 담을 턴 수
+     * @param maxTurns   cold tier에 보관할 최대 턴 수 (0이면 밀려난 턴을 바로 버림)
+     */
+    public ColdTurnArchive(int blockTurns, int maxTurns) {
+        if (blockTurns <= 0 || maxTurns < 0) {
+            throw new IllegalArgumentException("cold tier 설정이 올바르지 않습니다");
+        }
+        this.blockTurns = blockTurns;
+        this.maxTurns = maxTurns;
+    }
+
+    /**
+     * 턴을 보관하고 가중치(바이트 추정치) 변화량을 반환
+     */
+    public long add(ConversationTurn turn) {
+        if (maxTurns == 0) {
+            return 0;
+        }
+        long before = estimatedBytes();
+        append(turn);
+        stagingTurns++;
+        if (stagingTurns >= blockTurns) {
+            seal();
+        }
+        while (!blocks.isEmpty() && turnCount() - blocks.peekFirst().turnCount() >= maxTurns) {
+            Block dropped = blocks.pollFirst();
+            blockedTurns -= dropped.turnCount();
+            blockRawBytes -= dropped.rawLength();
+            blockCompressedBytes -= dropped.data().length;
+        }
+        return estimatedBytes() - before;
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(blocks.toArray(new Block[0]), Arrays.copyOf(staging, stagingLength), stagingTurns);
+    }
+
+    public int turnCount() {
+        return blockedTurns + stagingTurns;
+    }
+
+    public int blockCount() {
+        return blocks.size();
+    }
+
+    /**
+     * 압축 전 바이트 수 (스테이징 포함)
+     */
+    public long rawBytes() {
+        return blockRawBytes + stagingLength;
+    }
+
+    /**
+     * 실제 보관 중인 바이트 수 (압축 블록 + 스테이징)
+     */
+    public long storedBytes() {
+        return blockCompressedBytes + stagingLength;
+    }
+
+    public long estimatedBytes() {
+        return storedBytes() + (long) blocks.size() * BLOCK_OVERHEAD + (staging.length - stagingLength);
+    }
+
+    private void seal() {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(staging, 0, stagingLength);
+            deflater.finish();
+            byte[] out = new byte[Math.max(64, stagingLength / 2)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == out.length) {
+                    out = Arrays.copyOf(out, out.length * 2);
+                }
+                length += deflater.deflate(out, length, out.length - length);
+            }
+            Block block = new Block(Arrays.copyOf(out, length), stagingLength, stagingTurns);
+            blocks.addLast(block);
+            blockedTurns += block.turnCount();
+            blockRawBytes += block.rawLength();
+            blockCompressedBytes += block.data().length;
+        } finally {
+            deflater.end();
+        }
+        stagingLength = 0;
+        stagingTurns = 0;
+        if (staging.length > 4096) {
+            staging = new byte[256];
+        }
+    }
+
+    private void append(ConversationTurn turn) {
+        byte[] user = bytes(turn.user());
+        byte[] agent = bytes(turn.agent());
+        ensureCapacity(8 + 4 + user.length + 4 + agent.length);
+        ByteBuffer buffer = ByteBuffer.wrap(staging, stagingLength, staging.length - stagingLength);
+        buffer.putLong(turn.timestamp());
+        buffer.putInt(user.length).put(user);
+        buffer.putInt(agent.length).put(agent);
+        stagingLength = buffer.position();
+    }
+
+    private void ensureCapacity(int extra) {
+        if (stagingLength + extra > staging.length) {
+            staging = Arrays.copyOf(staging, Math.max(staging.length * 2, stagingLength + extra));
+        }
+    }
+
+    private static ByteBuffer inflate(Block block) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(block.data());
+            byte[] raw = new byte[block.rawLength()];
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                length += inflater.inflate(raw, length, raw.length - length);
+            }
+            return ByteBuffer.wrap(raw, 0, length);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("cold tier 블록 복원 실패", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void decodeInto(ByteBuffer buffer, List<ConversationTurn> out) {
+        while (buffer.hasRemaining()) {
+            long timestamp = buffer.getLong();
+            String user = readString(buffer);
+            String agent = readString(buffer);
+            out.add(new ConversationTurn(user, agent, timestamp));
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,24 @@
+package com.gcp.agent.session;
+
+/**
+ * 대화 한 턴 (사용자 메시지, 에이전트 응답, epoch millis 타임스탬프)
+ */
+public record ConversationTurn(String user, String agent, long timestamp) {
+
+    /** 레코드 헤더 + 참조 2개 + long */
+    private static final long RECORD_OVERHEAD = 32;
+
+    /** String 객체 + 내부 byte[] 헤더 */
+    private static final long STRING_OVERHEAD = 40;
+
+    /**
+     * 힙 점유량 추정치 (한글이 섞이면 UTF-16으로 저장되므로 문자당 2바이트로 계산)
+     */
+    public long estimatedBytes() {
+        return RECORD_OVERHEAD + stringBytes(user) + stringBytes(agent);
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : STRING_OVERHEAD + 2L * value.length();
+    }
+}
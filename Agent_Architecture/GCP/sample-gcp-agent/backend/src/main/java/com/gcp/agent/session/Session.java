@@ -0,0 +1,173 @@
+package com.gcp.agent.session;
+
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * 세션 하나의 대화 기록과 마지막 접근 시각을 보관하는 엔트리
+ *
+ * 최근 턴은 링 버퍼(hot tier)에 객체로 두고, 밀려난 턴은 압축 블록(cold tier)으로 옮긴다.
+ * 쓰기(턴 추가, 분리)는 세션 ID로 고른 스트라이프 락 아래에서 순서대로 진행되고,
+ * 최근 턴 읽기는 락 없이 링 버퍼 스냅샷을 뜬다. 전체 히스토리는 요청될 때만 cold tier를 복원한다.
+ */
+public class Session {
+
+    /** 세션 엔트리 자체(맵 노드, 링 버퍼 배열 등)의 대략적인 고정 비용 */
+    static final long BASE_WEIGHT = 256;
+
+    /** 이미 저장소에서 분리된 세션에 추가하려 했을 때 {@link #append}의 반환값 */
+    static final long DETACHED = Long.MIN_VALUE;
+
+    /** 낙관적 읽기가 연속으로 실패하면 락을 잡고 읽는다 */
+    private static final int OPTIMISTIC_READ_ATTEMPTS = 4;
+
+    private final String id;
+    private final long createdAt;
+    private final TurnRingBuffer turns;
+    private final ColdTurnArchive coldTurns;
+    private final ContextWindow contextWindow;
+    private final Lock writeLock;
+    private volatile long lastAccessedAt;
+    private long weight = BASE_WEIGHT;
+    private boolean detached;
+
+    Session(String id, long now, SessionStoreConfig config, Lock writeLock) {
+        this.id = id;
+        this.createdAt = now;
+        this.lastAccessedAt = now;
+        this.turns = new TurnRingBuffer(config.hotTurns());
+        this.coldTurns = new ColdTurnArchive(config.coldBlockTurns(), Math.max(0, config.maxTurns() - config.hotTurns()));
+        this.contextWindow = new ContextWindow(config.contextTurns(), config.contextMaxChars());
+        this.writeLock = writeLock;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getLastAccessedAt() {
+        return lastAccessedAt;
+    }
+
+    /**
+     * 보관 중인 전체 턴 (오래된 순, 읽기 전용 사본). cold tier 블록을 복원하므로 최근 턴 조회보다 비싸다
+     */
+    public List<ConversationTurn> history() {
+        return historySnapshot().toList();
+    }
+
+    /**
+     * 전체 히스토리 스냅샷. cold tier는 블록 참조만 복사하고 복원은 읽을 때 한다
+     */
+    public HistorySnapshot historySnapshot() {
+        writeLock.lock();
+        try {
+            return new HistorySnapshot(coldTurns.snapshot(), turns.tryRecent(Integer.MAX_VALUE), turns.appended());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 최근 count개 턴 (오래된 순, 읽기 전용 사본). hot tier 안이면 락 없이 읽는다
+     */
+    public List<ConversationTurn> recentTurns(int count) {
+        if (count > turns.capacity()) {
+            List<ConversationTurn> all = history();
+            return all.subList(Math.max(0, all.size() - count), all.size());
+        }
+        for (int attempt = 0; attempt < OPTIMISTIC_READ_ATTEMPTS; attempt++) {
+            List<ConversationTurn> snapshot = turns.tryRecent(count);
+            if (snapshot != null) {
+                return snapshot;
+            }
+        }
+        writeLock.lock();
+        try {
+            return turns.tryRecent(count);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * hot/cold tier별 사용량
+     */
+    public TierUsage tierUsage() {
+        writeLock.lock();
+        try {
+            return new TierUsage(turns.size(), coldTurns.turnCount(), coldTurns.blockCount(),
+                    coldTurns.rawBytes(), coldTurns.storedBytes());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 세션 하나의 tier별 사용량
+     */
+    public record TierUsage(int hotTurns, int coldTurns, int coldBlocks, long coldRawBytes, long coldStoredBytes) {
+    }
+
+    /**
+     * 턴 추가 시점에 갱신되는 컨텍스트 윈도우
+     */
+    public ContextWindow contextWindow() {
+        return contextWindow;
+    }
+
+    void touch(long now) {
+        lastAccessedAt = now;
+    }
+
+    /**
+     * 저널 복구 시 마지막 접근 시각을 기록된 턴 시각으로 맞춤 (앞당기지는 않음)
+     */
+    void restoreAccess(long timestamp) {
+        if (timestamp > lastAccessedAt) {
+            lastAccessedAt = timestamp;
+        }
+    }
+
+    /**
+     * 턴을 추가하고 가중치(바이트 추정치) 변화량을 반환. 링 버퍼에서 밀려난 턴은 cold tier로 옮겨
+     * 압축된 크기로 다시 계산되고, 컨텍스트 윈도우 크기 변화도 반영된다.
+     * 이미 분리된 세션이면 추가하지 않고 {@link #DETACHED} 반환
+     */
+    long append(ConversationTurn turn) {
+        writeLock.lock();
+        try {
+            if (detached) {
+                return DETACHED;
+            }
+            long delta = turn.estimatedBytes();
+            ConversationTurn overwritten = turns.add(turn);
+            if (overwritten != null) {
+                delta -= overwritten.estimatedBytes();
+                delta += coldTurns.add(overwritten);
+            }
+            delta += contextWindow.append(turn);
+            weight += delta;
+            return delta;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 저장소에서 분리하고 지금까지의 가중치를 반환
+     */
+    long detach() {
+        writeLock.lock();
+        try {
+            detached = true;
+            return weight;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.gcp.agent.session;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 용량/메모리 상한과 유휴 TTL을 갖는 인메모리 세션 저장소
+ *
+ * - 세션 수 또는 추정 메모리 사용량이 상한을 넘으면 가장 오래 접근되지 않은 세션부터 축출(LRU)
+ * - 한 번 축출할 때 상한의 95%까지 내려 전체 스캔 비용을 여러 삽입에 분산
+ * - 유휴 TTL이 지난 세션은 조회 시점 및 백그라운드 리퍼(reaper)에서 제거
+ * - 세션 생성은 computeIfAbsent로 원자적이며, 턴 추가는 세션 ID별 스트라이프 락으로 직렬화
+ */
+@Slf4j
+public class SessionStore implements AutoCloseable {
+
+    private static final double LOW_WATERMARK = 0.95;
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SessionStoreConfig config;
+    private final int maxSessions;
+    private final long maxWeightBytes;
+    private final long idleTtlMillis;
+
+    private final AtomicLong totalWeight = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LockStripes writeLocks = new LockStripes(LOCK_STRIPES);
+    private final LongAdder capacityEvictions = new LongAdder();
+    private final LongAdder weightEvictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final ScheduledExecutorService reaper;
+
+    public SessionStore(SessionStoreConfig config) {
+        if (config.maxSessions() <= 0 || config.maxWeightBytes() <= 0
+                || config.maxTurns() <= 0 || config.hotTurns() <= 0) {
+            throw new IllegalArgumentException("세션 저장소 상한은 0보다 커야 합니다");
+        }
+        this.config = config;
+        this.maxSessions = config.maxSessions();
+        this.maxWeightBytes = config.maxWeightBytes();
+        this.idleTtlMillis = config.idleTtl().toMillis();
+        this.reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "session-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = config.reaperInterval().toMillis();
+        reaper.scheduleWithFixedDelay(this::reap, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 새 세션 생성
+     */
+    public Session create() {
+        long now = System.currentTimeMillis();
+        String sessionId = UUID.randomUUID().toString();
+        Session session = new Session(sessionId, now, config, writeLocks.forKey(sessionId));
+        sessions.put(session.getId(), session);
+        totalWeight.addAndGet(Session.BASE_WEIGHT);
+        enforceLimits();
+        return session;
+    }
+
+    /**
+     * 세션 조회 (만료된 세션은 제거 후 null)
+     */
+    public Session get(String sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (isExpired(session, now)) {
+            if (remove(session)) {
+                expirations.increment();
+            }
+            return null;
+        }
+        session.touch(now);
+        return session;
+    }
+
+    /**
+     * 세션 조회 (접근 시각을 갱신하지 않음 — 조회/분석용 읽기가 세션 수명을 늘리지 않도록)
+     */
+    public Session peek(String sessionId) {
+        Session session = sessions.get(sessionId);
+        return session != null && !isExpired(session, System.currentTimeMillis()) ? session : null;
+    }
+
+    /**
+     * 세션 조회, 없으면 주어진 ID로 생성
+     */
+    public Session getOrCreate(String sessionId) {
+        Session session = get(sessionId);
+        return session != null ? session : attach(sessionId, System.currentTimeMillis());
+    }
+
+    /**
+     * 세션이 없으면 createdAt 시각으로 생성 (있으면 접근 시각을 갱신하지 않고 그대로 반환)
+     */
+    private Session attach(String sessionId, long createdAt) {
+        boolean[] created = new boolean[1];
+        Session session = sessions.computeIfAbsent(sessionId, id -> {
+            created[0] = true;
+            return new Session(id, createdAt, config, writeLocks.forKey(id));
+        });
+        if (created[0]) {
+            totalWeight.addAndGet(Session.BASE_WEIGHT);
+            enforceLimits();
+        }
+        return session;
+    }
+
+    /**
+     * 세션에 대화 추가 후 상한 검사
+     */
+    public void append(String sessionId, ConversationTurn turn) {
+        addTurn(sessionId, turn, false);
+    }
+
+    /**
+     * 저널에서 읽은 턴 복원. 유휴 TTL이 이미 지난 턴은 건너뛰고, 세션 접근 시각은 턴 시각을 따른다
+     */
+    public void restore(String sessionId, ConversationTurn turn) {
+        if (System.currentTimeMillis() - turn.timestamp() > idleTtlMillis) {
+            return;
+        }
+        addTurn(sessionId, turn, true);
+    }
+
+    /**
+     * 저널의 폐기 기록 재생: 그때까지 복원한 세션의 턴을 버림
+     */
+    public void discard(String sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session != null) {
+            remove(session);
+        }
+    }
+
+    /**
+     * 세션이 저장소에 있고 만료되지 않았는지 확인 (접근 시각은 갱신하지 않음)
+     */
+    public boolean isLive(String sessionId) {
+        return peek(sessionId) != null;
+    }
+
+    public boolean contains(String sessionId) {
+        return get(sessionId) != null;
+    }
+
+    /**
+     * 추가 직전에 세션이 축출/만료되었으면 새 세션을 만들어 다시 추가
+     */
+    private void addTurn(String sessionId, ConversationTurn turn, boolean restoring) {
+        Session session;
+        long delta;
+        do {
+            session = restoring ? attach(sessionId, turn.timestamp()) : getOrCreate(sessionId);
+            delta = session.append(turn);
+        } while (delta == Session.DETACHED);
+
+        if (restoring) {
+            session.restoreAccess(turn.timestamp());
+        }
+        if (delta != 0) {
+            totalWeight.addAndGet(delta);
+            if (delta > 0) {
+                enforceLimits();
+            }
+        }
+    }
+
+    /**
+     * 저장소 현황. tier 사용량은 세션을 한 바퀴 돌며 합산하므로 모니터링 주기로만 호출
+     */
+    public SessionStoreStats stats() {
+        long hotTurns = 0;
+        long coldTurns = 0;
+        long coldBlocks = 0;
+        long coldRawBytes = 0;
+        long coldStoredBytes = 0;
+        for (Session session : sessions.values()) {
+            Session.TierUsage usage = session.tierUsage();
+            hotTurns += usage.hotTurns();
+            coldTurns += usage.coldTurns();
+            coldBlocks += usage.coldBlocks();
+            coldRawBytes += usage.coldRawBytes();
+            coldStoredBytes += usage.coldStoredBytes();
+        }
+        return new SessionStoreStats(
+                sessions.size(),
+                totalWeight.get(),
+                maxSessions,
+                maxWeightBytes,
+                capacityEvictions.sum(),
+                weightEvictions.sum(),
+                expirations.sum(),
+                hotTurns,
+                coldTurns,
+                coldBlocks,
+                coldRawBytes,
+                coldStoredBytes,
+                coldStoredBytes == 0 ? 1.0 : (double) coldRawBytes / coldStoredBytes);
+    }
+
+    @Override
+    public void close() {
+        reaper.shutdownNow();
+    }
+
+    private boolean isExpired(Session session, long now) {
+        return now - session.getLastAccessedAt() > idleTtlMillis;
+    }
+
+    private boolean remove(Session session) {
+        if (!sessions.remove(session.getId(), session)) {
+            return false;
+        }
+        totalWeight.addAndGet(-session.detach());
+        return true;
+    }
+
+    private boolean overLimit() {
+        return sessions.size() > maxSessions || totalWeight.get() > maxWeightBytes;
+    }
+
+    /**
+     * 상한 초과 시 LRU 순으로 축출. 다른 스레드가 축출 중이면 그 스레드에 맡긴다
+     */
+    private void enforceLimits() {
+        if (!overLimit() || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int targetSessions = (int) (maxSessions * LOW_WATERMARK);
+            long targetWeight = (long) (maxWeightBytes * LOW_WATERMARK);
+
+            // 접근 시각은 정렬 도중에도 get()이 갱신하므로 한 번 읽어 둔 값으로 정렬 (비교 결과가 바뀌면 TimSort가 예외를 던짐)
+            List<EvictionCandidate> candidates = new ArrayList<>(sessions.size());
+            for (Session session : sessions.values()) {
+                candidates.add(new EvictionCandidate(session, session.getLastAccessedAt()));
+            }
+            candidates.sort(Comparator.comparingLong(EvictionCandidate::lastAccessedAt));
+
+            for (EvictionCandidate candidate : candidates) {
+                boolean overCount = sessions.size() > targetSessions;
+                boolean overWeight = totalWeight.get() > targetWeight;
+                if (!overCount && !overWeight) {
+                    break;
+                }
+                if (remove(candidate.session())) {
+                    (overCount ? capacityEvictions : weightEvictions).increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private record EvictionCandidate(Session session, long lastAccessedAt) {
+    }
+
+    private void reap() {
+        try {
+            long now = System.currentTimeMillis();
+            int expired = 0;
+            for (Session session : sessions.values()) {
+                if (isExpired(session, now) && remove(session)) {
+                    expirations.increment();
+                    expired++;
+                }
+            }
+            if (expired > 0) {
+                log.info("만료 세션 정리: {}건 (남은 세션 {}건)", expired, sessions.size());
+            }
+            enforceLimits();
+        } catch (RuntimeException e) {
+            log.warn("세션 정리 중 오류", e);
+        }
+    }
+}
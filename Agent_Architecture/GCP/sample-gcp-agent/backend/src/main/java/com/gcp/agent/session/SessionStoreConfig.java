@@ -0,0 +1,29 @@
+package com.gcp.agent.session;
+
+import java.time.Duration;
+
+/**
+ * 세션 저장소 설정
+ *
+ * @param maxSessions      보관할 최대 세션 수
+ * @param maxWeightBytes   전체 세션의 추정 메모리 상한
+ * @param maxTurns         세션당 보관할 최대 턴 수 (hot + cold)
+ * @param hotTurns         객체 그대로 링 버퍼에 둘 최근 턴 수
+ * @param coldBlockTurns   cold tier 압축 블록 하나에 담을 턴 수
+ * @param contextTurns     컨텍스트 윈도우에 담을 최대 턴 수
+ * @param contextMaxChars  컨텍스트 윈도우의 최대 문자 수
+ * @param idleTtl          마지막 접근 후 세션을 만료시키는 시간
+ * @param reaperInterval   만료 세션 정리 주기
+ */
+public record SessionStoreConfig(
+        int maxSessions,
+        long maxWeightBytes,
+        int maxTurns,
+        int hotTurns,
+        int coldBlockTurns,
+        int contextTurns,
+        int contextMaxChars,
+        Duration idleTtl,
+        Duration reaperInterval
+) {
+}
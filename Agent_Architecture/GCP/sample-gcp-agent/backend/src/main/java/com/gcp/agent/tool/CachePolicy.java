@@ -0,0 +1,16 @@
+package com.gcp.agent.tool;
+
+/**
+ * 도구 결과 캐시 정책 (Tool.pure()/cacheTtl() 선언에서 결정)
+ */
+public enum CachePolicy {
+
+    /** 같은 인자면 항상 같은 결과: 용량이 허락하는 한 기한 없이 재사용 */
+    PURE,
+
+    /** 외부 상태에 따라 바뀌지만 cacheTtl 동안은 재사용 가능 */
+    TTL,
+
+    /** 매번 실행 (예: 현재 시각) */
+    NONE
+}
@@ -0,0 +1,110 @@
+package com.gcp.agent.tool;
+
+import com.gcp.agent.cache.CacheStats;
+import com.gcp.agent.routing.RouteRule;
+import com.gcp.agent.tool.expression.CompiledExpression;
+import com.gcp.agent.tool.expression.ExpressionEngine;
+import com.gcp.agent.tool.expression.ExpressionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 계산기 도구 - 수학 연산 수행
+ */
+@Component
+public class CalculatorTool implements Tool {
+
+    public static final String NAME = "calculator";
+
+    private static final MathContext DISPLAY = new MathContext(12);
+
+    private final ExpressionEngine engine;
+
+    public CalculatorTool(@Value("${agent.tools.calculator.cache-size:4096}") int cacheSize) {
+        this.engine = new ExpressionEngine(cacheSize);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String description() {
+        return "계산기 - 수학 연산 수행";
+    }
+
+    @Override
+    public RouteRule route() {
+        return new RouteRule(NAME, 30, 0.8,
+                List.of("계산", "더하기", "빼기", "곱하기", "나누기"), List.of("arithmetic"));
+    }
+
+    @Override
+    public Duration timeout() {
+        return Duration.ofMillis(500);
+    }
+
+    @Override
+    public boolean pure() {
+        return true;
+    }
+
+    /**
+     * 정규화한 계산식 ("5+3 계산해줘" → "5 + 3"). 계산식이 없으면 캐시하지 않음
+     */
+    @Override
+    public String cacheKey(String message) {
+        try {
+            return engine.compile(message).source();
+        } catch (ExpressionException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public Map<String, Object> execute(String message) {
+        Map<String, Object> result = new HashMap<>();
+
+        try {
+            CompiledExpression expression = engine.compile(message);
+            double value = expression.evaluate();
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                result.put("error", "계산 결과를 정의할 수 없습니다: " + expression.source());
+                return result;
+            }
+            result.put("result", value);
+            result.put("expression", expression.source());
+        } catch (ExpressionException | ArithmeticException e) {
+            result.put("error", e.getMessage());
+        }
+
+        return result;
+    }
+
+    @Override
+    public String render(Map<String, Object> result) {
+        return "계산 결과: " + result.get("expression") + " = " + format(result.get("result"));
+    }
+
+    public CacheStats cacheStats() {
+        return engine.cacheStats();
+    }
+
+    /**
+     * 부동소수 오차를 12자리에서 반올림하고 정수는 소수점 없이 표시 (0.1 + 0.2 → 0.3, 8.0 → 8)
+     */
+    static String format(Object value) {
+        if (!(value instanceof Double number)) {
+            return String.valueOf(value);
+        }
+        return new BigDecimal(number).round(DISPLAY).stripTrailingZeros().toPlainString();
+    }
+}
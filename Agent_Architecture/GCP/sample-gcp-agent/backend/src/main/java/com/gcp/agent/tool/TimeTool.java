@@ -0,0 +1,56 @@
+package com.gcp.agent.tool;
+
+import com.gcp.agent.routing.RouteRule;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 현재 시간 조회 도구 (결과는 재사용하지 않음)
+ */
+@Component
+public class TimeTool implements Tool {
+
+    public static final String NAME = "time";
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String description() {
+        return "현재 시간 조회";
+    }
+
+    @Override
+    public RouteRule route() {
+        return new RouteRule(NAME, 10, 0.8, List.of("시간", "몇 시"), List.of());
+    }
+
+    @Override
+    public Duration timeout() {
+        return Duration.ofMillis(200);
+    }
+
+    @Override
+    public Map<String, Object> execute(String message) {
+        Map<String, Object> result = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        result.put("currentTime", now.format(FORMATTER));
+        result.put("timezone", "Asia/Seoul");
+        return result;
+    }
+
+    @Override
+    public String render(Map<String, Object> result) {
+        return "현재 시간은 " + result.get("currentTime") + " (" + result.get("timezone") + ") 입니다.";
+    }
+}
@@ -0,0 +1,88 @@
+package com.gcp.agent.tool;
+
+import com.gcp.agent.routing.RouteRule;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 에이전트 도구 SPI (Action Group 하나에 해당)
+ *
+ * 구현체를 Spring 빈으로 등록하면 ToolRegistry가 찾아 라우팅/실행/응답 생성에 연결한다.
+ * 도구를 추가할 때 오케스트레이터나 ToolService를 고칠 필요가 없다.
+ */
+public interface Tool {
+
+    Duration DEFAULT_TIMEOUT = Duration.ofSeconds(2);
+
+    /**
+     * 라우팅 규칙, 응답 메타데이터(toolUsed)에 쓰이는 고유 이름
+     */
+    String name();
+
+    String description();
+
+    /**
+     * 이 도구를 고르는 기본 라우팅 규칙 (agent.routing.rules-file이 있으면 그쪽이 우선)
+     */
+    RouteRule route();
+
+    /**
+     * 한 번 실행에 허용하는 최대 시간
+     */
+    default Duration timeout() {
+        return DEFAULT_TIMEOUT;
+    }
+
+    /**
+     * 같은 입력이면 항상 같은 결과를 내는지 (결과를 기한 없이 재사용 가능)
+     */
+    default boolean pure() {
+        return false;
+    }
+
+    /**
+     * 순수하지 않은 도구의 결과를 재사용해도 되는 기간 (ZERO면 재사용 불가)
+     */
+    default Duration cacheTtl() {
+        return Duration.ZERO;
+    }
+
+    /**
+     * pure()/cacheTtl() 선언에 따른 결과 캐시 정책
+     */
+    default CachePolicy cachePolicy() {
+        if (pure()) {
+            return CachePolicy.PURE;
+        }
+        return cacheTtl().isNegative() || cacheTtl().isZero() ? CachePolicy.NONE : CachePolicy.TTL;
+    }
+
+    /**
+     * 메시지에서 해석한 인자의 정규형 (결과 캐시 키). 같은 키면 같은 결과여야 하며, null이면 캐시하지 않는다
+     */
+    default String cacheKey(String message) {
+        return null;
+    }
+
+    /**
+     * 도구 실행. 실패는 "error" 키에 사용자에게 보일 메시지를 담아 반환
+     */
+    Map<String, Object> execute(String message);
+
+    /**
+     * 성공한 실행 결과를 응답 문장으로 변환
+     */
+    String render(Map<String, Object> result);
+
+    /**
+     * 실행하지 못했을 때(시간 초과, 서킷 브레이커 차단 등) 대신 쓸 결과. 기본은 사유를 안내하는 실패 결과
+     */
+    default Map<String, Object> fallback(FallbackReason reason) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("error", reason.message());
+        result.put("fallback", reason.name());
+        return result;
+    }
+}
@@ -0,0 +1,53 @@
+package com.gcp.agent.tool;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 도구 실행 격리 설정 (벌크헤드, 서킷 브레이커, 장애 주입)
+ *
+ * @param bulkheadThreads      도구별 전용 스레드 수 (한 도구가 동시에 점유할 수 있는 최대 실행 수)
+ * @param bulkheadQueue        도구별 대기열 길이 (넘치면 즉시 대체 결과)
+ * @param breakerWindow        실패율/지연율을 계산할 최근 호출 수
+ * @param breakerMinimumCalls  차단 여부를 판단하기 전에 필요한 최소 기록 수
+ * @param breakerFailureRate   차단할 실패율 (0~1, 시간 초과 포함)
+ * @param breakerSlowCallRate  차단할 느린 호출 비율 (0~1)
+ * @param breakerSlowCall      이 시간 이상 걸린 호출을 느린 호출로 본다
+ * @param breakerOpenDuration  차단 후 시험 호출을 허용하기까지 기다리는 시간
+ * @param breakerHalfOpenCalls 차단 해제 전 성공해야 하는 시험 호출 수
+ * @param faultTools           장애를 주입할 도구 이름 (비우면 주입 안 함, 로컬 부하/장애 시험용)
+ * @param faultLatency         주입할 지연
+ * @param faultFailureRate     주입할 실패 확률 (0~1)
+ */
+public record ToolExecutionConfig(int bulkheadThreads, int bulkheadQueue,
+                                  int breakerWindow, int breakerMinimumCalls,
+                                  double breakerFailureRate, double breakerSlowCallRate,
+                                  Duration breakerSlowCall, Duration breakerOpenDuration, int breakerHalfOpenCalls,
+                                  List<String> faultTools, Duration faultLatency, double faultFailureRate) {
+
+    public ToolExecutionConfig {
+        if (bulkheadThreads <= 0 || bulkheadQueue < 0) {
+            throw new IllegalArgumentException("agent.tools.bulkhead.threads는 0보다, queue는 0 이상이어야 합니다");
+        }
+        if (breakerWindow <= 0 || breakerMinimumCalls <= 0 || breakerMinimumCalls > breakerWindow
+                || breakerHalfOpenCalls <= 0) {
+            throw new IllegalArgumentException(
+                    "agent.tools.breaker.window/minimum-calls/half-open-calls는 0보다 크고 minimum-calls는 window 이하여야 합니다");
+        }
+        if (!isRate(breakerFailureRate) || !isRate(breakerSlowCallRate) || !isRate(faultFailureRate)) {
+            throw new IllegalArgumentException("비율 설정은 0과 1 사이여야 합니다");
+        }
+        faultTools = List.copyOf(faultTools);
+    }
+
+    /**
+     * 해당 도구에 장애를 주입하는지
+     */
+    public boolean injectsFaults(String tool) {
+        return faultTools.contains(tool) && (!faultLatency.isZero() || faultFailureRate > 0);
+    }
+
+    private static boolean isRate(double value) {
+        return value >= 0 && value <= 1;
+    }
+}
@@ -0,0 +1,153 @@
+package com.gcp.agent.tool;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 도구를 요청 스레드 밖의 도구별 전용 스레드 풀(벌크헤드)에서 실행
+ *
+ * - 도구마다 스레드 수와 대기열이 제한된 풀을 따로 두어, 느린 도구 하나가 다른 도구나 웹 요청 스레드를 모두 잡아두지 못한다
+ * - 요청 스레드는 Tool.timeout()까지만 기다리고, 넘기면 실행을 취소(인터럽트)하고 대체 결과를 쓴다
+ * - 도구별 서킷 브레이커가 실패/지연이 잦은 도구를 잠시 호출하지 않고 바로 대체 결과를 쓰게 한다
+ * 실행하지 못한 경우의 결과는 Tool.fallback(사유)이며, 다른 실패 결과처럼 "error" 키로 응답에 표시된다.
+ */
+@Slf4j
+public final class ToolExecutor implements AutoCloseable {
+
+    private final ToolExecutionConfig config;
+    private final Map<String, Lane> lanes = new LinkedHashMap<>();
+
+    public ToolExecutor(List<Tool> tools, ToolExecutionConfig config) {
+        this.config = config;
+        for (Tool tool : tools) {
+            lanes.put(tool.name(), new Lane(tool, config));
+        }
+        if (!config.faultTools().isEmpty()) {
+            log.warn("도구 장애 주입 사용 중: tools={}, latency={}, failureRate={}",
+                    config.faultTools(), config.faultLatency(), config.faultFailureRate());
+        }
+    }
+
+    /**
+     * 도구 실행. 시간 초과/실패/거절/차단 시 예외 대신 tool.fallback(사유) 반환
+     */
+    public Map<String, Object> execute(Tool tool, String message) {
+        Lane lane = lanes.get(tool.name());
+        if (lane == null) {
+            throw new IllegalArgumentException("등록되지 않은 도구: " + tool.name());
+        }
+        lane.calls.increment();
+        long permit = lane.breaker.tryAcquire();
+        if (permit == CircuitBreaker.DENIED) {
+            lane.shortCircuits.increment();
+            return tool.fallback(FallbackReason.CIRCUIT_OPEN);
+        }
+
+        long started = System.nanoTime();
+        Future<Map<String, Object>> future;
+        try {
+            future = lane.executor.submit(() -> invoke(tool, message));
+        } catch (RejectedExecutionException e) {
+            lane.breaker.release(permit);
+            lane.rejections.increment();
+            return tool.fallback(FallbackReason.REJECTED);
+        }
+
+        try {
+            Map<String, Object> result = future.get(tool.timeout().toNanos(), TimeUnit.NANOSECONDS);
+            lane.breaker.onResult(permit, false, System.nanoTime() - started);
+            lane.successes.increment();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            lane.breaker.onResult(permit, true, System.nanoTime() - started);
+            lane.timeouts.increment();
+            log.warn("도구 실행 시간 초과: tool={}, timeout={}", tool.name(), tool.timeout());
+            return tool.fallback(FallbackReason.TIMEOUT);
+        } catch (ExecutionException e) {
+            lane.breaker.onResult(permit, true, System.nanoTime() - started);
+            lane.failures.increment();
+            log.warn("도구 실행 실패: tool={}", tool.name(), e.getCause());
+            return tool.fallback(FallbackReason.FAILED);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            lane.breaker.release(permit);
+            Thread.currentThread().interrupt();
+            return tool.fallback(FallbackReason.CANCELLED);
+        }
+    }
+
+    public List<ToolStats> stats() {
+        return lanes.values().stream().map(Lane::stats).toList();
+    }
+
+    @Override
+    public void close() {
+        lanes.values().forEach(lane -> lane.executor.shutdownNow());
+    }
+
+    private Map<String, Object> invoke(Tool tool, String message) throws InterruptedException {
+        if (config.injectsFaults(tool.name())) {
+            TimeUnit.NANOSECONDS.sleep(config.faultLatency().toNanos());
+            if (ThreadLocalRandom.current().nextDouble() < config.faultFailureRate()) {
+                throw new IllegalStateException("주입된 도구 장애: " + tool.name());
+            }
+        }
+        return tool.execute(message);
+    }
+
+    /**
+     * 도구 하나의 벌크헤드, 서킷 브레이커, 집계
+     */
+    private static final class Lane {
+        private final String tool;
+        private final CachePolicy cachePolicy;
+        private final ThreadPoolExecutor executor;
+        private final CircuitBreaker breaker;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder rejections = new LongAdder();
+        private final LongAdder shortCircuits = new LongAdder();
+
+        Lane(Tool tool, ToolExecutionConfig config) {
+            String name = tool.name();
+            this.tool = name;
+            this.cachePolicy = tool.cachePolicy();
+            this.breaker = new CircuitBreaker(config);
+            AtomicInteger sequence = new AtomicInteger();
+            BlockingQueue<Runnable> queue = config.bulkheadQueue() == 0
+                    ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(config.bulkheadQueue());
+            this.executor = new ThreadPoolExecutor(config.bulkheadThreads(), config.bulkheadThreads(),
+                    60, TimeUnit.SECONDS, queue, r -> {
+                        Thread thread = new Thread(r, "tool-" + name + "-" + sequence.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+        }
+
+        ToolStats stats() {
+            return new ToolStats(tool, cachePolicy, null, breaker.snapshot(),
+                    executor.getActiveCount(), executor.getQueue().size(),
+                    calls.sum(), successes.sum(), failures.sum(), timeouts.sum(),
+                    rejections.sum(), shortCircuits.sum());
+        }
+    }
+}
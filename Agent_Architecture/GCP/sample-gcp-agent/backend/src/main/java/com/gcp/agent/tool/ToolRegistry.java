@@ -0,0 +1,55 @@
+package com.gcp.agent.tool;
+
+import com.gcp.agent.routing.RouteRule;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spring 빈으로 등록된 도구를 이름으로 찾는 조회 표 (기동 시 한 번 구성, 이후 불변)
+ */
+@Component
+public class ToolRegistry {
+
+    private final Map<String, Tool> byName;
+    private final List<Tool> tools;
+
+    public ToolRegistry(List<Tool> tools) {
+        Map<String, Tool> table = new HashMap<>();
+        for (Tool tool : tools) {
+            Tool previous = table.putIfAbsent(tool.name(), tool);
+            if (previous != null) {
+                throw new IllegalStateException("도구 이름이 중복되었습니다: " + tool.name()
+                        + " (" + previous.getClass().getName() + ", " + tool.getClass().getName() + ")");
+            }
+        }
+        this.byName = Map.copyOf(table);
+        this.tools = Collections.unmodifiableList(new ArrayList<>(tools));
+    }
+
+    /**
+     * 이름으로 도구 조회 (없으면 null)
+     */
+    public Tool get(String name) {
+        return name == null ? null : byName.get(name);
+    }
+
+    public List<Tool> tools() {
+        return tools;
+    }
+
+    /**
+     * 등록된 도구가 선언한 기본 라우팅 규칙
+     */
+    public List<RouteRule> routes() {
+        List<RouteRule> routes = new ArrayList<>(tools.size());
+        for (Tool tool : tools) {
+            routes.add(tool.route());
+        }
+        return routes;
+    }
+}
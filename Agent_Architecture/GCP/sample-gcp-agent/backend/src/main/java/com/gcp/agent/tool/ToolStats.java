@@ -0,0 +1,30 @@
+package com.gcp.agent.tool;
+
+import com.gcp.agent.cache.CacheStats;
+
+/**
+ * 도구별 실행 현황
+ *
+ * @param tool          도구 이름
+ * @param cachePolicy   결과 캐시 정책
+ * @param cache         결과 캐시 적중률/크기 (캐시하지 않으면 null)
+ * @param breaker       서킷 브레이커 상태와 최근 실패율/지연율
+ * @param active        지금 실행 중인 호출 수
+ * @param queued        벌크헤드 대기열에 있는 호출 수
+ * @param calls         실행을 요청받은 총 횟수 (캐시 적중 제외)
+ * @param successes     제한 시간 안에 끝난 횟수
+ * @param failures      예외로 끝난 횟수
+ * @param timeouts      제한 시간을 넘긴 횟수
+ * @param rejections    벌크헤드가 가득 차 거절한 횟수
+ * @param shortCircuits 서킷 브레이커가 열려 호출하지 않은 횟수
+ */
+public record ToolStats(String tool, CachePolicy cachePolicy, CacheStats cache,
+                        CircuitBreaker.Snapshot breaker, int active, int queued,
+                        long calls, long successes, long failures, long timeouts,
+                        long rejections, long shortCircuits) {
+
+    public ToolStats withCache(CacheStats cache) {
+        return new ToolStats(tool, cachePolicy, cache, breaker, active, queued,
+                calls, successes, failures, timeouts, rejections, shortCircuits);
+    }
+}
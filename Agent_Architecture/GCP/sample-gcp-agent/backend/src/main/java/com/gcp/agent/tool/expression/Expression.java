@@ -0,0 +1,47 @@
+package com.gcp.agent.tool.expression;
+
+/**
+ * 계산식 AST 노드 (불변, 스레드 안전)
+ *
+ * 평가는 노드를 재귀적으로 따라가며 double 값만 주고받으므로 객체를 만들지 않는다.
+ */
+public sealed interface Expression
+        permits Expression.Literal, Expression.Negate, Expression.Binary, Expression.Call {
+
+    double evaluate();
+
+    record Literal(double value) implements Expression {
+
+        @Override
+        public double evaluate() {
+            return value;
+        }
+    }
+
+    record Negate(Expression operand) implements Expression {
+
+        @Override
+        public double evaluate() {
+            return -operand.evaluate();
+        }
+    }
+
+    record Binary(Operator operator, Expression left, Expression right) implements Expression {
+
+        @Override
+        public double evaluate() {
+            return operator.apply(left.evaluate(), right.evaluate());
+        }
+    }
+
+    /**
+     * 함수 호출 (인자가 하나인 함수는 second가 null)
+     */
+    record Call(MathFunction function, Expression first, Expression second) implements Expression {
+
+        @Override
+        public double evaluate() {
+            return function.apply(first.evaluate(), second == null ? 0 : second.evaluate());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.gcp.agent.tool.expression;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 계산식에서 쓸 수 있는 함수 (log는 상용로그, ln은 자연로그, 삼각함수는 라디안)
+ */
+public enum MathFunction {
+
+    SQRT(1) {
+        @Override
+        double apply(double a, double b) {
+            return Math.sqrt(a);
+        }
+    },
+    ABS(1) {
+        @Override
+        double apply(double a, double b) {
+            return Math.abs(a);
+        }
+    },
+    SIN(1) {
+        @Override
+        double apply(double a, double b) {
+            return Math.sin(a);
+        }
+    },
+    COS(1) {
+        @Override
+        double apply(double a, double b) {
+            return Math.cos(a);
+        }
+    },
+    TAN(1) {
+        @Override
+        double apply(double a, double b) {
+            return Math.tan(a);
+        }
+    },
+    LOG(1) {
+        @Override
+        double apply(double a, double b) {
+            return Math.log10(a);
+        }
+    },
+    LN(1) {
+        @Override
+        double apply(double a, double b) {
+            return Math.log(a);
+        }
+    },
+    EXP(1) {
+        @Override
+        double apply(double a, double b) {
+            return Math.exp(a);
+        }
+    },
+    ROUND(1) {
+        @Override
+        double apply(double a, double b) {
+            return Math.round(a);
+        }
+    },
+    FLOOR(1) {
+        @Override
+        double apply(double a, double b) {
+            return Math.floor(a);
+        }
+    },
+    CEIL(1) {
+        @Override
+        double apply(double a, double b) {
+            return Math.ceil(a);
+        }
+    },
+    MIN(2) {
+        @Override
+        double apply(double a, double b) {
+            return Math.min(a, b);
+        }
+    },
+    MAX(2) {
+        @Override
+        double apply(double a, double b) {
+            return Math.max(a, b);
+        }
+    },
+    POW(2) {
+        @Override
+        double apply(double a, double b) {
+            return Math.pow(a, b);
+        }
+    };
+
+    private static final Map<String, MathFunction> BY_NAME = new HashMap<>();
+
+    static {
+        for (MathFunction function : values()) {
+            BY_NAME.put(function.functionName(), function);
+        }
+    }
+
+    private final int arity;
+
+    MathFunction(int arity) {
+        this.arity = arity;
+    }
+
+    public int arity() {
+        return arity;
+    }
+
+    /**
+     * 계산식에 쓰는 이름 (소문자)
+     */
+    public String functionName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    abstract double apply(double a, double b);
+
+    /**
+     * 이름으로 함수 찾기 (없으면 null)
+     */
+    static MathFunction lookup(String name) {
+        return BY_NAME.get(name);
+    }
+}
@@ -0,0 +1,149 @@
+package com.gcp.agent.tool.weather;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 오프라인 부하/장애 시험용 로컬 날씨 API 스텁 (JDK HttpServer, 외부 의존성 없음)
+ *
+ * - GET /weather?location=서울 → {"location":"서울","temperature":..,"condition":"..","humidity":..}
+ *   값은 지역 이름으로 정해지는 고정값이다
+ * - 응답 전 지연(latency)을 넣고, failureRate 확률로 HTTP 503을 돌려준다
+ * - GET /stats → 지역별 누적 요청 수 (single-flight가 지역당 한 번만 호출하는지 확인용)
+ * agent.tools.weather.stub.enabled=true로 앱과 함께 띄우거나, 단독으로 실행한다:
+ * java -cp target/classes com.gcp.agent.tool.weather.WeatherStubServer [port] [latencyMillis] [failureRate]
+ */
+public final class WeatherStubServer implements AutoCloseable {
+
+    private static final String[] CONDITIONS = {"맑음", "구름 많음", "흐림", "비"};
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long latencyMillis;
+    private final double failureRate;
+    private final Map<String, LongAdder> requests = new ConcurrentHashMap<>();
+
+    private WeatherStubServer(int port, Duration latency, double failureRate) throws IOException {
+        this.latencyMillis = latency.toMillis();
+        this.failureRate = failureRate;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "weather-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/weather", this::weather);
+        server.createContext("/stats", this::stats);
+    }
+
+    /**
+     * 스텁 서버 시작 (port가 0이면 빈 포트)
+     */
+    public static WeatherStubServer start(int port, Duration latency, double failureRate) throws IOException {
+        WeatherStubServer stub = new WeatherStubServer(port, latency, failureRate);
+        stub.server.start();
+        return stub;
+    }
+
+    /**
+     * 날씨 조회 주소 (WeatherClient의 endpoint로 사용)
+     */
+    public URI endpoint() {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + "/weather");
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void weather(HttpExchange exchange) throws IOException {
+        String location = parameter(exchange.getRequestURI(), "location");
+        if (location == null || location.isBlank()) {
+            respond(exchange, 400, "{\"error\":\"location is required\"}");
+            return;
+        }
+        requests.computeIfAbsent(location, key -> new LongAdder()).increment();
+        try {
+            TimeUnit.MILLISECONDS.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.close();
+            return;
+        }
+        if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+            respond(exchange, 503, "{\"error\":\"injected failure\"}");
+            return;
+        }
+        int hash = location.hashCode();
+        respond(exchange, 200, "{\"location\":\"" + escape(location) + "\""
+                + ",\"temperature\":" + (5 + Math.floorMod(hash, 25))
+                + ",\"condition\":\"" + CONDITIONS[Math.floorMod(hash >>> 8, CONDITIONS.length)] + "\""
+                + ",\"humidity\":" + (30 + Math.floorMod(hash >>> 16, 60))
+                + ",\"source\":{\"provider\":\"stub\"}}");
+    }
+
+    private void stats(HttpExchange exchange) throws IOException {
+        StringBuilder json = new StringBuilder("{");
+        requests.forEach((location, count) -> {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append('"').append(escape(location)).append("\":").append(count.sum());
+        });
+        respond(exchange, 200, json.append('}').toString());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String parameter(URI uri, String name) {
+        String query = uri.getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 18090;
+        Duration latency = Duration.ofMillis(args.length > 1 ? Long.parseLong(args[1]) : 50);
+        double failureRate = args.length > 2 ? Double.parseDouble(args[2]) : 0;
+        WeatherStubServer stub = start(port, latency, failureRate);
+        System.out.println("날씨 스텁 서버 시작: " + stub.endpoint() + " (latency=" + latency + ", failureRate=" + failureRate + ")");
+        Thread.currentThread().join();
+    }
+}